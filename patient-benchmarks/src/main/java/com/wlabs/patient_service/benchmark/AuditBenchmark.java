@@ -0,0 +1,72 @@
+package com.wlabs.patient_service.benchmark;
+
+import com.wlabs.patient_service.model.dto.PatientAccessEventDTO;
+import com.wlabs.patient_service.service.PatientAuditBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// What auditing adds to a request: building the event and offering it to PatientAuditBuffer, with request threads
+// competing for slots while one writer thread drains, as in PatientAuditLog. A rejected offer (full buffer) costs
+// about the same as an accepted one.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditBenchmark {
+
+    private static final UUID PATIENT_ID = UUID.randomUUID();
+
+    private PatientAuditBuffer<PatientAccessEventDTO> buffer;
+    private volatile boolean draining;
+    private Thread writer;
+
+    @Setup
+    public void setUp() {
+        buffer = new PatientAuditBuffer<>(65_536);
+        draining = true;
+        writer = new Thread(() -> {
+            while (draining) {
+                if (buffer.drain(event -> { }, 1000) == 0) {
+                    LockSupport.parkNanos(100_000);
+                }
+            }
+        });
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        draining = false;
+        writer.join();
+    }
+
+    @Benchmark
+    public boolean record() {
+        return buffer.offer(new PatientAccessEventDTO(null, Instant.now(), PATIENT_ID, "getPatientById", "dr.house",
+                "10.0.0.7", true));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean recordContended() {
+        return record();
+    }
+}
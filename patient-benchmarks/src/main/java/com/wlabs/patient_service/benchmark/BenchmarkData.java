@@ -0,0 +1,69 @@
+package com.wlabs.patient_service.benchmark;
+
+import com.wlabs.patient_service.model.dto.AddressDTO;
+import com.wlabs.patient_service.model.dto.CaregiverDTO;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Realistic, valid payloads whose size is driven by the benchmarks' @Param values
+final class BenchmarkData {
+
+    private static final String[] CONDITIONS = {
+            "Acne", "Allergies", "Alzheimer's Disease", "Anxiety", "Asthma", "Celiac Disease",
+            "Hypertension", "Hypothyroidism", "Migraine", "Arthritis"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static PatientDTO patientDto(int caregivers, int historyEntries) {
+        PatientDTO dto = new PatientDTO();
+        dto.setFirstName("Jonathan");
+        dto.setLastName("Richardson");
+        dto.setEmail("jonathan.richardson@example.com");
+        dto.setPhoneNumber("(555) 123-4567");
+        dto.setHeightCm(182.5);
+        dto.setWeightKg(84.2);
+        dto.setDateOfBirth(LocalDate.of(1971, 3, 14));
+        dto.setEthnicity("White");
+        dto.setTypeOfDiabetes("Type 2");
+        dto.setDateOfDiagnosis(LocalDate.of(2012, 9, 30));
+        dto.setBiologicalSex("Male");
+        dto.setAssignedPhysician("Dr. Jane Doe");
+        dto.setNotes("Prefers morning appointments. Monitor HbA1c quarterly and review medication adherence.");
+
+        List<String> history = new ArrayList<>(historyEntries);
+        for (int i = 0; i < historyEntries; i++) {
+            history.add(CONDITIONS[i % CONDITIONS.length] + (i < CONDITIONS.length ? "" : " (" + i + ")"));
+        }
+        dto.setMedicalHistory(history);
+
+        AddressDTO address = new AddressDTO();
+        address.setMailingAddress("1200 Harbor Boulevard, Apt 4B");
+        address.setZipcode("92627");
+        address.setCounty("Orange County");
+        address.setState("CA");
+        address.setCountry("USA");
+        dto.setAddress(address);
+
+        List<CaregiverDTO> caregiverDtos = new ArrayList<>(caregivers);
+        for (int i = 0; i < caregivers; i++) {
+            caregiverDtos.add(caregiverDto(i));
+        }
+        dto.setCaregivers(caregiverDtos);
+        return dto;
+    }
+
+    static CaregiverDTO caregiverDto(int index) {
+        CaregiverDTO caregiver = new CaregiverDTO();
+        caregiver.setFirstName("Caregiver" + index);
+        caregiver.setLastName("Richardson");
+        caregiver.setEmail("caregiver" + index + ".richardson@example.com");
+        caregiver.setPhoneNumber("555-987-" + String.format("%04d", index));
+        caregiver.setRelationshipToPatient(index % 2 == 0 ? "Family Member" : "Home Health Aide");
+        return caregiver;
+    }
+}
@@ -0,0 +1,66 @@
+package com.wlabs.patient_service.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compares two JMH JSON result files (-rf json) and exits with status 1 when any benchmark regressed past the threshold.
+// Usage: java -cp target/benchmarks.jar com.wlabs.patient_service.benchmark.CompareResults baseline.json candidate.json [thresholdPercent]
+public final class CompareResults {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <candidate.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, JsonNode> baseline = read(Path.of(args[0]));
+        Map<String, JsonNode> candidate = read(Path.of(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %12s%n", entry.getKey(), "new");
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = after.path("primaryMetric").path("score").asDouble();
+            double change = (newScore - oldScore) / oldScore * 100;
+            // Throughput is better when higher, every other JMH mode reports time per operation
+            double slowdown = "thrpt".equals(after.path("mode").asText()) ? -change : change;
+            boolean regressed = slowdown > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %12.3f -> %12.3f %s %+7.1f%%%s%n", entry.getKey(), oldScore, newScore,
+                    after.path("primaryMetric").path("scoreUnit").asText(), change, regressed ? "  REGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> read(Path file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            results.put(result.path("benchmark").asText() + (params.isEmpty() ? "" : " " + params), result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,85 @@
+package com.wlabs.patient_service.benchmark;
+
+import com.wlabs.patient_service.mapper.CaregiverMapper;
+import com.wlabs.patient_service.mapper.CaregiverMapperImpl;
+import com.wlabs.patient_service.mapper.PatientMapper;
+import com.wlabs.patient_service.mapper.PatientMapperImpl;
+import com.wlabs.patient_service.model.Caregiver;
+import com.wlabs.patient_service.model.Patient;
+import com.wlabs.patient_service.model.dto.CaregiverDTO;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.model.dto.PatientDetailDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int caregivers;
+
+    @Param({"5", "100"})
+    private int historyEntries;
+
+    private AnnotationConfigApplicationContext context;
+    private PatientMapper patientMapper;
+    private CaregiverMapper caregiverMapper;
+    private PatientDTO patientDto;
+    private CaregiverDTO caregiverDto;
+    private Patient patient;
+
+    @Setup
+    public void setUp() {
+        // The generated mappers use Spring field injection for CaregiverMapper, so wire them in a minimal context
+        context = new AnnotationConfigApplicationContext(PatientMapperImpl.class, CaregiverMapperImpl.class);
+        patientMapper = context.getBean(PatientMapper.class);
+        caregiverMapper = context.getBean(CaregiverMapper.class);
+        patientDto = BenchmarkData.patientDto(caregivers, historyEntries);
+        caregiverDto = BenchmarkData.caregiverDto(0);
+        patient = patientMapper.patientDtoToPatient(patientDto);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Patient patientDtoToPatient() {
+        return patientMapper.patientDtoToPatient(patientDto);
+    }
+
+    @Benchmark
+    public Patient updatePatientFromDto() {
+        patientMapper.updatePatientFromDto(patientDto, patient);
+        return patient;
+    }
+
+    @Benchmark
+    public Caregiver caregiverDtoToCaregiver() {
+        return caregiverMapper.caregiverDtoToCaregiver(caregiverDto);
+    }
+
+    @Benchmark
+    public PatientDetailDTO patientToPatientDetailDto() {
+        return patientMapper.patientToPatientDetailDto(patient);
+    }
+}
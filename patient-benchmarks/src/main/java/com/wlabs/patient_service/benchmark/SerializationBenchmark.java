@@ -0,0 +1,106 @@
+package com.wlabs.patient_service.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.wlabs.patient_service.mapper.CaregiverMapperImpl;
+import com.wlabs.patient_service.mapper.PatientMapper;
+import com.wlabs.patient_service.mapper.PatientMapperImpl;
+import com.wlabs.patient_service.model.Patient;
+import com.wlabs.patient_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.model.dto.PatientDetailDTO;
+import com.wlabs.patient_service.model.dto.PatientSummaryDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private static final int SEARCH_PAGE_SIZE = 50;
+
+    @Param({"1", "10", "50"})
+    private int caregivers;
+
+    @Param({"5", "100"})
+    private int historyEntries;
+
+    private ObjectMapper objectMapper;
+    private Patient patient;
+    private PatientDetailDTO patientDetail;
+    private CursorPageDTO<PatientSummaryDTO> searchPage;
+    private byte[] patientDtoJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        // Same date handling as the service's Boot-configured ObjectMapper
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        PatientDTO patientDto = BenchmarkData.patientDto(caregivers, historyEntries);
+        try (AnnotationConfigApplicationContext context =
+                     new AnnotationConfigApplicationContext(PatientMapperImpl.class, CaregiverMapperImpl.class)) {
+            PatientMapper patientMapper = context.getBean(PatientMapper.class);
+            patient = patientMapper.patientDtoToPatient(patientDto);
+            patient.setId(UUID.randomUUID());
+            patient.getAddress().setPatient(patient);
+            patient.getCaregivers().forEach(caregiver -> {
+                caregiver.setId(UUID.randomUUID());
+                caregiver.setPatient(patient);
+            });
+            patientDetail = patientMapper.patientToPatientDetailDto(patient);
+        }
+
+        List<PatientSummaryDTO> summaries = new ArrayList<>(SEARCH_PAGE_SIZE);
+        for (int i = 0; i < SEARCH_PAGE_SIZE; i++) {
+            summaries.add(new PatientSummaryDTO(UUID.randomUUID(), patient.getFirstName(), patient.getLastName() + i,
+                    patient.getEmail(), patient.getPhoneNumber(), patient.getDateOfBirth(), patient.getAssignedPhysician()));
+        }
+        searchPage = new CursorPageDTO<>(summaries, "MC41OjAxOTJmMDAwLTAwMDAtNzAwMC04MDAwLTAwMDAwMDAwMDAwMA");
+        patientDtoJson = objectMapper.writeValueAsBytes(patientDto);
+    }
+
+    @Benchmark
+    public byte[] serializePatientEntity() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(patient);
+    }
+
+    @Benchmark
+    public byte[] serializePatientDetail() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(patientDetail);
+    }
+
+    @Benchmark
+    public byte[] serializeSearchPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(searchPage);
+    }
+
+    @Benchmark
+    public PatientDTO deserializePatientDto() throws IOException {
+        return objectMapper.readValue(patientDtoJson, PatientDTO.class);
+    }
+}
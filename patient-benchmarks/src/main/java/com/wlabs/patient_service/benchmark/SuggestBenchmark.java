@@ -0,0 +1,102 @@
+package com.wlabs.patient_service.benchmark;
+
+import com.wlabs.patient_service.repository.PatientMatchRow;
+import com.wlabs.patient_service.service.PatientPrefixIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Typeahead lookups and incremental updates of PatientPrefixIndex. The setup also prints the heap the index retains,
+// per patient and per key, so a change in its layout shows up in memory as well as in latency.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SuggestBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin"
+    };
+
+    // What people type: the first letters of a name, a full name and a surname, an email, a phone number
+    private static final List<String> PREFIXES = List.of(
+            "j", "ma", "rob", "jennif", "smi", "garc", "mary jo", "james.w", "555-01", "5550199");
+
+    @Param({"100000", "1000000"})
+    private int patients;
+
+    private PatientPrefixIndex index;
+    private PatientMatchRow[] updates;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        long before = usedHeap();
+        index = new PatientPrefixIndex();
+        for (int i = 0; i < patients; i++) {
+            index.load(patient(i, UUID.randomUUID()));
+        }
+        index.compact();
+        long retained = usedHeap() - before;
+        System.out.printf(Locale.ROOT, "%nPatientPrefixIndex: %d patients, %d keys, %.1f MB retained"
+                        + " (%d bytes per patient, %d per key)%n", index.size(), index.keyCount(),
+                retained / 1_048_576.0, retained / index.size(), retained / index.keyCount());
+
+        updates = new PatientMatchRow[1024];
+        for (int i = 0; i < updates.length; i++) {
+            updates[i] = patient(patients + i, UUID.randomUUID());
+        }
+    }
+
+    @Benchmark
+    public Object suggest() {
+        next = (next + 1) % PREFIXES.size();
+        return index.suggest(PREFIXES.get(next), 10);
+    }
+
+    // Alternates between new patients and replacing them, as the change feed does
+    @Benchmark
+    public PatientPrefixIndex put() {
+        next = (next + 1) % updates.length;
+        index.put(updates[next]);
+        return index;
+    }
+
+    private static PatientMatchRow patient(int i, UUID id) {
+        String firstName = FIRST_NAMES[i % FIRST_NAMES.length];
+        String lastName = LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length];
+        return new PatientMatchRow(id, firstName, lastName,
+                (firstName.charAt(0) + "." + lastName + i + "@example.com").toLowerCase(Locale.ROOT),
+                String.format("555-%07d", i), LocalDate.of(1940, 1, 1).plusDays(i % 29_201));
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,75 @@
+package com.wlabs.patient_service.benchmark;
+
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int caregivers;
+
+    @Param({"5", "100"})
+    private int historyEntries;
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private PatientDTO validPatient;
+    private PatientDTO invalidPatient;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validPatient = BenchmarkData.patientDto(caregivers, historyEntries);
+
+        // Violations add message interpolation, which is most of the cost of a rejected request
+        invalidPatient = BenchmarkData.patientDto(caregivers, historyEntries);
+        invalidPatient.setEmail("not-an-email");
+        invalidPatient.setPhoneNumber("555-12-345");
+        invalidPatient.getCaregivers().forEach(caregiver -> caregiver.setPhoneNumber("n/a"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PatientDTO>> validatePatient() {
+        return validator.validate(validPatient);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PatientDTO>> validateInvalidPatient() {
+        return validator.validate(invalidPatient);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PatientDTO>> validatePhoneNumber() {
+        return validator.validateProperty(validPatient, "phoneNumber");
+    }
+}
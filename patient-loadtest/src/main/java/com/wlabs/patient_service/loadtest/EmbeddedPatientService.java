@@ -0,0 +1,60 @@
+package com.wlabs.patient_service.loadtest;
+
+import com.wlabs.patient_service.PatientServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Map;
+
+// A throwaway PostgreSQL (the docker-compose image) and patient-service running in this JVM on a random port. The
+// service then shares the machine with the clients, so for numbers to compare across releases keep the environment
+// fixed, and to size production run the harness against a deployed service with --target instead.
+final class EmbeddedPatientService implements AutoCloseable {
+
+    private static final DockerImageName POSTGRES_IMAGE = DockerImageName.parse("postgres:15");
+
+    private final PostgreSQLContainer<?> postgres;
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedPatientService(PostgreSQLContainer<?> postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    static EmbeddedPatientService start(int partitions) {
+        PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(POSTGRES_IMAGE)
+                .withDatabaseName("patient_service")
+                .withCommand("postgres", "-c", "max_connections=200", "-c", "shared_buffers=512MB");
+        postgres.start();
+        try {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(PatientServiceApplication.class)
+                    .properties(Map.of(
+                            "spring.datasource.url", postgres.getJdbcUrl(),
+                            "spring.datasource.username", postgres.getUsername(),
+                            "spring.datasource.password", postgres.getPassword(),
+                            "server.port", "0",
+                            // Partitioning is opt-in and runs in the migrate context only
+                            "spring.liquibase.contexts", "default,migrate",
+                            "spring.liquibase.parameters.patient_partitions", String.valueOf(partitions),
+                            // The controllers log every search at INFO
+                            "logging.level.com.wlabs.patient_service", "WARN"))
+                    .run();
+            return new EmbeddedPatientService(postgres, context);
+        } catch (RuntimeException e) {
+            postgres.stop();
+            throw e;
+        }
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        postgres.stop();
+    }
+}
@@ -0,0 +1,146 @@
+package com.wlabs.patient_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Seeds synthetic patients, runs the mixed workload against the REST API and reports throughput and latency
+// percentiles per operation. Exits with status 1 when the run regressed against --baseline, so it can gate a build.
+// Usage: java -jar target/loadtest.jar [--name=value ...] (see LoadTestOptions.USAGE)
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        // Same date handling as the service's Boot-configured ObjectMapper
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        int regressions;
+        EmbeddedPatientService embedded =
+                options.target() == null ? EmbeddedPatientService.start(options.partitions()) : null;
+        try {
+            String baseUrl = embedded == null ? options.target() : embedded.baseUrl();
+            PatientApiClient client = new PatientApiClient(baseUrl, objectMapper);
+            PatientApiClient readClient = options.readTarget() == null
+                    ? client : new PatientApiClient(options.readTarget(), objectMapper);
+            regressions = run(options, client, readClient, objectMapper);
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    // Seeds and samples ids through client, which the read service can't do, and measures gets and searches on readClient
+    private static int run(LoadTestOptions options, PatientApiClient client, PatientApiClient readClient,
+                           ObjectMapper objectMapper) throws Exception {
+        SyntheticPatients patients = new SyntheticPatients(options.caregivers(), options.history(), options.randomSeed());
+        SplittableRandom random = new SplittableRandom(options.randomSeed());
+
+        // Synthetic indexes continue after the patients already there, so reruns against one target never collide
+        PatientApiClient.IdSample existing = client.sampleIds(options.idSample(), random);
+        PatientApiClient.IdSample sample = existing;
+        if (options.patients() > 0) {
+            seed(options, client, patients, existing.patients());
+            sample = client.sampleIds(options.idSample(), random);
+        }
+        if (sample.ids().isEmpty() && (options.mix().containsKey(Operation.GET)
+                || options.mix().containsKey(Operation.UPDATE))) {
+            throw new IllegalStateException("No patients to get or update, seed some with --patients");
+        }
+        System.out.printf("%d patients, %d ids sampled%n", sample.patients(), sample.ids().size());
+
+        Workload workload = new Workload(client, readClient, patients, sample.ids(), sample.patients(), options);
+        System.out.println("Warming up for " + options.warmup());
+        workload.run(options.warmup(), options.randomSeed() + 1);
+        System.out.println("Measuring for " + options.duration());
+        Instant startedAt = Instant.now();
+        LoadTestResults results = new LoadTestResults(startedAt, options.settings(),
+                workload.run(options.duration(), options.randomSeed() + 2));
+        results.print();
+
+        if (options.results() != null) {
+            results.write(options.results(), objectMapper);
+        }
+        if (options.baseline() == null) {
+            return 0;
+        }
+        // A gate without a baseline would pass every run, so a missing one fails like a regression
+        if (!Files.exists(options.baseline())) {
+            System.out.println("No baseline at " + options.baseline() + ". Record one with the same settings, e.g. "
+                    + "by copying this run's --results file there, and commit it.");
+            return 1;
+        }
+        int regressions = results.compareWith(LoadTestResults.read(options.baseline(), objectMapper),
+                options.rate() > 0, options.threshold(), options.maxErrorRate());
+        if (regressions > 0) {
+            System.out.printf("%d regression(s) against the baseline (threshold %.1f%%, max error rate %.4f)%n", regressions,
+                    options.threshold(), options.maxErrorRate());
+        }
+        return regressions;
+    }
+
+    // Imports options.patients() synthetic patients through POST /api/patients/import, seedThreads batches at a time
+    private static void seed(LoadTestOptions options, PatientApiClient client, SyntheticPatients patients,
+                             long firstIndex) throws Exception {
+        long started = System.nanoTime();
+        long end = firstIndex + options.patients();
+        AtomicLong imported = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(options.seedThreads());
+        try {
+            List<Future<?>> batches = new ArrayList<>();
+            for (long batchStart = firstIndex; batchStart < end; batchStart += options.seedBatchSize()) {
+                long from = batchStart;
+                long to = Math.min(end, batchStart + options.seedBatchSize());
+                batches.add(executor.submit(() -> {
+                    List<PatientDTO> batch = new ArrayList<>((int) (to - from));
+                    for (long index = from; index < to; index++) {
+                        batch.add(patients.patient(index));
+                    }
+                    PatientApiClient.ImportResult result = client.importPatients(batch);
+                    if (result.failedRows() > 0 && failed.getAndAdd(result.failedRows()) == 0) {
+                        System.out.println("Seeding rejected rows, first error: " + result.firstError());
+                    }
+                    long done = imported.addAndGet(result.importedRows());
+                    if (done / 100_000 != (done - result.importedRows()) / 100_000) {
+                        System.out.printf("Seeded %d of %d patients%n", done, options.patients());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> batch : batches) {
+                batch.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        System.out.printf("Seeded %d patients (%d rejected) in %ds%n", imported.get(), failed.get(),
+                (System.nanoTime() - started) / 1_000_000_000);
+    }
+}
@@ -0,0 +1,144 @@
+package com.wlabs.patient_service.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Command line of LoadTest: --name=value pairs, every one optional
+record LoadTestOptions(
+        String target,
+        String readTarget,
+        int partitions,
+        int patients,
+        double caregivers,
+        double history,
+        int seedBatchSize,
+        int seedThreads,
+        int threads,
+        int rate,
+        Duration warmup,
+        Duration duration,
+        Map<Operation, Integer> mix,
+        int idSample,
+        long randomSeed,
+        Path results,
+        Path baseline,
+        double threshold,
+        double maxErrorRate) {
+
+    static final String USAGE = """
+            Usage: LoadTest [--name=value ...]
+              --target=URL          running patient-service to test; default starts PostgreSQL (Testcontainers) and the service in-process
+              --read-target=URL     running patient-read-service to send gets and searches to instead; needs --target
+              --partitions=N        hash partitions of the patient tables in the started service, 0 for none (default 0)
+              --patients=N          synthetic patients to seed before the run, 0 to use the target's data (default 100000)
+              --caregivers=N        mean caregivers per patient (default 2)
+              --history=N           mean medical history entries per patient (default 4)
+              --seed-batch-size=N   patients per import request (default 1000)
+              --seed-threads=N      concurrent import requests (default 4)
+              --threads=N           concurrent clients (default 32)
+              --rate=N              total requests per second, 0 for as fast as the clients go (default 0)
+              --warmup=DURATION     unrecorded run before the measurement (default 30s)
+              --duration=DURATION   measured run (default 2m)
+              --mix=op=weight,...   create, get, search and update weights (default create=10,get=50,search=30,update=10)
+              --id-sample=N         existing patient ids to draw gets and updates from (default 100000)
+              --random-seed=N       seed of the synthetic data and the workload (default 42)
+              --results=FILE        write the results as JSON
+              --baseline=FILE       compare with earlier results and exit with status 1 on a regression
+              --threshold=PERCENT   allowed throughput drop or p99 latency rise per operation (default 15)
+              --max-error-rate=N    allowed share of failed requests per operation (default 0.001)
+            """;
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                option(values, "target", null),
+                option(values, "read-target", null),
+                Integer.parseInt(option(values, "partitions", "0")),
+                Integer.parseInt(option(values, "patients", "100000")),
+                Double.parseDouble(option(values, "caregivers", "2")),
+                Double.parseDouble(option(values, "history", "4")),
+                Integer.parseInt(option(values, "seed-batch-size", "1000")),
+                Integer.parseInt(option(values, "seed-threads", "4")),
+                Integer.parseInt(option(values, "threads", "32")),
+                Integer.parseInt(option(values, "rate", "0")),
+                DurationStyle.detectAndParse(option(values, "warmup", "30s")),
+                DurationStyle.detectAndParse(option(values, "duration", "2m")),
+                mix(option(values, "mix", "create=10,get=50,search=30,update=10")),
+                Integer.parseInt(option(values, "id-sample", "100000")),
+                Long.parseLong(option(values, "random-seed", "42")),
+                path(option(values, "results", null)),
+                path(option(values, "baseline", null)),
+                Double.parseDouble(option(values, "threshold", "15")),
+                Double.parseDouble(option(values, "max-error-rate", "0.001")));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        // The read service has to read the database the target writes to, which an in-process service's isn't
+        if (options.readTarget() != null && options.target() == null) {
+            throw new IllegalArgumentException("--read-target needs --target");
+        }
+        return options;
+    }
+
+    // The options that shape the workload, recorded with the results so runs are only compared with like runs
+    Map<String, Object> settings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("patients", patients);
+        settings.put("caregivers", caregivers);
+        settings.put("history", history);
+        settings.put("threads", threads);
+        settings.put("rate", rate);
+        settings.put("duration", duration.toString());
+        settings.put("mix", mix.toString());
+        if (readTarget != null) {
+            settings.put("readTarget", readTarget);
+        }
+        // Only known for the service started in-process
+        if (target == null) {
+            settings.put("partitions", partitions);
+        }
+        return settings;
+    }
+
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected op=weight in --mix but got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("--mix needs at least one operation with a positive weight");
+        }
+        return mix;
+    }
+
+    private static Path path(String value) {
+        return value == null || value.isBlank() ? null : Path.of(value);
+    }
+
+    // Removes the option, so whatever is left after parsing is unknown
+    private static String option(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : value;
+    }
+}
@@ -0,0 +1,69 @@
+package com.wlabs.patient_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wlabs.patient_service.loadtest.OperationStats.OperationResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+
+// One run as written by --results and read back as a --baseline
+record LoadTestResults(Instant startedAt, Map<String, Object> settings, Map<String, OperationResult> operations) {
+
+    void write(Path file, ObjectMapper objectMapper) throws IOException {
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+    }
+
+    static LoadTestResults read(Path file, ObjectMapper objectMapper) throws IOException {
+        return objectMapper.readValue(file.toFile(), LoadTestResults.class);
+    }
+
+    void print() {
+        System.out.printf("%-8s %10s %8s %10s %10s %10s %10s %10s %10s%n",
+                "", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        operations.forEach((operation, result) -> System.out.printf(
+                "%-8s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n", operation, result.count(),
+                result.errors(), result.throughput(), result.p50(), result.p90(), result.p99(), result.p999(),
+                result.max()));
+    }
+
+    // Prints the change of each operation's throughput and p99 latency and returns the number of regressions: a
+    // throughput drop or a p99 rise beyond thresholdPercent, or an error rate above maxErrorRate. At a fixed --rate the
+    // throughput is set by the harness, so only latency is compared. A baseline that ran with other settings can't be
+    // compared at all and counts as one regression, so a changed gate configuration doesn't pass unnoticed.
+    int compareWith(LoadTestResults baseline, boolean fixedRate, double thresholdPercent, double maxErrorRate) {
+        if (!settings.equals(baseline.settings())) {
+            System.out.println("The baseline ran with different settings, record a new one: " + baseline.settings());
+            return 1;
+        }
+        int regressions = 0;
+        for (Map.Entry<String, OperationResult> entry : operations.entrySet()) {
+            OperationResult after = entry.getValue();
+            if (after.errorRate() > maxErrorRate) {
+                System.out.printf("%-8s error rate %.4f above %.4f  REGRESSION%n", entry.getKey(), after.errorRate(),
+                        maxErrorRate);
+                regressions++;
+            }
+            OperationResult before = baseline.operations().get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-8s new%n", entry.getKey());
+                continue;
+            }
+            double throughputChange = percentChange(before.throughput(), after.throughput());
+            double p99Change = percentChange(before.p99(), after.p99());
+            boolean regressed = (!fixedRate && -throughputChange > thresholdPercent) || p99Change > thresholdPercent;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-8s req/s %10.1f -> %10.1f %+7.1f%%   p99 %8.2f -> %8.2f ms %+7.1f%%%s%n",
+                    entry.getKey(), before.throughput(), after.throughput(), throughputChange, before.p99(),
+                    after.p99(), p99Change, regressed ? "  REGRESSION" : "");
+        }
+        return regressions;
+    }
+
+    private static double percentChange(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+}
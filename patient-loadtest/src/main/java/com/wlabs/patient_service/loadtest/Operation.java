@@ -0,0 +1,15 @@
+package com.wlabs.patient_service.loadtest;
+
+import java.util.Locale;
+
+// The requests of the mixed workload, each against one PatientController endpoint
+enum Operation {
+    CREATE,  // POST /api/patients with a new synthetic patient and its caregivers
+    GET,     // GET /api/patients/{id} of a seeded patient
+    SEARCH,  // GET /api/patients/search with a name or email prefix
+    UPDATE;  // PATCH /api/patients/{id} changing the notes of a seeded patient
+
+    String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,51 @@
+package com.wlabs.patient_service.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencies (microseconds, 3 significant digits) and failures of one operation, recorded by every client thread
+final class OperationStats {
+
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final LongAdder errors = new LongAdder();
+
+    void record(long latencyNanos, boolean success) {
+        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    Histogram latencies() {
+        return latencies;
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    static OperationResult result(Histogram latencies, long errors, Duration elapsed) {
+        long count = latencies.getTotalCount();
+        return new OperationResult(count, errors, count / (elapsed.toNanos() / 1e9),
+                millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    // One line of the report; latencies in milliseconds, throughput in requests per second
+    record OperationResult(long count, long errors, double throughput, double p50, double p90, double p99,
+                           double p999, double max) {
+
+        double errorRate() {
+            return count == 0 ? 0 : (double) errors / count;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.wlabs.patient_service.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wlabs.patient_service.mapper.PatientCsvMapper;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+// The calls the harness makes. Workload calls return only the status code and discard the body, so the harness spends
+// as little as possible of the machine's time on its own side of each request.
+final class PatientApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    PatientApiClient(String baseUrl, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.objectMapper = objectMapper;
+    }
+
+    int create(PatientDTO patient) throws IOException, InterruptedException {
+        return send(request("/api/patients")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(patient))));
+    }
+
+    int get(UUID id) throws IOException, InterruptedException {
+        return send(request("/api/patients/" + id).GET());
+    }
+
+    int search(String term) throws IOException, InterruptedException {
+        return send(request("/api/patients/search?term=" + URLEncoder.encode(term, StandardCharsets.UTF_8)).GET());
+    }
+
+    int updateNotes(UUID id, String notes) throws IOException, InterruptedException {
+        byte[] patch = objectMapper.writeValueAsBytes(Map.of("notes", notes));
+        return send(request("/api/patients/" + id)
+                .header("Content-Type", "application/merge-patch+json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofByteArray(patch)));
+    }
+
+    ImportResult importPatients(List<PatientDTO> patients) throws IOException, InterruptedException {
+        HttpRequest request = request("/api/patients/import")
+                .timeout(Duration.ofMinutes(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(patients)))
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("Import failed with status " + response.statusCode());
+        }
+        JsonNode report = objectMapper.readTree(response.body());
+        return new ImportResult(report.path("importedRows").asLong(), report.path("failedRows").asLong(),
+                report.path("errors").path(0).path("message").asText(null));
+    }
+
+    // A uniform sample of the ids of every patient the service holds, read from the streaming export
+    IdSample sampleIds(int sampleSize, SplittableRandom random) throws IOException, InterruptedException {
+        HttpRequest request = request("/api/patients/export?gzip=true").timeout(Duration.ofHours(1)).GET().build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("Export failed with status " + response.statusCode());
+        }
+        List<UUID> sample = new ArrayList<>(sampleSize);
+        long seen = 0;
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(response.body()), StandardCharsets.UTF_8);
+             CSVParser parser = CSVParser.parse(reader, PatientCsvMapper.IMPORT_FORMAT)) {
+            for (CSVRecord csvRecord : parser) {
+                UUID id = UUID.fromString(csvRecord.get("id"));
+                // Reservoir sampling: every id ends up in the sample with the same probability
+                if (sample.size() < sampleSize) {
+                    sample.add(id);
+                } else {
+                    long slot = random.nextLong(seen + 1);
+                    if (slot < sampleSize) {
+                        sample.set((int) slot, id);
+                    }
+                }
+                seen++;
+            }
+        }
+        return new IdSample(sample, seen);
+    }
+
+    record IdSample(List<UUID> ids, long patients) {
+    }
+
+    record ImportResult(long importedRows, long failedRows, String firstError) {
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,119 @@
+package com.wlabs.patient_service.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Time to first request: starts the service with --command (through sh -c, so it can be a java -jar line or a
+// docker run), polls until readiness reports UP, then sends --path once, as a load balancer would, and stops the
+// service again; --runs times. Reports the time to ready, the latency of that first request and their sum per run
+// and as medians, so startup changes can be compared like throughput ones.
+// Usage: java -cp target/loadtest.jar com.wlabs.patient_service.loadtest.StartupTime --command="java -jar app.jar" \
+//        [--target=http://localhost:8080] [--path=/api/patients/search?term=smith] [--runs=5] [--timeout=2m]
+public final class StartupTime {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private StartupTime() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                System.err.println("Expected --name=value but got " + arg);
+                System.exit(2);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        String command = options.get("command");
+        if (command == null) {
+            System.err.println("--command is required");
+            System.exit(2);
+        }
+        String target = options.getOrDefault("target", "http://localhost:8080");
+        URI readiness = URI.create(target + "/actuator/health/readiness");
+        URI firstRequest = URI.create(target + options.getOrDefault("path", "/api/patients/search?term=smith"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Duration timeout = DurationStyle.detectAndParse(options.getOrDefault("timeout", "2m"));
+
+        long[] ready = new long[runs];
+        long[] firstLatency = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            long started = System.nanoTime();
+            Process process = new ProcessBuilder("sh", "-c", command)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            try {
+                ready[run] = awaitOk(process, readiness, started, timeout);
+                firstLatency[run] = awaitOk(process, firstRequest, System.nanoTime(), timeout);
+            } finally {
+                stop(process);
+            }
+            System.out.printf("Run %d: ready after %d ms, first request took %d ms, %d ms in total%n", run + 1,
+                    ready[run], firstLatency[run], ready[run] + firstLatency[run]);
+        }
+        long[] total = new long[runs];
+        Arrays.setAll(total, run -> ready[run] + firstLatency[run]);
+        System.out.printf("Median of %d runs: ready after %d ms, first request took %d ms, %d ms in total%n", runs,
+                median(ready), median(firstLatency), median(total));
+    }
+
+    // Milliseconds from started until the uri answers 200
+    private static long awaitOk(Process process, URI uri, long started, Duration timeout)
+            throws InterruptedException, IOException {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(timeout).GET().build();
+        while (System.nanoTime() - started < timeout.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IOException("The service exited with status " + process.exitValue());
+            }
+            try {
+                if (HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - started) / 1_000_000;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        throw new IOException(uri + " didn't answer 200 within " + timeout);
+    }
+
+    // The shell's children too, so a java started by sh -c doesn't outlive the run
+    private static void stop(Process process) throws InterruptedException {
+        List<ProcessHandle> processes = new ArrayList<>(process.descendants().toList());
+        processes.add(process.toHandle());
+        processes.forEach(ProcessHandle::destroy);
+        for (ProcessHandle handle : processes) {
+            try {
+                handle.onExit().get(30, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                handle.destroyForcibly();
+            }
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
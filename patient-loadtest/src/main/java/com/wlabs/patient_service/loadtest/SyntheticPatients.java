@@ -0,0 +1,147 @@
+package com.wlabs.patient_service.loadtest;
+
+import com.wlabs.patient_service.model.dto.AddressDTO;
+import com.wlabs.patient_service.model.dto.CaregiverDTO;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+// Valid, reproducible patients: patient(n) is the same for a given random seed, and no two indexes share an email or
+// a name and birth date, so the service's duplicate rules never reject a seeded or created patient. Caregiver counts
+// and history lengths vary per patient around the configured means.
+final class SyntheticPatients {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+            "Christopher", "Lisa", "Daniel", "Nancy", "Matthew", "Betty", "Anthony", "Sandra", "Mark", "Margaret",
+            "Donald", "Ashley", "Steven", "Kimberly", "Andrew", "Emily", "Paul", "Donna", "Joshua", "Michelle",
+            "Kenneth", "Carol", "Kevin", "Amanda", "Brian", "Melissa", "Timothy", "Deborah", "Ronald", "Stephanie"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+            "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen", "Hill", "Flores",
+            "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell", "Carter", "Roberts",
+            "Gomez", "Phillips", "Evans", "Turner", "Diaz", "Parker", "Cruz", "Edwards", "Collins", "Reyes",
+            "Stewart", "Morris", "Morales", "Murphy", "Cook", "Rogers", "Gutierrez", "Ortiz", "Morgan", "Cooper",
+            "Peterson", "Bailey", "Reed", "Kelly", "Howard", "Ramos", "Kim", "Cox", "Ward", "Richardson",
+            "Watson", "Brooks", "Chavez", "Wood", "James", "Bennett", "Gray", "Mendoza", "Ruiz", "Hughes",
+            "Price", "Alvarez", "Castillo", "Sanders", "Patel", "Myers", "Long", "Ross", "Foster", "Jimenez"
+    };
+
+    private static final String[] CONDITIONS = {
+            "Hypertension", "Hyperlipidemia", "Obesity", "Chronic Kidney Disease", "Coronary Artery Disease",
+            "Diabetic Retinopathy", "Peripheral Neuropathy", "Hypothyroidism", "Asthma", "COPD", "Depression",
+            "Anxiety", "Sleep Apnea", "Osteoarthritis", "Gout", "Fatty Liver Disease", "Heart Failure",
+            "Atrial Fibrillation", "Migraine", "Allergies", "Celiac Disease", "Gastroparesis", "Anemia", "Psoriasis"
+    };
+
+    private static final String[] ETHNICITIES = {
+            "White", "Hispanic or Latino", "Black or African American", "Asian", "American Indian or Alaska Native",
+            "Native Hawaiian or Other Pacific Islander", "Two or More Races"
+    };
+
+    private static final String[] DIABETES_TYPES = {"Type 1", "Type 2", "Type 2", "Type 2", "Gestational", "Prediabetes"};
+
+    private static final String[] PHYSICIANS = {
+            "Dr. Jane Doe", "Dr. Alan Grant", "Dr. Priya Raman", "Dr. Omar Haddad", "Dr. Grace Liu", "Dr. Carlos Vega"
+    };
+
+    private static final String[] RELATIONSHIPS = {"Spouse", "Parent", "Child", "Sibling", "Family Member", "Home Health Aide"};
+
+    private static final String[][] PLACES = {
+            {"Orange County", "CA", "92627"}, {"Cook County", "IL", "60601"}, {"Harris County", "TX", "77002"},
+            {"Maricopa County", "AZ", "85004"}, {"King County", "WA", "98101"}, {"Miami-Dade County", "FL", "33130"}
+    };
+
+    private static final LocalDate EARLIEST_BIRTH = LocalDate.of(1940, 1, 1);
+    // Prime, so it shares no factor with the number of name pairs: index -> (name pair, birth date) never repeats
+    // below FIRST_NAMES.length * LAST_NAMES.length * BIRTH_DAYS indexes
+    private static final int BIRTH_DAYS = 29_201;
+
+    private final double meanCaregivers;
+    private final double meanHistory;
+    private final long randomSeed;
+
+    SyntheticPatients(double meanCaregivers, double meanHistory, long randomSeed) {
+        this.meanCaregivers = meanCaregivers;
+        this.meanHistory = meanHistory;
+        this.randomSeed = randomSeed;
+    }
+
+    PatientDTO patient(long index) {
+        SplittableRandom random = new SplittableRandom(randomSeed * 31 + index);
+        String firstName = FIRST_NAMES[(int) (index % FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[(int) (index / FIRST_NAMES.length % LAST_NAMES.length)];
+        LocalDate dateOfBirth = EARLIEST_BIRTH.plusDays(index % BIRTH_DAYS);
+
+        PatientDTO dto = new PatientDTO();
+        dto.setFirstName(firstName);
+        dto.setLastName(lastName);
+        dto.setEmail(firstName.toLowerCase(Locale.ROOT) + "." + lastName.toLowerCase(Locale.ROOT) + "." + index
+                + "@example.com");
+        dto.setPhoneNumber(phoneNumber(random));
+        dto.setHeightCm(Math.round(random.nextDouble(150, 200) * 10) / 10.0);
+        dto.setWeightKg(Math.round(random.nextDouble(45, 140) * 10) / 10.0);
+        dto.setDateOfBirth(dateOfBirth);
+        dto.setEthnicity(pick(ETHNICITIES, random));
+        dto.setTypeOfDiabetes(pick(DIABETES_TYPES, random));
+        long daysSinceBirth = ChronoUnit.DAYS.between(dateOfBirth, LocalDate.now());
+        dto.setDateOfDiagnosis(dateOfBirth.plusDays(random.nextLong(daysSinceBirth / 4, daysSinceBirth)));
+        dto.setBiologicalSex(random.nextBoolean() ? "Female" : "Male");
+        dto.setAssignedPhysician(pick(PHYSICIANS, random));
+
+        int historyEntries = Math.min(CONDITIONS.length, 1 + random.nextInt(Math.max(1, (int) Math.round(2 * meanHistory - 1))));
+        int firstCondition = random.nextInt(CONDITIONS.length);
+        List<String> history = new ArrayList<>(historyEntries);
+        for (int i = 0; i < historyEntries; i++) {
+            history.add(CONDITIONS[(firstCondition + i) % CONDITIONS.length]);
+        }
+        dto.setMedicalHistory(history);
+
+        String[] place = pick(PLACES, random);
+        AddressDTO address = new AddressDTO();
+        address.setMailingAddress((100 + random.nextInt(9900)) + " " + pick(LAST_NAMES, random) + " Street");
+        address.setCounty(place[0]);
+        address.setState(place[1]);
+        address.setZipcode(place[2]);
+        address.setCountry("USA");
+        dto.setAddress(address);
+
+        int caregivers = random.nextInt((int) Math.round(2 * meanCaregivers) + 1);
+        List<CaregiverDTO> caregiverDtos = new ArrayList<>(caregivers);
+        for (int i = 0; i < caregivers; i++) {
+            CaregiverDTO caregiver = new CaregiverDTO();
+            caregiver.setFirstName(pick(FIRST_NAMES, random));
+            caregiver.setLastName(lastName);
+            caregiver.setEmail("caregiver" + i + "." + index + "@example.com");
+            caregiver.setPhoneNumber(phoneNumber(random));
+            caregiver.setRelationshipToPatient(pick(RELATIONSHIPS, random));
+            caregiverDtos.add(caregiver);
+        }
+        dto.setCaregivers(caregiverDtos);
+        return dto;
+    }
+
+    // What people type into the search box: a last name, a first name, or the start of either
+    static String searchTerm(SplittableRandom random) {
+        String name = random.nextBoolean() ? pick(LAST_NAMES, random) : pick(FIRST_NAMES, random);
+        return random.nextInt(3) == 0 ? name.substring(0, Math.min(name.length(), 3)) : name;
+    }
+
+    private static String phoneNumber(SplittableRandom random) {
+        return String.format("%03d-%03d-%04d", 200 + random.nextInt(800), random.nextInt(1000), random.nextInt(10000));
+    }
+
+    private static <T> T pick(T[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+}
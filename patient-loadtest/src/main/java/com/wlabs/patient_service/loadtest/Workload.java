@@ -0,0 +1,158 @@
+package com.wlabs.patient_service.loadtest;
+
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// The mixed workload: every client thread picks operations at random by their --mix weights, back to back or, with
+// --rate, on a fixed schedule. Scheduled requests are timed from when they were due rather than from when they were
+// sent, so a stalled service shows up in the percentiles instead of just slowing the clients down (coordinated
+// omission).
+final class Workload {
+
+    static final String TOTAL = "total";
+
+    private final PatientApiClient client;
+    private final PatientApiClient readClient;
+    private final SyntheticPatients patients;
+    private final List<UUID> ids;
+    private final AtomicLong nextPatientIndex;
+    private final LoadTestOptions options;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    // Gets and searches go to readClient, creates and updates to client
+    Workload(PatientApiClient client, PatientApiClient readClient, SyntheticPatients patients, List<UUID> ids,
+             long firstNewPatientIndex, LoadTestOptions options) {
+        this.client = client;
+        this.readClient = readClient;
+        this.patients = patients;
+        this.ids = ids;
+        this.nextPatientIndex = new AtomicLong(firstNewPatientIndex);
+        this.options = options;
+        this.operations = options.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += options.mix().get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    // Results per operation label plus "total", in mix order
+    Map<String, OperationStats.OperationResult> run(Duration duration, long randomSeed) throws InterruptedException {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            stats.put(operation, new OperationStats());
+        }
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+        for (int worker = 0; worker < options.threads(); worker++) {
+            SplittableRandom random = new SplittableRandom(randomSeed * 1_000 + worker);
+            long firstRequest = options.rate() > 0 ? start + worker * intervalNanos() / options.threads() : start;
+            executor.execute(() -> drive(random, firstRequest, end, stats));
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Map<String, OperationStats.OperationResult> results = new LinkedHashMap<>();
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            results.put(entry.getKey().label(),
+                    OperationStats.result(operationStats.latencies(), operationStats.errors(), elapsed));
+            total.add(operationStats.latencies());
+            totalErrors += operationStats.errors();
+        }
+        results.put(TOTAL, OperationStats.result(total, totalErrors, elapsed));
+        return results;
+    }
+
+    private void drive(SplittableRandom random, long firstRequest, long end, Map<Operation, OperationStats> stats) {
+        long interval = intervalNanos();
+        long due = firstRequest;
+        while (!Thread.currentThread().isInterrupted()) {
+            Operation operation = next(random);
+            Object argument = argument(operation, random);
+            long begin;
+            if (interval > 0) {
+                if (due >= end) {
+                    return;
+                }
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                begin = due;
+                due += interval;
+            } else {
+                begin = System.nanoTime();
+                if (begin >= end) {
+                    return;
+                }
+            }
+            boolean success;
+            try {
+                int status = call(operation, argument);
+                success = status >= 200 && status < 300;
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            stats.get(operation).record(System.nanoTime() - begin, success);
+        }
+    }
+
+    // Payloads are built before the clock starts, so they don't count against the service
+    private Object argument(Operation operation, SplittableRandom random) {
+        return switch (operation) {
+            case CREATE -> patients.patient(nextPatientIndex.getAndIncrement());
+            case GET, UPDATE -> ids.get(random.nextInt(ids.size()));
+            case SEARCH -> SyntheticPatients.searchTerm(random);
+        };
+    }
+
+    private int call(Operation operation, Object argument) throws IOException, InterruptedException {
+        return switch (operation) {
+            case CREATE -> client.create((PatientDTO) argument);
+            case GET -> readClient.get((UUID) argument);
+            case SEARCH -> readClient.search((String) argument);
+            case UPDATE -> client.updateNotes((UUID) argument, "Load test note " + System.nanoTime());
+        };
+    }
+
+    private Operation next(SplittableRandom random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    // Per client thread
+    private long intervalNanos() {
+        return options.rate() > 0 ? TimeUnit.SECONDS.toNanos(options.threads()) / options.rate() : 0;
+    }
+}
@@ -0,0 +1,99 @@
+package com.wlabs.patient_service.loadtest;
+
+import com.wlabs.patient_service.loadtest.OperationStats.OperationResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadTestResultsTest {
+
+    private static final Map<String, Object> SETTINGS = Map.of("threads", 32, "partitions", 0);
+    private static final double THRESHOLD = 15;
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    private final LoadTestResults baseline = results(SETTINGS, Map.of(
+            "get", result(1000, 0, 500, 10),
+            "search", result(1000, 0, 200, 40)));
+
+    @Test
+    void whenRunMatchesBaseline_thenNoRegression() {
+        assertThat(compare(baseline, false)).isZero();
+    }
+
+    @Test
+    void whenThroughputDropsBeyondThreshold_thenItIsARegression() {
+        assertThat(compare(withGet(result(1000, 0, 400, 10)), false)).isEqualTo(1);
+        assertThat(compare(withGet(result(1000, 0, 400, 10)), true)).as("fixed rate").isZero();
+        assertThat(compare(withGet(result(1000, 0, 440, 10)), false)).as("12% drop").isZero();
+    }
+
+    @Test
+    void whenP99RisesBeyondThreshold_thenItIsARegression() {
+        assertThat(compare(withGet(result(1000, 0, 500, 11.6)), false)).isEqualTo(1);
+        assertThat(compare(withGet(result(1000, 0, 500, 11.6)), true)).as("fixed rate").isEqualTo(1);
+        assertThat(compare(withGet(result(1000, 0, 500, 11.4)), false)).as("14% rise").isZero();
+    }
+
+    @Test
+    void whenThroughputAndP99BothRegress_thenTheOperationCountsOnce() {
+        assertThat(compare(withGet(result(1000, 0, 300, 20)), false)).isEqualTo(1);
+    }
+
+    @Test
+    void whenErrorRateIsAboveMaximum_thenItIsARegressionOnTopOfLatency() {
+        assertThat(compare(withGet(result(1000, 11, 500, 10)), false)).isEqualTo(1);
+        assertThat(compare(withGet(result(1000, 11, 500, 20)), false)).isEqualTo(2);
+        assertThat(compare(withGet(result(1000, 10, 500, 10)), false)).as("at the maximum").isZero();
+    }
+
+    @Test
+    void whenOperationIsMissingFromBaseline_thenOnlyItsErrorRateIsChecked() {
+        LoadTestResults run = results(SETTINGS, Map.of(
+                "get", result(1000, 0, 500, 10),
+                "search", result(1000, 0, 200, 40),
+                "update", result(100, 0, 1, 500)));
+        assertThat(compare(run, false)).isZero();
+
+        LoadTestResults failing = results(SETTINGS, Map.of(
+                "get", result(1000, 0, 500, 10),
+                "search", result(1000, 0, 200, 40),
+                "update", result(100, 5, 1, 500)));
+        assertThat(compare(failing, false)).isEqualTo(1);
+    }
+
+    @Test
+    void whenBaselineRanWithOtherSettings_thenItCountsAsOneRegression() {
+        LoadTestResults run = results(Map.of("threads", 64, "partitions", 0), baseline.operations());
+
+        assertThat(compare(run, false)).isEqualTo(1);
+    }
+
+    @Test
+    void whenBaselineValueIsZero_thenTheChangeIsNotARegression() {
+        LoadTestResults zeroBaseline = results(SETTINGS, Map.of(
+                "get", result(0, 0, 0, 0),
+                "search", result(1000, 0, 200, 40)));
+
+        assertThat(results(SETTINGS, baseline.operations())
+                .compareWith(zeroBaseline, false, THRESHOLD, MAX_ERROR_RATE)).isZero();
+    }
+
+    private int compare(LoadTestResults run, boolean fixedRate) {
+        return run.compareWith(baseline, fixedRate, THRESHOLD, MAX_ERROR_RATE);
+    }
+
+    private LoadTestResults withGet(OperationResult get) {
+        return results(SETTINGS, Map.of("get", get, "search", baseline.operations().get("search")));
+    }
+
+    private static LoadTestResults results(Map<String, Object> settings, Map<String, OperationResult> operations) {
+        return new LoadTestResults(Instant.EPOCH, settings, operations);
+    }
+
+    private static OperationResult result(long count, long errors, double throughput, double p99) {
+        return new OperationResult(count, errors, throughput, p99 / 2, p99 * 0.8, p99, p99 * 1.5, p99 * 2);
+    }
+}
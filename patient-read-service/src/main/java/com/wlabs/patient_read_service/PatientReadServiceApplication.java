@@ -0,0 +1,13 @@
+package com.wlabs.patient_read_service;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class PatientReadServiceApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(PatientReadServiceApplication.class, args);
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.wlabs.patient_read_service.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Configuration
+public class WebConfig implements WebFluxConfigurer {
+
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        registry.addMapping("/api/**") // Same policy as patient-service, for the UI's reads
+                .allowedOrigins("http://localhost:5173")
+                .allowedMethods("GET", "OPTIONS")
+                .allowedHeaders("*")
+                .exposedHeaders("ETag")
+                .allowCredentials(true);
+    }
+}
@@ -0,0 +1,52 @@
+package com.wlabs.patient_read_service.controller;
+
+import com.wlabs.patient_read_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_read_service.model.dto.PatientDetailDTO;
+import com.wlabs.patient_read_service.model.dto.PatientSummaryDTO;
+import com.wlabs.patient_read_service.service.PatientReadService;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+// The read endpoints of patient-service's PatientController, same paths and payloads; writes stay there
+@RestController
+@RequestMapping("/api/patients")
+@RequiredArgsConstructor
+public class PatientReadController {
+
+    private final PatientReadService patientReadService;
+
+    // The version is sent as the ETag; WebFlux answers a matching If-None-Match with 304
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<PatientDetailDTO>> getPatientById(@PathVariable UUID id) {
+        return patientReadService.getPatientById(id)
+                .map(patient -> ResponseEntity.ok().eTag("\"" + patient.getVersion() + "\"").body(patient))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/search")
+    public Mono<CursorPageDTO<PatientSummaryDTO>> searchPatients(
+            @RequestParam String term,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return patientReadService.searchPatients(term, cursor, size);
+    }
+
+    // Each summary is written as one JSON line as soon as its row arrives; a slow client slows the query down
+    // (backpressure) instead of results piling up in memory
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PatientSummaryDTO> streamPatients(@RequestParam String term) {
+        return patientReadService.streamPatients(term);
+    }
+}
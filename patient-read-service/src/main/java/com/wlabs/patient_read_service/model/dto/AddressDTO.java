@@ -0,0 +1,13 @@
+package com.wlabs.patient_read_service.model.dto;
+
+import lombok.Data;
+
+@Data
+public class AddressDTO {
+
+    private String mailingAddress;
+    private String zipcode;
+    private String county;
+    private String state;
+    private String country;
+}
@@ -0,0 +1,15 @@
+package com.wlabs.patient_read_service.model.dto;
+
+import lombok.Data;
+import java.util.UUID;
+
+@Data
+public class CaregiverDTO {
+
+    private UUID id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phoneNumber;
+    private String relationshipToPatient;
+}
@@ -0,0 +1,17 @@
+package com.wlabs.patient_read_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+
+    // Opaque token for the next page, null when there are no more results
+    private String nextCursor;
+}
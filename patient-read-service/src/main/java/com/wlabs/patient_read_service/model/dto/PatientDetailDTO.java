@@ -0,0 +1,32 @@
+package com.wlabs.patient_read_service.model.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+// Same JSON shape as patient-service's PatientDetailDTO
+@Data
+public class PatientDetailDTO {
+
+    private UUID id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phoneNumber;
+    private Double heightCm;
+    private Double weightKg;
+    private LocalDate dateOfBirth;
+    private String ethnicity;
+    private String typeOfDiabetes;
+    private LocalDate dateOfDiagnosis;
+    private String biologicalSex;
+    private String notes;
+    private String assignedPhysician;
+    private AddressDTO address;
+    private List<CaregiverDTO> caregivers;
+    private List<String> medicalHistory;
+
+    // Served as the ETag; the same value patient-service expects back in If-Match
+    private Long version;
+}
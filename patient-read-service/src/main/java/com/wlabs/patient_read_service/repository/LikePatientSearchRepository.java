@@ -0,0 +1,32 @@
+package com.wlabs.patient_read_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+// Portable fallback (H2, tests): unranked substring match, every hit scores 0 so pages are ordered by id only
+@Repository
+@ConditionalOnProperty(name = "patient.search.engine", havingValue = "like")
+@RequiredArgsConstructor
+public class LikePatientSearchRepository implements PatientSearchRepository {
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Flux<PatientSearchHit> search(String term, Float afterScore, UUID afterId, int limit) {
+        String sql = "SELECT " + PatientRows.SUMMARY_COLUMNS + " FROM patients p WHERE "
+                + PatientReadRepository.SEARCH_TERM_PREDICATE
+                + (afterId != null ? " AND p.id > :afterId" : "") + " ORDER BY p.id LIMIT :limit";
+        DatabaseClient.GenericExecuteSpec query = databaseClient.sql(sql)
+                .bind("pattern", "%" + PatientRows.escapeLike(PatientRows.normalize(term)) + "%")
+                .bind("limit", limit);
+        if (afterId != null) {
+            query = query.bind("afterId", afterId);
+        }
+        return query.map((row, metadata) -> new PatientSearchHit(PatientRows.summary(row), 0f)).all();
+    }
+}
@@ -0,0 +1,122 @@
+package com.wlabs.patient_read_service.repository;
+
+import com.wlabs.patient_read_service.model.dto.AddressDTO;
+import com.wlabs.patient_read_service.model.dto.CaregiverDTO;
+import com.wlabs.patient_read_service.model.dto.PatientDetailDTO;
+import com.wlabs.patient_read_service.model.dto.PatientSummaryDTO;
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class PatientReadRepository {
+
+    // Substring match on the lowercased :pattern, as in patient-service's PatientRepository
+    static final String SEARCH_TERM_PREDICATE = "(lower(p.first_name) LIKE :pattern OR lower(p.last_name) LIKE :pattern " +
+            "OR lower(p.email) LIKE :pattern OR p.phone_number LIKE :pattern)";
+
+    private static final String PATIENT_WITH_ADDRESS = "SELECT p.*, a.id AS address_id, a.mailing_address, a.zipcode, " +
+            "a.county, a.state, a.country FROM patients p LEFT JOIN addresses a ON a.patient_id = p.id WHERE p.id = :id";
+    private static final String CAREGIVERS = "SELECT c.id, c.first_name, c.last_name, c.email, c.phone_number, " +
+            "c.relationship_to_patient FROM caregivers c WHERE c.patient_id = :id ORDER BY c.id";
+    private static final String MEDICAL_HISTORY =
+            "SELECT h.condition_name FROM patient_medical_history h WHERE h.patient_id = :id ORDER BY h.condition_name";
+    private static final String STREAM_SUMMARIES = "SELECT " + PatientRows.SUMMARY_COLUMNS + " FROM patients p WHERE " +
+            SEARCH_TERM_PREDICATE + " ORDER BY p.id";
+
+    // Rows requested from the server per round trip while streaming; demand beyond it waits for the subscriber
+    static final int STREAM_FETCH_SIZE = 500;
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator readSnapshot;
+
+    public PatientReadRepository(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.readSnapshot = TransactionalOperator.create(transactionManager, definition);
+    }
+
+    // The three queries share one connection and one snapshot, so the caregivers and history always belong to
+    // the version (and ETag) that was read
+    public Mono<PatientDetailDTO> findDetailById(UUID id) {
+        Mono<PatientDetailDTO> detail = databaseClient.sql(PATIENT_WITH_ADDRESS)
+                .bind("id", id)
+                .map((row, metadata) -> patientDetail(row))
+                .one()
+                .flatMap(patient -> databaseClient.sql(CAREGIVERS)
+                        .bind("id", id)
+                        .map((row, metadata) -> caregiver(row))
+                        .all()
+                        .collectList()
+                        .doOnNext(patient::setCaregivers)
+                        .then(databaseClient.sql(MEDICAL_HISTORY)
+                                .bind("id", id)
+                                .map((row, metadata) -> row.get("condition_name", String.class))
+                                .all()
+                                .collectList())
+                        .doOnNext(patient::setMedicalHistory)
+                        .thenReturn(patient));
+        return readSnapshot.transactional(detail);
+    }
+
+    // Rows are pulled from the database only as fast as the subscriber (ultimately the HTTP client) consumes them
+    public Flux<PatientSummaryDTO> streamSummariesByTerm(String term) {
+        return databaseClient.sql(STREAM_SUMMARIES)
+                .bind("pattern", "%" + PatientRows.escapeLike(PatientRows.normalize(term)) + "%")
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map((row, metadata) -> PatientRows.summary(row))
+                .all();
+    }
+
+    private static PatientDetailDTO patientDetail(Row row) {
+        PatientDetailDTO detail = new PatientDetailDTO();
+        detail.setId(row.get("id", UUID.class));
+        detail.setFirstName(row.get("first_name", String.class));
+        detail.setLastName(row.get("last_name", String.class));
+        detail.setEmail(row.get("email", String.class));
+        detail.setPhoneNumber(row.get("phone_number", String.class));
+        detail.setHeightCm(row.get("height_cm", Double.class));
+        detail.setWeightKg(row.get("weight_kg", Double.class));
+        detail.setDateOfBirth(row.get("date_of_birth", LocalDate.class));
+        detail.setEthnicity(row.get("ethnicity", String.class));
+        detail.setTypeOfDiabetes(row.get("type_of_diabetes", String.class));
+        detail.setDateOfDiagnosis(row.get("date_of_diagnosis", LocalDate.class));
+        detail.setBiologicalSex(row.get("biological_sex", String.class));
+        detail.setNotes(row.get("notes", String.class));
+        detail.setAssignedPhysician(row.get("assigned_physician", String.class));
+        detail.setVersion(row.get("version", Long.class));
+        if (row.get("address_id", UUID.class) != null) {
+            AddressDTO address = new AddressDTO();
+            address.setMailingAddress(row.get("mailing_address", String.class));
+            address.setZipcode(row.get("zipcode", String.class));
+            address.setCounty(row.get("county", String.class));
+            address.setState(row.get("state", String.class));
+            address.setCountry(row.get("country", String.class));
+            detail.setAddress(address);
+        }
+        return detail;
+    }
+
+    private static CaregiverDTO caregiver(Row row) {
+        CaregiverDTO caregiver = new CaregiverDTO();
+        caregiver.setId(row.get("id", UUID.class));
+        caregiver.setFirstName(row.get("first_name", String.class));
+        caregiver.setLastName(row.get("last_name", String.class));
+        caregiver.setEmail(row.get("email", String.class));
+        caregiver.setPhoneNumber(row.get("phone_number", String.class));
+        caregiver.setRelationshipToPatient(row.get("relationship_to_patient", String.class));
+        return caregiver;
+    }
+}
@@ -0,0 +1,37 @@
+package com.wlabs.patient_read_service.repository;
+
+import com.wlabs.patient_read_service.model.dto.PatientSummaryDTO;
+import io.r2dbc.spi.Row;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.UUID;
+
+// Column lists and row mapping shared by the read queries
+final class PatientRows {
+
+    static final String SUMMARY_COLUMNS =
+            "p.id, p.first_name, p.last_name, p.email, p.phone_number, p.date_of_birth, p.assigned_physician";
+
+    private PatientRows() {
+    }
+
+    static PatientSummaryDTO summary(Row row) {
+        return new PatientSummaryDTO(
+                row.get("id", UUID.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("email", String.class),
+                row.get("phone_number", String.class),
+                row.get("date_of_birth", LocalDate.class),
+                row.get("assigned_physician", String.class));
+    }
+
+    static String normalize(String term) {
+        return term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
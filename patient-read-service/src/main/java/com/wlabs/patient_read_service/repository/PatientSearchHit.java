@@ -0,0 +1,7 @@
+package com.wlabs.patient_read_service.repository;
+
+import com.wlabs.patient_read_service.model.dto.PatientSummaryDTO;
+
+// A search match with its rank; the summary is selected in the same query, so a page costs one round trip
+public record PatientSearchHit(PatientSummaryDTO patient, float score) {
+}
@@ -0,0 +1,12 @@
+package com.wlabs.patient_read_service.repository;
+
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+// Same engines and keyset order as patient-service's search, selected by patient.search.engine
+public interface PatientSearchRepository {
+
+    // Hits ordered by score descending then id, resuming after (afterScore, afterId) when afterId is set
+    Flux<PatientSearchHit> search(String term, Float afterScore, UUID afterId, int limit);
+}
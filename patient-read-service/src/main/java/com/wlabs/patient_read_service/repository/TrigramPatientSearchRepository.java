@@ -0,0 +1,66 @@
+package com.wlabs.patient_read_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+// PostgreSQL search backed by the pg_trgm GIN index on patients.search_text, ranked like patient-service's
+@Repository
+@ConditionalOnProperty(name = "patient.search.engine", havingValue = "trigram", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TrigramPatientSearchRepository implements PatientSearchRepository {
+
+    // Trigram indexes can't help with fewer than three characters, so shorter terms only do prefix matching
+    static final int MIN_TRIGRAM_TERM_LENGTH = 3;
+
+    private static final String PREFIX_MATCH = "(lower(p.first_name) LIKE :prefix OR lower(p.last_name) LIKE :prefix " +
+            "OR lower(p.email) LIKE :prefix OR p.phone_number LIKE :prefix)";
+
+    // Prefix hits on any field rank above substring-only hits, then by word similarity to the whole term
+    private static final String RANKED_SEARCH = "SELECT s.* FROM (" +
+            "SELECT " + PatientRows.SUMMARY_COLUMNS + ", CAST(CASE WHEN " + PREFIX_MATCH + " THEN 1 ELSE 0 END AS real) " +
+            "+ word_similarity(:term, p.search_text) AS score " +
+            "FROM patients p WHERE p.search_text LIKE :pattern) s ";
+    private static final String RANKED_KEYSET =
+            "WHERE s.score < CAST(:afterScore AS real) OR (s.score = CAST(:afterScore AS real) AND s.id > :afterId) ";
+    private static final String RANKED_ORDER = "ORDER BY s.score DESC, s.id LIMIT :limit";
+
+    private static final String PREFIX_SEARCH = "SELECT " + PatientRows.SUMMARY_COLUMNS + ", CAST(0 AS real) AS score " +
+            "FROM patients p WHERE " + PREFIX_MATCH;
+    private static final String PREFIX_KEYSET = " AND p.id > :afterId";
+    private static final String PREFIX_ORDER = " ORDER BY p.id LIMIT :limit";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Flux<PatientSearchHit> search(String term, Float afterScore, UUID afterId, int limit) {
+        String normalized = PatientRows.normalize(term);
+        String escaped = PatientRows.escapeLike(normalized);
+        boolean ranked = normalized.length() >= MIN_TRIGRAM_TERM_LENGTH;
+        boolean resume = afterId != null;
+
+        DatabaseClient.GenericExecuteSpec query;
+        if (ranked) {
+            query = databaseClient.sql(RANKED_SEARCH + (resume ? RANKED_KEYSET : "") + RANKED_ORDER)
+                    .bind("term", normalized)
+                    .bind("pattern", "%" + escaped + "%");
+            if (resume) {
+                query = query.bind("afterScore", afterScore == null ? 0f : afterScore);
+            }
+        } else {
+            query = databaseClient.sql(PREFIX_SEARCH + (resume ? PREFIX_KEYSET : "") + PREFIX_ORDER);
+        }
+        query = query.bind("prefix", escaped + "%").bind("limit", limit);
+        if (resume) {
+            query = query.bind("afterId", afterId);
+        }
+
+        return query.map((row, metadata) -> new PatientSearchHit(PatientRows.summary(row),
+                        row.get("score", Number.class).floatValue()))
+                .all();
+    }
+}
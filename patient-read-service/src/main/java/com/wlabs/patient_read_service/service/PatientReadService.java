@@ -0,0 +1,61 @@
+package com.wlabs.patient_read_service.service;
+
+import com.wlabs.patient_read_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_read_service.model.dto.PatientDetailDTO;
+import com.wlabs.patient_read_service.model.dto.PatientSummaryDTO;
+import com.wlabs.patient_read_service.repository.PatientReadRepository;
+import com.wlabs.patient_read_service.repository.PatientSearchHit;
+import com.wlabs.patient_read_service.repository.PatientSearchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+// Read-only counterpart of patient-service's PatientService lookups. Nothing here blocks: every query is an R2DBC
+// publisher, so a request holds an event-loop thread only while there is work to do.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PatientReadService {
+
+    static final int DEFAULT_SEARCH_PAGE_SIZE = 50;
+    static final int MAX_SEARCH_PAGE_SIZE = 200;
+
+    private final PatientReadRepository patientReadRepository;
+    private final PatientSearchRepository patientSearchRepository;
+
+    public Mono<PatientDetailDTO> getPatientById(UUID id) {
+        log.debug("Searching for patient with ID: {}", id);
+        return patientReadRepository.findDetailById(id);
+    }
+
+    public Mono<CursorPageDTO<PatientSummaryDTO>> searchPatients(String term, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_SEARCH_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE);
+        SearchCursor after = SearchCursor.decode(cursor);
+        log.debug("Searching for patients with term: '{}', page size: {}", term, pageSize);
+
+        // Fetch one extra hit to find out whether another page exists without a count query
+        return patientSearchRepository.search(term,
+                        after == null ? null : after.score(), after == null ? null : after.lastId(), pageSize + 1)
+                .collectList()
+                .map(hits -> {
+                    String nextCursor = null;
+                    if (hits.size() > pageSize) {
+                        hits = hits.subList(0, pageSize);
+                        PatientSearchHit last = hits.get(pageSize - 1);
+                        nextCursor = new SearchCursor(last.score(), last.patient().getId()).encode();
+                    }
+                    List<PatientSummaryDTO> patients = hits.stream().map(PatientSearchHit::patient).toList();
+                    return new CursorPageDTO<>(patients, nextCursor);
+                });
+    }
+
+    public Flux<PatientSummaryDTO> streamPatients(String term) {
+        log.debug("Streaming patients with term: '{}'", term);
+        return patientReadRepository.streamSummariesByTerm(term);
+    }
+}
@@ -0,0 +1,28 @@
+package com.wlabs.patient_read_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+// Same encoding as patient-service's cursor, so a page fetched from either API can be continued on the other
+record SearchCursor(float score, UUID lastId) {
+
+    String encode() {
+        String raw = Float.toString(score) + ':' + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new SearchCursor(Float.parseFloat(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.wlabs.patient_read_service.controller;
+
+import com.wlabs.patient_read_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_read_service.model.dto.PatientSummaryDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class PatientReadControllerTest {
+
+    private static final int PATIENTS = 5;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private final List<UUID> patientIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PATIENTS; i++) {
+            // Ids in ascending order, which is also the keyset order of the like engine
+            UUID id = new UUID(0, i + 1);
+            patientIds.add(id);
+            databaseClient.sql("INSERT INTO patients (id, first_name, last_name, email, phone_number, date_of_birth, " +
+                            "assigned_physician, version) VALUES (:id, :firstName, 'Reader', :email, '555-123-4567', " +
+                            ":dateOfBirth, 'Dr. Jane Doe', 3)")
+                    .bind("id", id)
+                    .bind("firstName", "Read" + i)
+                    .bind("email", "read" + i + "@example.com")
+                    .bind("dateOfBirth", LocalDate.of(1980, 1, 1))
+                    .then().block();
+        }
+        UUID first = patientIds.get(0);
+        databaseClient.sql("INSERT INTO addresses (id, patient_id, mailing_address, zipcode, county, state, country) " +
+                        "VALUES (:id, :patientId, '1 Main St', '90210', 'Orange County', 'CA', 'USA')")
+                .bind("id", UUID.randomUUID()).bind("patientId", first).then().block();
+        databaseClient.sql("INSERT INTO caregivers (id, patient_id, first_name, last_name, email, phone_number, " +
+                        "relationship_to_patient) VALUES (:id, :patientId, 'Care', 'Giver', 'care@example.com', " +
+                        "'555-987-0000', 'Family Member')")
+                .bind("id", UUID.randomUUID()).bind("patientId", first).then().block();
+        for (String condition : List.of("Hypertension", "Asthma")) {
+            databaseClient.sql("INSERT INTO patient_medical_history (patient_id, condition_name) VALUES (:patientId, :condition)")
+                    .bind("patientId", first).bind("condition", condition).then().block();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("patient_medical_history", "caregivers", "addresses", "patients")) {
+            databaseClient.sql("DELETE FROM " + table).then().block();
+        }
+    }
+
+    @Test
+    void whenGetPatientById_thenReturnDetailWithVersionETag() {
+        webTestClient.get().uri("/api/patients/{id}", patientIds.get(0))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo("Read0")
+                .jsonPath("$.address.zipcode").isEqualTo("90210")
+                .jsonPath("$.caregivers[0].relationshipToPatient").isEqualTo("Family Member")
+                .jsonPath("$.medicalHistory[0]").isEqualTo("Asthma")
+                .jsonPath("$.medicalHistory[1]").isEqualTo("Hypertension")
+                .jsonPath("$.version").isEqualTo(3);
+    }
+
+    @Test
+    void whenGetPatientByIdWithCurrentETag_thenReturnNotModified() {
+        webTestClient.get().uri("/api/patients/{id}", patientIds.get(1))
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void whenGetUnknownPatient_thenReturnNotFound() {
+        webTestClient.get().uri("/api/patients/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenSearchPatientsAcrossPages_thenCursorResumesAfterTheLastPatient() {
+        CursorPageDTO<PatientSummaryDTO> first = searchPage(null);
+        assertThat(first.getContent()).extracting(PatientSummaryDTO::getId).containsExactly(patientIds.get(0), patientIds.get(1));
+
+        CursorPageDTO<PatientSummaryDTO> second = searchPage(first.getNextCursor());
+        assertThat(second.getContent()).extracting(PatientSummaryDTO::getId).containsExactly(patientIds.get(2), patientIds.get(3));
+
+        CursorPageDTO<PatientSummaryDTO> last = searchPage(second.getNextCursor());
+        assertThat(last.getContent()).extracting(PatientSummaryDTO::getId).containsExactly(patientIds.get(4));
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void whenSearchWithInvalidCursor_thenReturnBadRequest() {
+        webTestClient.get().uri("/api/patients/search?term=reader&cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenStreamPatients_thenReturnEveryMatchAsNdjson() {
+        List<PatientSummaryDTO> streamed = webTestClient.get().uri("/api/patients/search/stream?term=READ")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(PatientSummaryDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(streamed).extracting(PatientSummaryDTO::getId).containsExactlyElementsOf(patientIds);
+    }
+
+    private CursorPageDTO<PatientSummaryDTO> searchPage(String cursor) {
+        return webTestClient.get()
+                .uri(builder -> builder.path("/api/patients/search")
+                        .queryParam("term", "reader")
+                        .queryParam("size", 2)
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<CursorPageDTO<PatientSummaryDTO>>() {
+                })
+                .returnResult()
+                .getResponseBody();
+    }
+}
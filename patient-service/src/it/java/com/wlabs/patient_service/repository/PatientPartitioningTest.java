@@ -0,0 +1,306 @@
+package com.wlabs.patient_service.repository;
+
+import com.wlabs.patient_service.model.IdentityHash;
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 009-partition-patient-tables.xml on a real PostgreSQL: the schema is first migrated in the default context (no
+// partitions) and populated, then migrated again in the migrate context, the way the migrate profile would.
+// Run with mvn test -Ppostgres.
+@Testcontainers
+class PatientPartitioningTest {
+
+    private static final String CHANGELOG = "db/changelog/db.changelog-master.xml";
+    private static final int PARTITIONS = 4;
+    private static final List<String> PARTITIONED_TABLES =
+            List.of("patients", "addresses", "caregivers", "patient_medical_history");
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    private static final UUID alice = UUID.randomUUID();
+    private static final UUID bob = UUID.randomUUID();
+    private static final UUID legacyAlice = UUID.randomUUID();
+    private static final UUID aliceCaregiver = UUID.randomUUID();
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        migrate("default", PARTITIONS);
+        try (Connection connection = connect()) {
+            assertThat(relkind(connection, "patients")).isEqualTo("r");
+
+            insertPatient(connection, alice, "Alice", "alice@example.com");
+            insertPatient(connection, bob, "Bob", "bob@example.com");
+            // Duplicates Alice from before identity hashes existed (006, 011)
+            update(connection, "INSERT INTO patients (id, first_name, last_name, email, date_of_birth, "
+                    + "legacy_duplicate) VALUES (?, 'Alice', 'Smith', 'alice.old@example.com', DATE '1980-01-01', TRUE)",
+                    legacyAlice);
+
+            update(connection, "INSERT INTO addresses (id, patient_id, mailing_address, state) "
+                    + "VALUES (?, ?, '1 Main St', 'CA')", UUID.randomUUID(), alice);
+            update(connection, "INSERT INTO caregivers (id, patient_id, first_name, last_name, identity_hash) "
+                    + "VALUES (?, ?, 'Carol', 'Giver', 'carol')", aliceCaregiver, alice);
+            update(connection, "INSERT INTO caregivers (id, patient_id, first_name, last_name, identity_hash) "
+                    + "VALUES (?, ?, 'Dan', 'Giver', 'dan')", UUID.randomUUID(), bob);
+            update(connection, "INSERT INTO patient_medical_history (patient_id, condition_name) VALUES (?, 'Asthma')",
+                    alice);
+            update(connection, "INSERT INTO patient_medical_history (patient_id, condition_name) VALUES (?, 'Gout')",
+                    alice);
+        }
+        migrate("default,migrate", PARTITIONS);
+    }
+
+    @Test
+    void tablesAreSplitIntoTheConfiguredNumberOfPartitions() throws SQLException {
+        try (Connection connection = connect()) {
+            for (String table : PARTITIONED_TABLES) {
+                assertThat(relkind(connection, table)).as(table).isEqualTo("p");
+                assertThat(queryLong(connection, "SELECT count(*) FROM pg_inherits WHERE inhparent = ?::regclass",
+                        table)).as(table).isEqualTo(PARTITIONS);
+            }
+        }
+    }
+
+    @Test
+    void rowsAreCopiedNextToTheirPatient() throws SQLException {
+        try (Connection connection = connect()) {
+            assertThat(queryLong(connection, "SELECT count(*) FROM patients WHERE id IN (?, ?, ?)",
+                    alice, bob, legacyAlice)).isEqualTo(3);
+            assertThat(queryLong(connection, "SELECT count(*) FROM addresses WHERE patient_id = ?", alice))
+                    .isEqualTo(1);
+            assertThat(queryLong(connection, "SELECT count(*) FROM caregivers WHERE patient_id IN (?, ?)", alice, bob))
+                    .isEqualTo(2);
+            assertThat(queryLong(connection, "SELECT count(*) FROM patient_medical_history WHERE patient_id = ?",
+                    alice)).isEqualTo(2);
+
+            String suffix = partitionSuffix(connection, "patients", "id", alice);
+            assertThat(partitionSuffix(connection, "addresses", "patient_id", alice)).isEqualTo(suffix);
+            assertThat(partitionSuffix(connection, "caregivers", "patient_id", alice)).isEqualTo(suffix);
+            assertThat(partitionSuffix(connection, "patient_medical_history", "patient_id", alice)).isEqualTo(suffix);
+
+            // Generated column recomputed in the new table, flags and hashes copied as they were
+            assertThat(queryString(connection, "SELECT search_text FROM patients WHERE id = ?", alice))
+                    .contains("alice@example.com");
+            assertThat(queryString(connection, "SELECT identity_hash FROM patients WHERE id = ?", legacyAlice))
+                    .isNull();
+            assertThat(queryString(connection, "SELECT legacy_duplicate::text FROM patients WHERE id = ?",
+                    legacyAlice)).isEqualTo("true");
+        }
+    }
+
+    @Test
+    void primaryAndForeignKeysAreRecreated() throws SQLException {
+        try (Connection connection = connect()) {
+            assertThat(constraints(connection, "patients")).contains("patients_pkey");
+            assertThat(constraints(connection, "addresses")).contains("addresses_pkey", "fk_address_patient");
+            assertThat(constraints(connection, "caregivers")).contains("caregivers_pkey", "fk_caregiver_patient");
+            assertThat(constraints(connection, "patient_medical_history"))
+                    .contains("pk_patient_medical_history", "fk_history_patient");
+
+            // Indexes on the partitions have generated names, so violations are told apart by SQL state
+            assertThatThrownBy(() -> update(connection, "INSERT INTO caregivers (id, patient_id, first_name) "
+                    + "VALUES (?, ?, 'Nobody')", UUID.randomUUID(), UUID.randomUUID()))
+                    .satisfies(e -> assertThat(sqlState(e)).isEqualTo(FOREIGN_KEY_VIOLATION));
+            assertThatThrownBy(() -> update(connection, "INSERT INTO patient_medical_history (patient_id, condition_name) "
+                    + "VALUES (?, 'Asthma')", alice))
+                    .satisfies(e -> assertThat(sqlState(e)).isEqualTo(UNIQUE_VIOLATION));
+            assertThatThrownBy(() -> update(connection, "INSERT INTO caregivers (id, patient_id, first_name, "
+                    + "identity_hash) VALUES (?, ?, 'Carol', 'carol')", UUID.randomUUID(), alice))
+                    .satisfies(e -> assertThat(sqlState(e)).isEqualTo(UNIQUE_VIOLATION));
+        }
+    }
+
+    @Test
+    void uniqueKeyTablesFollowInsertsUpdatesAndDeletes() throws SQLException {
+        try (Connection connection = connect()) {
+            assertThat(queryLong(connection, "SELECT count(*) FROM patient_emails WHERE patient_id IN (?, ?, ?)",
+                    alice, bob, legacyAlice)).isEqualTo(3);
+            // The legacy duplicate has no hash and takes no row
+            assertThat(queryLong(connection, "SELECT count(*) FROM patient_identity_hashes WHERE patient_id IN (?, ?, ?)",
+                    alice, bob, legacyAlice)).isEqualTo(2);
+
+            assertThatThrownBy(() -> insertPatient(connection, UUID.randomUUID(), "Alicia", "alice@example.com"))
+                    .isInstanceOf(SQLException.class)
+                    .hasMessageContaining("patients_email_key");
+            assertThatThrownBy(() -> insertPatient(connection, UUID.randomUUID(), "Alice", "alice.new@example.com"))
+                    .isInstanceOf(SQLException.class)
+                    .hasMessageContaining("uq_patient_identity_hash");
+
+            UUID erin = UUID.randomUUID();
+            insertPatient(connection, erin, "Erin", "erin@example.com");
+            update(connection, "UPDATE patients SET email = 'erin.new@example.com' WHERE id = ?", erin);
+            insertPatient(connection, UUID.randomUUID(), "Erin2", "erin@example.com");
+            assertThat(queryString(connection, "SELECT patient_id::text FROM patient_emails "
+                    + "WHERE email = 'erin.new@example.com'")).isEqualTo(erin.toString());
+
+            update(connection, "DELETE FROM patients WHERE id = ?", erin);
+            assertThat(queryLong(connection, "SELECT count(*) FROM patient_emails WHERE patient_id = ?", erin))
+                    .isZero();
+            assertThat(queryLong(connection, "SELECT count(*) FROM patient_identity_hashes WHERE patient_id = ?",
+                    erin)).isZero();
+        }
+    }
+
+    @Test
+    void partitionKeyUpdatesMoveRowsAndKeepUniqueKeysInStep() throws SQLException {
+        try (Connection connection = connect()) {
+            UUID frank = UUID.randomUUID();
+            insertPatient(connection, frank, "Frank", "frank@example.com");
+            String frankPartition = partitionSuffix(connection, "patients", "id", frank);
+            UUID movedFrank = idInAnotherPartition(connection, frank);
+            update(connection, "UPDATE patients SET id = ? WHERE id = ?", movedFrank, frank);
+
+            assertThat(queryLong(connection, "SELECT count(*) FROM patients WHERE id = ?", frank)).isZero();
+            assertThat(partitionSuffix(connection, "patients", "id", movedFrank)).isNotEqualTo(frankPartition);
+            assertThat(queryString(connection, "SELECT patient_id::text FROM patient_emails "
+                    + "WHERE email = 'frank@example.com'")).isEqualTo(movedFrank.toString());
+            assertThat(queryString(connection, "SELECT patient_id::text FROM patient_identity_hashes "
+                    + "WHERE identity_hash = ?", patientHash("Frank"))).isEqualTo(movedFrank.toString());
+
+            // A patient with rows can't change id under them
+            assertThatThrownBy(() -> update(connection, "UPDATE patients SET id = ? WHERE id = ?",
+                    UUID.randomUUID(), bob))
+                    .satisfies(e -> assertThat(sqlState(e)).isEqualTo(FOREIGN_KEY_VIOLATION));
+
+            // A caregiver moved to another patient moves to that patient's partition
+            UUID grace = UUID.randomUUID();
+            insertPatient(connection, grace, "Grace", "grace@example.com");
+            UUID graceCaregiver = UUID.randomUUID();
+            update(connection, "INSERT INTO caregivers (id, patient_id, first_name, identity_hash) "
+                    + "VALUES (?, ?, 'Hank', 'hank')", graceCaregiver, grace);
+            update(connection, "UPDATE caregivers SET patient_id = ? WHERE id = ?", movedFrank, graceCaregiver);
+            assertThat(partitionSuffix(connection, "caregivers", "id", graceCaregiver))
+                    .isEqualTo(partitionSuffix(connection, "patients", "id", movedFrank));
+            assertThatThrownBy(() -> update(connection, "UPDATE caregivers SET patient_id = ? WHERE id = ?",
+                    UUID.randomUUID(), graceCaregiver))
+                    .satisfies(e -> assertThat(sqlState(e)).isEqualTo(FOREIGN_KEY_VIOLATION));
+        }
+    }
+
+    @Test
+    void laterMigrationsMustKeepThePartitionCount() throws Exception {
+        migrate("default,migrate", PARTITIONS);
+        migrate("default", 0);
+        assertThatThrownBy(() -> migrate("default,migrate", PARTITIONS * 2))
+                .isInstanceOf(LiquibaseException.class);
+    }
+
+    private static void migrate(String contexts, int partitions) throws Exception {
+        try (Connection connection = connect()) {
+            Liquibase liquibase = new Liquibase(CHANGELOG, new ClassLoaderResourceAccessor(),
+                    new JdbcConnection(connection));
+            liquibase.setChangeLogParameter("patient_partitions", partitions);
+            liquibase.update(new Contexts(contexts), new LabelExpression());
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    private static void insertPatient(Connection connection, UUID id, String firstName, String email)
+            throws SQLException {
+        update(connection, "INSERT INTO patients (id, first_name, last_name, email, date_of_birth, identity_hash) "
+                + "VALUES (?, ?, 'Smith', ?, DATE '1980-01-01', ?)", id, firstName, email, patientHash(firstName));
+    }
+
+    private static String patientHash(String firstName) {
+        return IdentityHash.ofPatient(firstName, "Smith", LocalDate.of(1980, 1, 1));
+    }
+
+    // Any id whose row would land in a different partition than the given patient's
+    private static UUID idInAnotherPartition(Connection connection, UUID patientId) throws SQLException {
+        long remainder = queryLong(connection, "SELECT (regexp_match(tableoid::regclass::text, '_p(\\d+)$'))[1]::int "
+                + "FROM patients WHERE id = ?", patientId);
+        while (true) {
+            UUID candidate = UUID.randomUUID();
+            if (queryLong(connection, "SELECT count(*) FROM generate_series(0, ? - 1) r "
+                    + "WHERE r <> ? AND satisfies_hash_partition('patients'::regclass, ?, r, ?::uuid)",
+                    PARTITIONS, remainder, PARTITIONS, candidate) > 0) {
+                return candidate;
+            }
+        }
+    }
+
+    // The partition suffix (_p3) of the row
+    private static String partitionSuffix(Connection connection, String table, String column, UUID key)
+            throws SQLException {
+        String partition = queryString(connection,
+                "SELECT tableoid::regclass::text FROM " + table + " WHERE " + column + " = ? LIMIT 1", key);
+        return partition.substring(partition.lastIndexOf("_p"));
+    }
+
+    private static String sqlState(Throwable e) {
+        return e instanceof SQLException sqlException ? sqlException.getSQLState() : null;
+    }
+
+    private static String relkind(Connection connection, String table) throws SQLException {
+        return queryString(connection, "SELECT relkind::text FROM pg_class WHERE oid = ?::regclass", table);
+    }
+
+    private static List<String> constraints(Connection connection, String table) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement statement = prepare(connection,
+                "SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass", table);
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                names.add(rows.getString(1));
+            }
+        }
+        return names;
+    }
+
+    private static void update(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = prepare(connection, sql, parameters)) {
+            statement.executeUpdate();
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = prepare(connection, sql, parameters);
+             ResultSet rows = statement.executeQuery()) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static String queryString(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = prepare(connection, sql, parameters);
+             ResultSet rows = statement.executeQuery()) {
+            return rows.next() ? rows.getString(1) : null;
+        }
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, Object... parameters)
+            throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,50 @@
+package com.wlabs.patient_service.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.List;
+
+// Caching advice runs outside the transaction advice, so a cache hit never opens a transaction or borrows a
+// connection, and evictions happen after the writing transaction has committed.
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String PATIENTS = "patients";
+    public static final String PATIENT_SEARCHES = "patientSearches";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${patient.cache.patients.maximum-size:10000}") long patientsMaximumSize,
+            @Value("${patient.cache.patients.expire-after-write:10m}") Duration patientsExpireAfterWrite,
+            @Value("${patient.cache.searches.maximum-size:1000}") long searchesMaximumSize,
+            @Value("${patient.cache.searches.expire-after-write:30s}") Duration searchesExpireAfterWrite,
+            @Value("${patient.datasource.replica.urls:}") List<String> replicaUrls,
+            @Value("${patient.datasource.replica.max-lag:2s}") Duration replicaMaxLag,
+            @Value("${patient.datasource.replica.lag-check-interval:5s}") Duration replicaLagCheckInterval) {
+        // How far behind a replica in rotation can be: its allowed lag, plus the time until the next check notices
+        Duration staleReadWindow = replicaUrls.isEmpty() ? Duration.ZERO : replicaMaxLag.plus(replicaLagCheckInterval);
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                cache(PATIENTS, patientsMaximumSize, patientsExpireAfterWrite, staleReadWindow),
+                cache(PATIENT_SEARCHES, searchesMaximumSize, searchesExpireAfterWrite, staleReadWindow)));
+        return cacheManager;
+    }
+
+    private static InvalidationAwareCaffeineCache cache(String name, long maximumSize, Duration expireAfterWrite,
+                                                        Duration staleReadWindow) {
+        return new InvalidationAwareCaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build(), staleReadWindow);
+    }
+}
@@ -0,0 +1,126 @@
+package com.wlabs.patient_service.config;
+
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+// Writes a session back to its store only when something in it changed: a new session, a new id, an attribute set or
+// removed, a new timeout, or a last access that moved at least touchInterval past the stored one. A request that only
+// reads its session (the common case) costs the store nothing, and all of a request's attribute changes are flushed
+// together when the response is committed. Objects changed in place without setAttribute are not detected.
+public class DeferredTouchSessionRepository<S extends Session>
+        implements SessionRepository<DeferredTouchSessionRepository.TrackedSession<S>> {
+
+    private final SessionRepository<S> delegate;
+    private final Duration touchInterval;
+
+    public DeferredTouchSessionRepository(SessionRepository<S> delegate, Duration touchInterval) {
+        this.delegate = delegate;
+        this.touchInterval = touchInterval;
+    }
+
+    @Override
+    public TrackedSession<S> createSession() {
+        return new TrackedSession<>(delegate.createSession(), null);
+    }
+
+    @Override
+    public void save(TrackedSession<S> session) {
+        if (session.changed || session.storedLastAccessedTime == null
+                || !session.getLastAccessedTime().isBefore(session.storedLastAccessedTime.plus(touchInterval))) {
+            delegate.save(session.session);
+            session.changed = false;
+            session.storedLastAccessedTime = session.getLastAccessedTime();
+        }
+    }
+
+    @Override
+    public TrackedSession<S> findById(String id) {
+        S session = delegate.findById(id);
+        return session == null ? null : new TrackedSession<>(session, session.getLastAccessedTime());
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+    }
+
+    public static final class TrackedSession<S extends Session> implements Session {
+
+        private final S session;
+        private Instant storedLastAccessedTime;
+        private boolean changed;
+
+        private TrackedSession(S session, Instant storedLastAccessedTime) {
+            this.session = session;
+            this.storedLastAccessedTime = storedLastAccessedTime;
+        }
+
+        @Override
+        public String getId() {
+            return session.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            changed = true;
+            return session.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return session.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return session.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            changed = true;
+            session.setAttribute(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            changed |= session.getAttribute(attributeName) != null;
+            session.removeAttribute(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return session.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            session.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return session.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            changed |= !interval.equals(session.getMaxInactiveInterval());
+            session.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return session.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return session.isExpired();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.wlabs.patient_service.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A CaffeineCache that never keeps a value loaded before a concurrent invalidation. Loads run inside Caffeine's atomic
+// get(key, fn), so concurrent misses on a key share one load, and evict(key) waits for that key's load and then removes
+// what it stored. Without this, a read that started before a write committed could put the old value back after the
+// write's eviction, and it would be served until it expired. clear() can't wait for loads in flight, so a load that
+// overlaps a clear isn't kept either.
+// Only the sync=true @Cacheable path (get with a loader) is guarded; plain put() is stored unconditionally.
+// With read replicas, a load that starts after the eviction can still read a replica that hasn't replayed the write;
+// loads within staleReadWindow of an eviction of their key (or of a clear) are therefore returned but not stored.
+public class InvalidationAwareCaffeineCache extends CaffeineCache {
+
+    // Bumped by clear() and invalidate(), the only invalidations that can't wait for a load in flight
+    private final AtomicLong clears = new AtomicLong();
+    private final long staleReadWindowNanos;
+    private final Cache<Object, Boolean> recentEvictions;
+    private volatile long lastClearNanos;
+
+    public InvalidationAwareCaffeineCache(String name, Cache<Object, Object> cache) {
+        this(name, cache, Duration.ZERO);
+    }
+
+    public InvalidationAwareCaffeineCache(String name, Cache<Object, Object> cache, Duration staleReadWindow) {
+        super(name, cache);
+        this.staleReadWindowNanos = staleReadWindow.toNanos();
+        this.recentEvictions = staleReadWindow.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(staleReadWindow)
+                .build();
+        this.lastClearNanos = System.nanoTime() - staleReadWindowNanos;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        long observedClears = clears.get();
+        // What this thread loaded, returned even when it isn't stored
+        Object[] loaded = new Object[1];
+        Object value = getNativeCache().get(key, k -> {
+            try {
+                loaded[0] = toStoreValue(valueLoader.call());
+            } catch (Exception e) {
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+            return clears.get() == observedClears && !recentlyInvalidated(k) ? loaded[0] : null;
+        });
+        if (value == null) {
+            return (T) fromStoreValue(loaded[0]);
+        }
+        if (value == loaded[0] && clears.get() != observedClears) {
+            // A clear() that ran while the value was being stored may have passed over it
+            getNativeCache().asMap().remove(key, value);
+        }
+        return (T) fromStoreValue(value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        // Runs under the key's lock, so it waits for a load of the key in flight and removes what it stored
+        getNativeCache().asMap().compute(key, (k, current) -> {
+            if (recentEvictions != null) {
+                recentEvictions.put(k, true);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = getNativeCache().asMap().containsKey(key);
+        evict(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        // Bump first: anything stored before this point is removed below, anything after won't be stored
+        clears.incrementAndGet();
+        lastClearNanos = System.nanoTime();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        clears.incrementAndGet();
+        lastClearNanos = System.nanoTime();
+        return super.invalidate();
+    }
+
+    private boolean recentlyInvalidated(Object key) {
+        return recentEvictions != null && (System.nanoTime() - lastClearNanos < staleReadWindowNanos
+                || recentEvictions.getIfPresent(key) != null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.wlabs.patient_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Declared here rather than as a @Component so web slice tests, which have no MeterRegistry, don't pick the filter up
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public SqlMetricsFilter sqlMetricsFilter(MeterRegistry meterRegistry) {
+        return new SqlMetricsFilter(meterRegistry);
+    }
+}
@@ -0,0 +1,36 @@
+package com.wlabs.patient_service.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+// The one-shot migrate step (SPRING_PROFILES_ACTIVE=migrate): Liquibase has applied the changelog and Hibernate has
+// validated the schema while the context started, so all that is left is to exit. A failed migration fails the
+// startup instead, with a non-zero exit status. The flag is read at run time rather than as a bean condition, so a
+// jar built with Spring AOT (whose conditions are fixed at build time) can run the step too.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MigrationRunner implements ApplicationRunner {
+
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Value("${patient.migrations.exit-after-run:false}")
+    private boolean exitAfterRun;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!exitAfterRun) {
+            return;
+        }
+        log.info("Database migrations are up to date");
+        // Scheduled tasks (change relay) would otherwise keep the JVM running
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+}
@@ -0,0 +1,142 @@
+package com.wlabs.patient_service.config;
+
+import com.wlabs.patient_service.model.Patient;
+import com.wlabs.patient_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_service.model.dto.PatientAccessEventDTO;
+import com.wlabs.patient_service.model.dto.PatientBatchDTO;
+import com.wlabs.patient_service.model.dto.PatientDetailDTO;
+import com.wlabs.patient_service.model.dto.PatientSuggestionDTO;
+import com.wlabs.patient_service.model.dto.PatientSummaryDTO;
+import com.wlabs.patient_service.model.dto.PossibleDuplicateDTO;
+import com.wlabs.patient_service.service.PatientAuditLog;
+import jakarta.servlet.http.HttpServletRequest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+// Audits every call to the patient controllers, cache hits included: one event per patient the call named (id and
+// patientId path variables) or returned (patients, pages, lists and batches of them), or a single event without a
+// patient for calls that touch many at once (exports, imports, streams). Runs on the request thread, so it only
+// collects what is at hand and leaves the writing to PatientAuditLog. Not part of @WebMvcTest slices.
+@Aspect
+@Component
+@ConditionalOnProperty(name = "patient.audit.enabled", havingValue = "true", matchIfMissing = true)
+public class PatientAuditAspect {
+
+    private static final Set<String> PATIENT_ID_PARAMETERS = Set.of("id", "patientId");
+
+    private final PatientAuditLog patientAuditLog;
+    private final String actorHeader;
+    // Indexes of each controller method's patient id parameters, resolved once
+    private final Map<Method, int[]> patientIdParameters = new ConcurrentHashMap<>();
+
+    public PatientAuditAspect(PatientAuditLog patientAuditLog,
+                              @Value("${patient.audit.actor-header:X-User-Id}") String actorHeader) {
+        this.patientAuditLog = patientAuditLog;
+        this.actorHeader = actorHeader;
+    }
+
+    @Around("within(com.wlabs.patient_service.controller..*) "
+            + "&& @within(org.springframework.web.bind.annotation.RestController)")
+    public Object audit(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = null;
+        boolean succeeded = false;
+        try {
+            result = joinPoint.proceed();
+            // A not-found or rejected request returned as a response rather than thrown
+            succeeded = !(result instanceof ResponseEntity<?> entity && entity.getStatusCode().isError());
+            return result;
+        } finally {
+            record(joinPoint, result, succeeded);
+        }
+    }
+
+    private void record(ProceedingJoinPoint joinPoint, Object result, boolean succeeded) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Set<UUID> patientIds = new LinkedHashSet<>();
+        Object[] args = joinPoint.getArgs();
+        for (int index : patientIdParameters.computeIfAbsent(method, PatientAuditAspect::findPatientIdParameters)) {
+            if (args[index] instanceof UUID id) {
+                patientIds.add(id);
+            }
+        }
+        addReturnedIds(result, patientIds);
+
+        String actor = null;
+        String clientAddress = null;
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            actor = request.getHeader(actorHeader);
+            clientAddress = request.getRemoteAddr();
+        }
+        Instant now = Instant.now();
+        String operation = method.getName();
+        if (patientIds.isEmpty()) {
+            patientAuditLog.record(new PatientAccessEventDTO(null, now, null, operation, actor, clientAddress, succeeded));
+        }
+        for (UUID patientId : patientIds) {
+            patientAuditLog.record(new PatientAccessEventDTO(null, now, patientId, operation, actor, clientAddress,
+                    succeeded));
+        }
+    }
+
+    private static int[] findPatientIdParameters(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        return IntStream.range(0, types.length)
+                .filter(i -> types[i] == UUID.class && PATIENT_ID_PARAMETERS.contains(method.getParameters()[i].getName()))
+                .toArray();
+    }
+
+    private static void addReturnedIds(Object result, Set<UUID> patientIds) {
+        Object body = result instanceof ResponseEntity<?> entity ? entity.getBody() : result;
+        if (body instanceof CursorPageDTO<?> page) {
+            body = page.getContent();
+        } else if (body instanceof PatientBatchDTO batch) {
+            // Asking for a patient that doesn't exist is recorded too, as for a single get
+            patientIds.addAll(batch.getMissingIds());
+            body = batch.getPatients();
+        }
+        if (body instanceof Collection<?> items) {
+            items.forEach(item -> addReturnedId(item, patientIds));
+        } else {
+            addReturnedId(body, patientIds);
+        }
+    }
+
+    private static void addReturnedId(Object item, Set<UUID> patientIds) {
+        UUID id = null;
+        if (item instanceof Patient patient) {
+            id = patient.getId();
+        } else if (item instanceof PatientDetailDTO patient) {
+            id = patient.getId();
+        } else if (item instanceof PatientSummaryDTO patient) {
+            id = patient.getId();
+        } else if (item instanceof PatientSuggestionDTO patient) {
+            id = patient.getId();
+        } else if (item instanceof PossibleDuplicateDTO patient) {
+            id = patient.getId();
+        }
+        if (id != null) {
+            patientIds.add(id);
+        }
+    }
+}
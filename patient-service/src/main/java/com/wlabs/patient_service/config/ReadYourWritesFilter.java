@@ -0,0 +1,75 @@
+package com.wlabs.patient_service.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+// Sends a client's reads to the primary for a while after its own write, so it never reads a replica that hasn't
+// replayed that write yet. The deadline travels in a cookie, so it holds whichever instance serves the next request.
+// Work done after the request thread returns (streamed bodies) isn't pinned.
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String PRIMARY_UNTIL_COOKIE = "patient-primary-until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    // Reads sent as POST because their input doesn't fit in a URL
+    private static final Set<String> READ_ONLY_POSTS = Set.of("/api/patients/batch-get");
+
+    private final Duration window;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean pinned;
+        if (SAFE_METHODS.contains(request.getMethod()) || READ_ONLY_POSTS.contains(request.getRequestURI())) {
+            pinned = primaryUntil(request) > now;
+        } else {
+            // Set before the handler runs, while the response headers can still be written
+            Cookie cookie = new Cookie(PRIMARY_UNTIL_COOKIE, String.valueOf(now + window.toMillis()));
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            cookie.setPath("/api");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+            pinned = true;
+        }
+        if (pinned) {
+            ReplicaRoutingDataSource.pinToPrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.unpin();
+        }
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (PRIMARY_UNTIL_COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
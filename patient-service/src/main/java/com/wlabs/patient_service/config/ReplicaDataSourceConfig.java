@@ -0,0 +1,92 @@
+package com.wlabs.patient_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Active when patient.datasource.replica.urls lists at least one replica. The application DataSource then fetches
+// its physical connection lazily, once the transaction is set up: read-only transactions (@Transactional(readOnly =
+// true): getPatientById, searches, exports) get a replica connection, everything else a primary one. Change feed
+// consumers (the in-memory indexes, the feed itself) read through ReplicaRoutingDataSource.onPrimary instead.
+@Configuration
+@ConditionalOnExpression("'${patient.datasource.replica.urls:}' != ''")
+public class ReplicaDataSourceConfig {
+
+    private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+    private final String lagQuery;
+    private final Duration maxLag;
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    public ReplicaDataSourceConfig(MeterRegistry meterRegistry,
+                                   @Value("${patient.datasource.replica.urls}") List<String> urls,
+                                   @Value("${patient.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                   @Value("${patient.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                   @Value("${patient.datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+                                   @Value("${patient.datasource.replica.lag-query}") String lagQuery,
+                                   @Value("${patient.datasource.replica.max-lag:2s}") Duration maxLag) {
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(replica.getPoolName(), replica);
+        }
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    // spring.datasource.* and spring.datasource.hikari.* still configure the primary pool
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource) {
+        replicaRoutingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas, lagQuery, maxLag);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    @Scheduled(fixedDelayString = "${patient.datasource.replica.lag-check-interval:5s}")
+    void checkReplicaLag() {
+        if (replicaRoutingDataSource != null) {
+            replicaRoutingDataSource.checkReplicaLag();
+        }
+    }
+
+    // The replica pools aren't beans, so health checks, Liquibase and other DataSource users never pick them up
+    @PreDestroy
+    void closeReplicas() {
+        replicas.values().forEach(replica -> ((HikariDataSource) replica).close());
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${patient.datasource.replica.read-your-writes-window:5s}") Duration window) {
+        return new ReadYourWritesFilter(window);
+    }
+}
@@ -0,0 +1,115 @@
+package com.wlabs.patient_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// The DataSource behind read-only connections: the replicas in rotation, round-robin. Falls back to the primary
+// while the current thread is pinned to it (the client has just written, see ReadYourWritesFilter, or the work tracks
+// a change feed position, see onPrimary) and when every replica is more than maxLag behind or unreachable.
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = ThreadLocal.withInitial(() -> false);
+
+    private final Map<String, DataSource> replicas;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> inRotation;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, String lagQuery,
+                                    Duration maxLag) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.inRotation = List.copyOf(replicas.keySet());
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        initialize();
+    }
+
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(true);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    // Runs the work with every read on the primary, for consumers that track a change feed position. Round-robin
+    // replicas lag by different amounts: one could serve an event and the next an older row for it, and a replica
+    // behind the position reached looks like a reset feed.
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (PINNED_TO_PRIMARY.get()) {
+            return work.get();
+        }
+        PINNED_TO_PRIMARY.set(true);
+        try {
+            return work.get();
+        } finally {
+            PINNED_TO_PRIMARY.remove();
+        }
+    }
+
+    public static void onPrimary(Runnable work) {
+        onPrimary(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public List<String> getReplicasInRotation() {
+        return inRotation;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> candidates = inRotation;
+        if (PINNED_TO_PRIMARY.get() || candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(nextReplica.getAndIncrement(), candidates.size()));
+    }
+
+    // Takes replicas out of rotation while they lag more than maxLag or don't answer, and back in once caught up
+    public void checkReplicaLag() {
+        List<String> healthy = new ArrayList<>();
+        replicas.forEach((name, replica) -> {
+            try (Connection connection = replica.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet lag = statement.executeQuery(lagQuery)) {
+                lag.next();
+                double lagSeconds = lag.getDouble(1);
+                if (lagSeconds * 1000 <= maxLag.toMillis()) {
+                    healthy.add(name);
+                } else {
+                    log.warn("Replica {} is {}s behind the primary, out of rotation", name, lagSeconds);
+                }
+            } catch (SQLException e) {
+                log.warn("Replica {} failed its lag check, out of rotation: {}", name, e.getMessage());
+            }
+        });
+        if (!healthy.equals(inRotation)) {
+            log.info("Replicas in rotation: {}", healthy.isEmpty() ? "none, reading from the primary" : healthy);
+        }
+        inRotation = List.copyOf(healthy);
+    }
+}
@@ -0,0 +1,86 @@
+package com.wlabs.patient_service.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.FlushMode;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.SaveMode;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+// HTTP sessions (patient.session.store): memory keeps them in this instance (clients need sticky affinity once there is
+// more than one), token keeps them in a signed cookie (no server state), and jdbc keeps them in the SPRING_SESSION
+// tables. Whichever store is used, DeferredTouchSessionRepository writes a session back only when it changed.
+// Defining the SessionRepository here makes Boot's JDBC session auto-configuration back off.
+@Configuration
+@EnableSpringHttpSession
+public class SessionConfig {
+
+    private final Duration timeout;
+    private final Duration touchInterval;
+
+    public SessionConfig(@Value("${spring.session.timeout:${server.servlet.session.timeout:30m}}") Duration timeout,
+                         @Value("${patient.session.touch-interval:1m}") Duration touchInterval) {
+        this.timeout = timeout;
+        this.touchInterval = touchInterval;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "patient.session.store", havingValue = "memory", matchIfMissing = true)
+    public SessionRepository<?> memorySessionRepository(
+            @Value("${patient.session.memory.maximum-size:100000}") long maximumSize) {
+        Map<String, Session> sessions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(timeout)
+                .<String, Session>build()
+                .asMap();
+        MapSessionRepository repository = new MapSessionRepository(sessions);
+        repository.setDefaultMaxInactiveInterval(timeout);
+        return new DeferredTouchSessionRepository<MapSession>(repository, touchInterval);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "patient.session.store", havingValue = "token")
+    public SessionRepository<?> tokenSessionRepository(@Value("${patient.session.token.secret:}") String secret) {
+        return new DeferredTouchSessionRepository<>(new SignedTokenSessionRepository(secret, timeout), touchInterval);
+    }
+
+    // A bean of its own, so that it schedules its expired-session cleanup
+    @Bean
+    @ConditionalOnProperty(name = "patient.session.store", havingValue = "jdbc")
+    public JdbcIndexedSessionRepository jdbcIndexedSessionRepository(
+            DataSource dataSource, PlatformTransactionManager transactionManager,
+            @Value("${spring.session.jdbc.cleanup-cron:0 * * * * *}") String cleanupCron) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        JdbcIndexedSessionRepository repository =
+                new JdbcIndexedSessionRepository(new JdbcTemplate(dataSource), transactionTemplate);
+        repository.setDefaultMaxInactiveInterval(timeout);
+        repository.setFlushMode(FlushMode.ON_SAVE);
+        repository.setSaveMode(SaveMode.ON_SET_ATTRIBUTE);
+        repository.setCleanupCron(cleanupCron);
+        return repository;
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "patient.session.store", havingValue = "jdbc")
+    public SessionRepository<?> jdbcSessionRepository(JdbcIndexedSessionRepository jdbcIndexedSessionRepository) {
+        return new DeferredTouchSessionRepository<>(jdbcIndexedSessionRepository, touchInterval);
+    }
+}
@@ -0,0 +1,142 @@
+package com.wlabs.patient_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.session.MapSession;
+import org.springframework.session.SessionRepository;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+// A stateless session store: the session is its own id. save() serializes the timestamps and attributes and signs them
+// with HMAC-SHA256 ("payload.signature", base64url), and the session filter sends the token back as the session cookie.
+// findById() accepts only tokens this secret signed and that haven't expired. Nothing is stored server-side, so any
+// instance can serve any request, but deleteById() can't revoke a token: invalidation only expires the client's cookie.
+@Slf4j
+public class SignedTokenSessionRepository implements SessionRepository<MapSession> {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+    // Browsers drop cookies over 4KB, and the cookie serializer base64-encodes the token once more
+    private static final int MAX_TOKEN_LENGTH = 3000;
+    private static final ObjectInputFilter PAYLOAD_FILTER =
+            ObjectInputFilter.Config.createFilter("maxdepth=20;maxrefs=1000;maxbytes=" + MAX_TOKEN_LENGTH);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration defaultMaxInactiveInterval;
+
+    public SignedTokenSessionRepository(String secret, Duration defaultMaxInactiveInterval) {
+        byte[] secretBytes = secret == null ? new byte[0] : secret.getBytes(StandardCharsets.UTF_8);
+        if (secretBytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException(
+                    "patient.session.token.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        this.key = new SecretKeySpec(secretBytes, ALGORITHM);
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+    }
+
+    @Override
+    public MapSession createSession() {
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(defaultMaxInactiveInterval);
+        return session;
+    }
+
+    @Override
+    public void save(MapSession session) {
+        byte[] payload = write(session);
+        String token = ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+        if (token.length() > MAX_TOKEN_LENGTH) {
+            log.warn("Session token is {} characters, browsers may drop the cookie", token.length());
+        }
+        session.setId(token);
+    }
+
+    @Override
+    public MapSession findById(String token) {
+        int separator = token.lastIndexOf('.');
+        if (separator < 0) {
+            return null;
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, separator));
+            signature = DECODER.decode(token.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            log.debug("Rejected a session token with an invalid signature");
+            return null;
+        }
+        MapSession session = read(token, payload);
+        return session == null || session.isExpired() ? null : session;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        // Nothing is stored, the filter expires the client's cookie
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign session tokens", e);
+        }
+    }
+
+    private static byte[] write(MapSession session) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeLong(session.getCreationTime().toEpochMilli());
+            out.writeLong(session.getLastAccessedTime().toEpochMilli());
+            out.writeLong(session.getMaxInactiveInterval().toSeconds());
+            out.writeInt(session.getAttributeNames().size());
+            for (String name : session.getAttributeNames()) {
+                out.writeUTF(name);
+                out.writeObject(session.getAttribute(name));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize session attributes", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // Only called on payloads this secret signed. One that no longer deserializes (an attribute class changed since it
+    // was issued) starts a new session.
+    private static MapSession read(String token, byte[] payload) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            in.setObjectInputFilter(PAYLOAD_FILTER);
+            MapSession session = new MapSession(token);
+            session.setCreationTime(Instant.ofEpochMilli(in.readLong()));
+            session.setLastAccessedTime(Instant.ofEpochMilli(in.readLong()));
+            session.setMaxInactiveInterval(Duration.ofSeconds(in.readLong()));
+            int attributes = in.readInt();
+            for (int i = 0; i < attributes; i++) {
+                session.setAttribute(in.readUTF(), in.readObject());
+            }
+            return session;
+        } catch (IOException | ClassNotFoundException e) {
+            log.warn("Discarding a session token that cannot be deserialized: {}", e.toString());
+            return null;
+        }
+    }
+}
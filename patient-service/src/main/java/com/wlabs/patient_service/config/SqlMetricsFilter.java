@@ -0,0 +1,55 @@
+package com.wlabs.patient_service.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Publishes how many SQL statements each API request executed and how long they spent in JDBC, tagged like
+// http.server.requests. Work done after the request thread returns (the NDJSON stream body) is not included.
+@RequiredArgsConstructor
+public class SqlMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlMetricsSessionEventListener.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlMetricsSessionEventListener.SqlActivity activity = SqlMetricsSessionEventListener.endRequest();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Tags tags = Tags.of("method", request.getMethod(), "uri", uri == null ? "UNKNOWN" : uri.toString());
+            DistributionSummary.builder("patient.requests.sql.statements")
+                    .description("SQL statements executed per request")
+                    .baseUnit("statements")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(activity.statements);
+            Timer.builder("patient.requests.jdbc")
+                    .description("Time per request spent executing SQL statements")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(activity.jdbcNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.wlabs.patient_service.config;
+
+import org.hibernate.SessionEventListener;
+
+// Registered through hibernate.session.events.auto, so Hibernate creates one instance per session.
+// Every JDBC execution (a query, an update or a whole batch) is added to the tally of the current thread,
+// which SqlMetricsFilter opens and publishes around each request.
+public class SqlMetricsSessionEventListener implements SessionEventListener {
+
+    private static final ThreadLocal<SqlActivity> CURRENT = new ThreadLocal<>();
+
+    private long executionStartedAt;
+
+    static void beginRequest() {
+        CURRENT.set(new SqlActivity());
+    }
+
+    static SqlActivity endRequest() {
+        SqlActivity activity = CURRENT.get();
+        CURRENT.remove();
+        return activity;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        recordExecution();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        recordExecution();
+    }
+
+    private void recordExecution() {
+        SqlActivity activity = CURRENT.get();
+        if (activity != null) {
+            activity.statements++;
+            activity.jdbcNanos += System.nanoTime() - executionStartedAt;
+        }
+    }
+
+    static final class SqlActivity {
+        long statements;
+        long jdbcNanos;
+    }
+}
@@ -0,0 +1,85 @@
+package com.wlabs.patient_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Spring Boot reports the instance ready (ReadinessState.ACCEPTING_TRAFFIC) only after the ApplicationReadyEvent
+// listeners return, so /actuator/health/readiness stays DOWN until this is done. Opens each pool's minimum idle
+// connections and sends a few requests through the whole stack, so the first real request doesn't pay for
+// connections, Jackson serializers or Hibernate query plans. Replica pools are opened by the first lag check.
+// Failures are logged: an instance that can't warm up still starts.
+@Component
+@Slf4j
+public class StartupWarmup {
+
+    private final ObjectProvider<HikariDataSource> pools;
+    private final boolean enabled;
+    private final List<String> requests;
+
+    public StartupWarmup(ObjectProvider<HikariDataSource> pools,
+                         @Value("${patient.startup.warm-up:true}") boolean enabled,
+                         @Value("${patient.startup.warm-up.requests:}") List<String> requests) {
+        this.pools = pools;
+        this.enabled = enabled;
+        this.requests = requests;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void warmUp(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        pools.orderedStream().forEach(this::fill);
+        // Not set when there is no web server (tests, command-line runs)
+        String port = event.getApplicationContext().getEnvironment().getProperty("local.server.port");
+        if (port != null) {
+            RestClient client = RestClient.create("http://localhost:" + port);
+            requests.stream().map(String::trim).filter(path -> !path.isEmpty()).forEach(path -> send(client, path));
+        }
+        log.info("Warmed up in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Holds the connections until the pool has opened all of them, so they are idle in the pool afterwards
+    private void fill(HikariDataSource pool) {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            // The first connection starts the pool, which settles the minimum idle count
+            connections.add(pool.getConnection());
+            while (connections.size() < pool.getMinimumIdle()) {
+                connections.add(pool.getConnection());
+            }
+        } catch (SQLException e) {
+            log.warn("Could not open the connections of pool {}: {}", pool.getPoolName(), e.getMessage());
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.warn("Could not return a connection to pool {}", pool.getPoolName(), e);
+                }
+            }
+        }
+    }
+
+    private void send(RestClient client, String path) {
+        try {
+            client.get().uri(path).retrieve().toBodilessEntity();
+        } catch (RestClientException e) {
+            log.warn("Warm-up request {} failed: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.wlabs.patient_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+// Streams JFR jdk.VirtualThreadPinned events in-process: a virtual thread that blocks while pinned to its carrier
+// (inside synchronized or native code) holds that carrier, so a few of them can stall every request.
+// Each event is logged with its top frames and recorded in the jvm.threads.virtual.pinned timer.
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${patient.virtual-threads.pinned-threshold:20ms}")
+    private Duration pinnedThreshold;
+
+    private RecordingStream recordingStream;
+
+    @Override
+    public void start() {
+        Timer pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(pinnedThreshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, event -> {
+            pinned.record(event.getDuration());
+            log.warn("Virtual thread pinned for {} ms:\n{}", event.getDuration().toMillis(), topFrames(event.getStackTrace()));
+        });
+        recordingStream.startAsync();
+        log.info("Virtual thread pinning monitor started, threshold: {} ms", pinnedThreshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        recordingStream.close();
+        recordingStream = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private static String topFrames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t(no stack trace)";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(RecordedFrame::getMethod)
+                .map(method -> "\tat " + method.getType().getName() + "." + method.getName())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -11,8 +11,9 @@ public class WebConfig implements WebMvcConfigurer {
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**") // Applies to all routes starting with /api/
                 .allowedOrigins("http://localhost:5173") // Allows requests from this origin
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Allows these HTTP methods
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS") // Allows these HTTP methods
                 .allowedHeaders("*") // Allows all headers
+                .exposedHeaders("ETag", "X-Next-Modified-Since") // Version for If-Match, watermark of incremental exports
                 .allowCredentials(true);
     }
 }
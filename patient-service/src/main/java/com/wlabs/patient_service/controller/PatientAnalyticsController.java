@@ -0,0 +1,36 @@
+package com.wlabs.patient_service.controller;
+
+import com.wlabs.patient_service.model.dto.CohortStatsDTO;
+import com.wlabs.patient_service.service.PatientAnalyticsService;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/patients")
+@RequiredArgsConstructor
+public class PatientAnalyticsController {
+
+    private static final String GROUP_BY = "groupBy";
+
+    private final PatientAnalyticsService patientAnalyticsService;
+
+    // e.g. ?groupBy=typeOfDiabetes,ageBand&state=CA; every parameter other than groupBy filters on a dimension
+    @GetMapping("/analytics")
+    public ResponseEntity<CohortStatsDTO> getCohortStats(
+            @RequestParam(name = GROUP_BY, required = false) List<String> groupBy,
+            @RequestParam Map<String, String> parameters) {
+        Map<String, String> filters = new LinkedHashMap<>(parameters);
+        filters.remove(GROUP_BY);
+        return ResponseEntity.ok(patientAnalyticsService.countBy(groupBy, filters));
+    }
+}
@@ -0,0 +1,34 @@
+package com.wlabs.patient_service.controller;
+
+import com.wlabs.patient_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_service.model.dto.PatientAccessEventDTO;
+import com.wlabs.patient_service.service.PatientAuditLog;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+// Access history of one patient; only available when the audit log is written to the database
+@RestController
+@RequestMapping("/api/patients")
+@ConditionalOnProperty(name = "patient.audit.sink", havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PatientAuditController {
+
+    private final PatientAuditLog patientAuditLog;
+
+    // Newest first: pass the returned nextCursor as cursor to get older events
+    @GetMapping("/{id}/audit")
+    public CursorPageDTO<PatientAccessEventDTO> getAccessHistory(@PathVariable UUID id,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer size) {
+        return patientAuditLog.findHistory(id, cursor, size);
+    }
+}
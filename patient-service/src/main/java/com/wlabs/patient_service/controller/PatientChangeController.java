@@ -0,0 +1,38 @@
+package com.wlabs.patient_service.controller;
+
+import com.wlabs.patient_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_service.model.dto.PatientChangeEventDTO;
+import com.wlabs.patient_service.service.PatientChangeFeed;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/patients/changes")
+@RequiredArgsConstructor
+public class PatientChangeController {
+
+    private final PatientChangeFeed patientChangeFeed;
+
+    // Long poll: pass the returned nextCursor as since to get the following events
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<CursorPageDTO<PatientChangeEventDTO>> pollChanges(
+            @RequestParam(defaultValue = "0") long since) {
+        return patientChangeFeed.poll(since);
+    }
+
+    // A reconnecting EventSource sends the id of the last event it received as Last-Event-ID
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(defaultValue = "0") long since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return patientChangeFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
@@ -1,5 +1,7 @@
 package com.wlabs.patient_service.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wlabs.patient_service.service.PatientService;
 
 import jakarta.validation.Valid;
@@ -7,12 +9,20 @@ import jakarta.validation.Valid;
 import com.wlabs.patient_service.model.Caregiver;
 import com.wlabs.patient_service.model.Patient;
 import com.wlabs.patient_service.model.dto.CaregiverDTO;
+import com.wlabs.patient_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_service.model.dto.MedicalHistoryChangeDTO;
+import com.wlabs.patient_service.model.dto.PatientBatchDTO;
 import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.model.dto.PatientDetailDTO;
+import com.wlabs.patient_service.model.dto.PatientSummaryDTO;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,10 +31,15 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
-import java.util.UUID;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/patients")
@@ -32,7 +47,10 @@ import java.util.List;
 @Slf4j
 public class PatientController {
 
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final PatientService patientService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<Patient> createPatient(@Valid @RequestBody PatientDTO patientDto) {
@@ -41,14 +59,23 @@ public class PatientController {
         return new ResponseEntity<>(createdPatient, HttpStatus.CREATED);
     }
 
+    // The ETag is the patient's version; Spring answers a matching If-None-Match with 304 and no body, so
+    // revalidation costs a cache lookup
     @GetMapping("/{id}")
-    public ResponseEntity<Patient> getPatientById(@PathVariable UUID id) {
+    public ResponseEntity<PatientDetailDTO> getPatientById(@PathVariable UUID id) {
         log.debug("Fetching patient with ID: " + id);
         return patientService.getPatientById(id)
-                .map(ResponseEntity::ok)
+                .map(patient -> ResponseEntity.ok().eTag(eTag(patient.getVersion())).body(patient))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Many patients in one round trip (at most 1000 ids), in request order; unknown ids are listed in missingIds
+    @PostMapping("/batch-get")
+    public ResponseEntity<PatientBatchDTO> getPatientsByIds(@RequestBody List<UUID> ids) {
+        log.debug("Fetching " + ids.size() + " patients by id");
+        return ResponseEntity.ok(patientService.getPatientsByIds(ids));
+    }
+
     @PostMapping("/{patientId}/caregivers")
     public ResponseEntity<Caregiver> addCaregiver(
             @PathVariable UUID patientId,
@@ -68,15 +95,71 @@ public class PatientController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Patient>> searchPatients(@RequestParam String term) {
+    public ResponseEntity<CursorPageDTO<PatientSummaryDTO>> searchPatients(
+            @RequestParam String term,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         log.info("searching patients with term: " + term);
-        return ResponseEntity.ok(patientService.searchPatients(term));
+        return ResponseEntity.ok(patientService.searchPatients(term, cursor, size));
+    }
+
+    // match=all (default) returns patients with every listed condition, match=any with at least one
+    @GetMapping("/cohort")
+    public ResponseEntity<CursorPageDTO<PatientSummaryDTO>> findCohort(
+            @RequestParam("condition") List<String> conditions,
+            @RequestParam(defaultValue = "all") String match,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("finding patients with " + match + " of conditions: " + conditions);
+        if (!match.equals("all") && !match.equals("any")) {
+            throw new IllegalArgumentException("match must be all or any.");
+        }
+        return ResponseEntity.ok(patientService.findCohort(conditions, match.equals("all"), cursor, size));
+    }
+
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPatients(@RequestParam String term) {
+        log.info("streaming patients with term: " + term);
+        StreamingResponseBody body = out -> patientService.streamPatients(term, patient -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(patient));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Patient> updatePatient(@PathVariable UUID id, @Valid @RequestBody PatientDTO patientDto) {
+    public ResponseEntity<Patient> updatePatient(
+            @PathVariable UUID id,
+            @Valid @RequestBody PatientDTO patientDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.debug("updating patient with ID: " + id);
-        return ResponseEntity.ok(patientService.updatePatient(id, patientDto));
+        Patient patient = patientService.updatePatient(id, patientDto, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(patient.getVersion())).body(patient);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = { MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<Patient> patchPatient(
+            @PathVariable UUID id,
+            @RequestBody JsonNode mergePatch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("patching patient with ID: " + id);
+        Patient patient = patientService.patchPatient(id, mergePatch, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(patient.getVersion())).body(patient);
+    }
+
+    // Adds and removes single conditions without sending the whole patient; returns the resulting history
+    @PatchMapping("/{id}/medical-history")
+    public ResponseEntity<List<String>> updateMedicalHistory(
+            @PathVariable UUID id,
+            @Valid @RequestBody MedicalHistoryChangeDTO change,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("updating medical history of patient with ID: " + id);
+        Patient patient = patientService.updateMedicalHistory(id, change, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(patient.getVersion())).body(List.copyOf(patient.getMedicalHistory()));
     }
 
     @DeleteMapping("/{id}")
@@ -85,4 +168,24 @@ public class PatientController {
         patientService.deletePatient(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // No If-Match (or "*") means an unconditional update. An ETag we could not have issued can never match.
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new OptimisticLockingFailureException("If-Match " + ifMatch + " is not a current patient version.");
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package com.wlabs.patient_service.controller;
+
+import com.wlabs.patient_service.model.dto.DuplicateScanDTO;
+import com.wlabs.patient_service.model.dto.PossibleDuplicateDTO;
+import com.wlabs.patient_service.service.PatientDuplicateService;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/patients")
+@RequiredArgsConstructor
+public class PatientDuplicateController {
+
+    private final PatientDuplicateService patientDuplicateService;
+
+    @GetMapping("/{id}/possible-duplicates")
+    public ResponseEntity<List<PossibleDuplicateDTO>> getPossibleDuplicates(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "10") int limit) {
+        return patientDuplicateService.findPossibleDuplicates(id, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Poll GET /duplicates/scan until the status is no longer RUNNING
+    @PostMapping("/duplicates/scan")
+    public ResponseEntity<DuplicateScanDTO> startDuplicateScan() {
+        return ResponseEntity.accepted().body(patientDuplicateService.startScan());
+    }
+
+    @GetMapping("/duplicates/scan")
+    public ResponseEntity<DuplicateScanDTO> getDuplicateScan() {
+        return ResponseEntity.ok(patientDuplicateService.getLastScan());
+    }
+}
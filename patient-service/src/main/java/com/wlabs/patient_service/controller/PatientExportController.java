@@ -0,0 +1,49 @@
+package com.wlabs.patient_service.controller;
+
+import com.wlabs.patient_service.service.PatientExportService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/patients/export")
+@RequiredArgsConstructor
+@Slf4j
+public class PatientExportController {
+
+    // Pass this header's value as modifiedSince on the next call to export only what changed in between
+    static final String NEXT_MODIFIED_SINCE_HEADER = "X-Next-Modified-Since";
+
+    static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final PatientExportService patientExportService;
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportPatients(
+            @RequestParam(required = false) Instant modifiedSince,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        log.info("exporting patients modified since: " + modifiedSince);
+        Instant nextModifiedSince = patientExportService.nextModifiedSince();
+        String fileName = gzip ? "patients.csv.gz" : "patients.csv";
+        StreamingResponseBody body = out -> patientExportService.exportCsv(modifiedSince, out, gzip);
+        return ResponseEntity.ok()
+                .contentType(gzip ? APPLICATION_GZIP : TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .header(NEXT_MODIFIED_SINCE_HEADER, nextModifiedSince.toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,47 @@
+package com.wlabs.patient_service.controller;
+
+import com.wlabs.patient_service.model.dto.ImportReportDTO;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.service.PatientImportService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/patients/import")
+@RequiredArgsConstructor
+@Slf4j
+public class PatientImportController {
+
+    private final PatientImportService patientImportService;
+
+    // Rows are validated individually, so invalid rows are reported instead of rejecting the whole request
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportReportDTO> importPatients(@RequestBody List<PatientDTO> patients) {
+        log.debug("Importing " + patients.size() + " patients from JSON");
+        return ResponseEntity.ok(patientImportService.importPatients(patients));
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportReportDTO> importPatientsCsv(@RequestParam("file") MultipartFile file) throws IOException {
+        log.debug("Importing patients from CSV file: " + file.getOriginalFilename());
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(patientImportService.importCsv(reader));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.wlabs.patient_service.controller;
+
+import com.wlabs.patient_service.model.dto.PatientSuggestionDTO;
+import com.wlabs.patient_service.service.PatientSuggestService;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/patients")
+@RequiredArgsConstructor
+public class PatientSuggestController {
+
+    private final PatientSuggestService patientSuggestService;
+
+    // For lookups as the user types; served from memory, so it is cheap enough to call on every keystroke
+    @GetMapping("/suggest")
+    public ResponseEntity<List<PatientSuggestionDTO>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(patientSuggestService.suggest(prefix, limit));
+    }
+}
@@ -3,8 +3,17 @@ package com.wlabs.patient_service.mapper;
 import com.wlabs.patient_service.model.Caregiver;
 import com.wlabs.patient_service.model.dto.CaregiverDTO;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 @Mapper(componentModel = "spring")
 public interface CaregiverMapper {
     Caregiver caregiverDtoToCaregiver(CaregiverDTO caregiverDto);
+
+    CaregiverDTO caregiverToCaregiverDto(Caregiver caregiver);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "patient", ignore = true)
+    @Mapping(target = "patientId", ignore = true)
+    void updateCaregiverFromDto(CaregiverDTO caregiverDto, @MappingTarget Caregiver caregiver);
 }
@@ -0,0 +1,89 @@
+package com.wlabs.patient_service.mapper;
+
+import com.wlabs.patient_service.model.dto.AddressDTO;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+// Maps flat CSV rows to PatientDTOs. Columns are matched by header name, so their order doesn't matter.
+// Medical history is a single ';'-separated column; caregivers can't be expressed in a flat row.
+@Component
+public class PatientCsvMapper {
+
+    public static final String[] HEADERS = {
+            "firstName", "lastName", "email", "phoneNumber", "heightCm", "weightKg", "dateOfBirth",
+            "ethnicity", "typeOfDiabetes", "dateOfDiagnosis", "biologicalSex", "assignedPhysician", "notes",
+            "medicalHistory", "mailingAddress", "zipcode", "county", "state", "country"
+    };
+
+    public static final String HISTORY_SEPARATOR = ";";
+
+    public static final CSVFormat IMPORT_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .setTrim(true)
+            .get();
+
+    // Throws IllegalArgumentException naming the offending column when a value can't be parsed
+    public PatientDTO csvRecordToPatientDto(CSVRecord csvRecord) {
+        PatientDTO dto = new PatientDTO();
+        dto.setFirstName(text(csvRecord, "firstName"));
+        dto.setLastName(text(csvRecord, "lastName"));
+        dto.setEmail(text(csvRecord, "email"));
+        dto.setPhoneNumber(text(csvRecord, "phoneNumber"));
+        dto.setHeightCm(parse(csvRecord, "heightCm", Double::valueOf));
+        dto.setWeightKg(parse(csvRecord, "weightKg", Double::valueOf));
+        dto.setDateOfBirth(parse(csvRecord, "dateOfBirth", LocalDate::parse));
+        dto.setEthnicity(text(csvRecord, "ethnicity"));
+        dto.setTypeOfDiabetes(text(csvRecord, "typeOfDiabetes"));
+        dto.setDateOfDiagnosis(parse(csvRecord, "dateOfDiagnosis", LocalDate::parse));
+        dto.setBiologicalSex(text(csvRecord, "biologicalSex"));
+        dto.setAssignedPhysician(text(csvRecord, "assignedPhysician"));
+        dto.setNotes(text(csvRecord, "notes"));
+
+        String history = text(csvRecord, "medicalHistory");
+        dto.setMedicalHistory(history == null ? new ArrayList<>() : new ArrayList<>(Arrays.stream(history.split(HISTORY_SEPARATOR))
+                .map(String::trim)
+                .filter(condition -> !condition.isEmpty())
+                .toList()));
+
+        AddressDTO address = new AddressDTO();
+        address.setMailingAddress(text(csvRecord, "mailingAddress"));
+        address.setZipcode(text(csvRecord, "zipcode"));
+        address.setCounty(text(csvRecord, "county"));
+        address.setState(text(csvRecord, "state"));
+        address.setCountry(text(csvRecord, "country"));
+        dto.setAddress(address);
+        dto.setCaregivers(List.of());
+        return dto;
+    }
+
+    private static String text(CSVRecord csvRecord, String column) {
+        if (!csvRecord.isMapped(column)) {
+            throw new IllegalArgumentException("Missing column: " + column);
+        }
+        String value = csvRecord.isSet(column) ? csvRecord.get(column) : null;
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(CSVRecord csvRecord, String column, Function<String, T> parser) {
+        String value = text(csvRecord, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid value for " + column + ": " + value);
+        }
+    }
+}
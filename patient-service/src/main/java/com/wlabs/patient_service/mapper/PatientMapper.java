@@ -2,6 +2,7 @@ package com.wlabs.patient_service.mapper;
 
 import com.wlabs.patient_service.model.Patient;
 import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.model.dto.PatientDetailDTO;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -10,6 +11,12 @@ import org.mapstruct.MappingTarget;
 public interface PatientMapper {
     Patient patientDtoToPatient(PatientDTO patientDto);
 
+    // Caregivers are reconciled and medical history replaced by the service, only when they changed
     @Mapping(target = "caregivers", ignore = true)
+    @Mapping(target = "medicalHistory", ignore = true)
     void updatePatientFromDto(PatientDTO patientDto, @MappingTarget Patient patient);
+
+    PatientDetailDTO patientToPatientDetailDto(Patient patient);
+
+    PatientDTO patientToPatientDto(Patient patient);
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.wlabs.patient_service.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+// Applies a JSON Merge Patch (RFC 7396) to a PatientDTO: members absent from the patch are kept, null clears a field,
+// nested objects (address) are merged member by member, and arrays (medicalHistory, caregivers) are replaced whole.
+@Component
+public class PatientMergePatchMapper {
+
+    private final ObjectMapper objectMapper;
+
+    public PatientMergePatchMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper.copy();
+        this.objectMapper.setDefaultMergeable(true);
+        this.objectMapper.configOverride(List.class).setMergeable(false);
+    }
+
+    // Throws IllegalArgumentException when the patch is not a JSON object or a value has the wrong type
+    public PatientDTO applyMergePatch(PatientDTO patientDto, JsonNode mergePatch) {
+        if (mergePatch == null || !mergePatch.isObject()) {
+            throw new IllegalArgumentException("A merge patch must be a JSON object.");
+        }
+        try {
+            return objectMapper.readerForUpdating(patientDto).readValue(mergePatch);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            // Reading from an in-memory tree does no I/O
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -3,21 +3,32 @@ package com.wlabs.patient_service.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.PartitionKey;
+import org.hibernate.annotations.UuidGenerator;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "addresses")
 @Data
 public class Address {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)
     private UUID id;
     
     private String mailingAddress;
@@ -28,6 +39,20 @@ public class Address {
 
     @OneToOne
     @JoinColumn(name = "patient_id")
+    @EqualsAndHashCode.Exclude // Back-reference; including it would recurse through Patient
+    @ToString.Exclude
     @JsonIgnore // Prevents infinite recursion in JSON serialization
     private Patient patient;
+
+    // Partition key of addresses, see Caregiver.patientId
+    @PartitionKey
+    @Column(name = "patient_id", insertable = false, updatable = false)
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private UUID patientId;
+
+    @PrePersist
+    void onCreate() {
+        patientId = patient == null ? null : patient.getId();
+    }
 }
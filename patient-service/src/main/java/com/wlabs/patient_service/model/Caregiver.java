@@ -3,20 +3,32 @@ package com.wlabs.patient_service.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.PartitionKey;
+import org.hibernate.annotations.UuidGenerator;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "caregivers")
 @Data
 public class Caregiver {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)
     private UUID id;
 
     private String firstName;
@@ -25,8 +37,30 @@ public class Caregiver {
     private String phoneNumber;
     private String relationshipToPatient;
 
+    // IdentityHash of every field above, unique per patient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private String identityHash;
+
     @ManyToOne
     @JoinColumn(name = "patient_id")
+    @EqualsAndHashCode.Exclude // Back-reference; including it would recurse through Patient
+    @ToString.Exclude
     @JsonIgnore
     private Patient patient;
+
+    // Partition key of caregivers (see 009-partition-patient-tables.xml), a read-only copy of the patient reference:
+    // Hibernate adds it to the WHERE clause of updates and deletes, so they only look at the patient's partition
+    @PartitionKey
+    @Column(name = "patient_id", insertable = false, updatable = false)
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private UUID patientId;
+
+    @PrePersist
+    @PreUpdate
+    void onWrite() {
+        patientId = patient == null ? null : patient.getId();
+        identityHash = IdentityHash.ofCaregiver(firstName, lastName, email, phoneNumber, relationshipToPatient);
+    }
 }
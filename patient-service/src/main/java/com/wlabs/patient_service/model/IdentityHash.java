@@ -0,0 +1,58 @@
+package com.wlabs.patient_service.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Fingerprints of the fields that make two records duplicates, stored in indexed identity_hash columns so a duplicate
+// check is one index probe and the unique indexes close the check-then-insert race. Values are compared after
+// normalization (Unicode NFKC, trimmed, inner whitespace collapsed, lower-cased; phone numbers reduced to digits),
+// so "Jane  Doe" and " jane doe" collide while anything that differs after normalization doesn't.
+public final class IdentityHash {
+
+    // Unit separator: can't appear in normalized input, so ("ab", "c") and ("a", "bc") hash differently
+    private static final char SEPARATOR = '\u001F';
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D");
+
+    private IdentityHash() {
+    }
+
+    public static String ofPatient(String firstName, String lastName, LocalDate dateOfBirth) {
+        return hash(normalize(firstName), normalize(lastName), dateOfBirth == null ? "" : dateOfBirth.toString());
+    }
+
+    public static String ofCaregiver(String firstName, String lastName, String email, String phoneNumber,
+                                     String relationshipToPatient) {
+        return hash(normalize(firstName), normalize(lastName), normalize(email), digits(phoneNumber),
+                normalize(relationshipToPatient));
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(value, Normalizer.Form.NFKC);
+        return WHITESPACE.matcher(normalized.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    public static String digits(String value) {
+        return value == null ? "" : NON_DIGITS.matcher(value).replaceAll("");
+    }
+
+    private static String hash(String... parts) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        return HexFormat.of().formatHex(digest.digest(String.join(String.valueOf(SEPARATOR), parts)
+                .getBytes(StandardCharsets.UTF_8)));
+    }
+}
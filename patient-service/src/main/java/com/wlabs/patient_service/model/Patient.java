@@ -2,7 +2,7 @@ package com.wlabs.patient_service.model;
 
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
@@ -12,19 +12,48 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UuidGenerator;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.ArrayList;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "patients")
+// UPDATE statements list only the changed columns, so a one-field PATCH doesn't rewrite the whole row
+@DynamicUpdate
+// Detail fetch plan: address and caregivers are joined; medicalHistory follows in one batched query
+// (fetching both lists in one join would be a cartesian product)
+@NamedEntityGraph(name = Patient.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("address"),
+        @NamedAttributeNode("caregivers")
+})
 @Data
 public class Patient {
+    public static final String DETAIL_GRAPH = "Patient.detail";
+    // Unique index on identity_hash, named so a violation can be told apart from other constraints
+    public static final String IDENTITY_HASH_INDEX = "uq_patient_identity_hash";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class)
     private UUID id;
 
     private String firstName;
@@ -41,17 +70,56 @@ public class Patient {
     private String biologicalSex;
     private String notes;
 
+    // A set keyed by (patient_id, condition_name), so a change writes only the added and removed rows instead of
+    // deleting and re-inserting the whole history
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(name = "patient_medical_history", joinColumns = @JoinColumn(name = "patient_id"))
-    @Column(name = "condition_name")
-    private List<String> medicalHistory = new ArrayList<>();
+    @Column(name = "condition_name", nullable = false)
+    @OrderBy
+    private Set<String> medicalHistory = new LinkedHashSet<>();
 
     @OneToOne(cascade = CascadeType.ALL, mappedBy = "patient")
     private Address address;
 
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "patient", orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Caregiver> caregivers = new ArrayList<>();
 
     // We can have a Physician entity in a production system
     private String assignedPhysician;
+
+    // Optimistic locking version of the whole aggregate, exposed to clients as the ETag
+    @Version
+    private Long version;
+
+    private Instant updatedAt;
+
+    // IdentityHash of name and date of birth, kept current on every insert and update
+    @JsonIgnore
+    private String identityHash;
+
+    // Set on patients that duplicated an earlier record before identity hashes existed (011-flag-legacy-duplicates.xml).
+    // They keep a null hash until an update makes them unique, at which point the service clears the flag.
+    @JsonIgnore
+    private boolean legacyDuplicate;
+
+    // Caregiver and address changes don't make the patient row dirty, so the service touches the patient whenever
+    // the aggregate changed; this also moves the version
+    public void touch() {
+        updatedAt = Instant.now();
+    }
+
+    @PrePersist
+    void onCreate() {
+        touch();
+        identityHash = IdentityHash.ofPatient(firstName, lastName, dateOfBirth);
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        if (!legacyDuplicate) {
+            identityHash = IdentityHash.ofPatient(firstName, lastName, dateOfBirth);
+        }
+    }
 }
\ No newline at end of file
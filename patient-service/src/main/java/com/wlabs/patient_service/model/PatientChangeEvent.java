@@ -0,0 +1,48 @@
+package com.wlabs.patient_service.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Outbox row written in the same transaction as the patient change it describes. It only identifies the patient;
+// consumers read the current state from GET /api/patients/{id}, so no PHI is copied into the outbox or its sinks.
+@Entity
+@Table(name = "patient_change_events")
+@Data
+public class PatientChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_change_event_seq")
+    @SequenceGenerator(name = "patient_change_event_seq", sequenceName = "patient_change_event_seq", allocationSize = 50)
+    private Long id;
+
+    private UUID patientId;
+
+    @Enumerated(EnumType.STRING)
+    private PatientChangeType changeType;
+
+    private Instant occurredAt;
+
+    // Feed position, assigned by the relay in the order events become visible. Ids can commit out of order,
+    // so a cursor over ids could skip an event committed late.
+    private Long position;
+
+    private Instant publishedAt;
+
+    public static PatientChangeEvent of(UUID patientId, PatientChangeType changeType) {
+        PatientChangeEvent event = new PatientChangeEvent();
+        event.setPatientId(patientId);
+        event.setChangeType(changeType);
+        event.setOccurredAt(Instant.now());
+        return event;
+    }
+}
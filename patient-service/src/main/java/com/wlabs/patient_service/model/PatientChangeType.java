@@ -0,0 +1,8 @@
+package com.wlabs.patient_service.model;
+
+public enum PatientChangeType {
+    CREATED,
+    // Any change to the patient aggregate, including its address and caregivers
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,24 @@
+package com.wlabs.patient_service.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// UUIDv7 (RFC 9562): 48-bit millisecond timestamp followed by random bits. Ids are assigned in memory, so inserts
+// can be JDBC-batched, and new rows land at the right-hand edge of the primary key index instead of random pages.
+public class TimeOrderedUuidGenerator implements UuidValueGenerator {
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return generate();
+    }
+
+    public static UUID generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (System.currentTimeMillis() << 16) | 0x7000L | (random.nextInt() & 0x0FFFL);
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
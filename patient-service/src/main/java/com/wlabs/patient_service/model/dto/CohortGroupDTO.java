@@ -0,0 +1,16 @@
+package com.wlabs.patient_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CohortGroupDTO {
+
+    // Dimension name to value, in group-by order
+    private Map<String, String> values;
+    private long count;
+}
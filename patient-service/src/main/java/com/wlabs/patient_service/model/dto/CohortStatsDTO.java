@@ -0,0 +1,16 @@
+package com.wlabs.patient_service.model.dto;
+
+import lombok.Data;
+import java.util.List;
+import java.util.Map;
+
+// Patient counts grouped by the requested dimensions, largest group first
+@Data
+public class CohortStatsDTO {
+
+    private List<String> groupBy = List.of();
+    private Map<String, String> filters = Map.of();
+    // Patients matching the filters; the group counts add up to it
+    private long total;
+    private List<CohortGroupDTO> groups = List.of();
+}
@@ -0,0 +1,18 @@
+package com.wlabs.patient_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicatePairDTO {
+
+    private UUID firstId;
+    private UUID secondId;
+    private double score;
+    private List<String> matchedOn;
+}
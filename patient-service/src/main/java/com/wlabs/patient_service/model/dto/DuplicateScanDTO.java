@@ -0,0 +1,24 @@
+package com.wlabs.patient_service.model.dto;
+
+import lombok.Data;
+import java.time.Instant;
+import java.util.List;
+
+// Status and result of the last whole-table duplicate scan
+@Data
+public class DuplicateScanDTO {
+
+    public enum Status { NOT_STARTED, RUNNING, COMPLETED, FAILED }
+
+    private Status status = Status.NOT_STARTED;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long patients;
+    private long comparisons;
+    // Blocks above patient.matching.max-block-size (e.g. a shared placeholder phone number) are not compared
+    private long skippedBlocks;
+    private long pairCount;
+
+    // Highest scoring pairs first, at most patient.matching.scan.max-results
+    private List<DuplicatePairDTO> pairs = List.of();
+}
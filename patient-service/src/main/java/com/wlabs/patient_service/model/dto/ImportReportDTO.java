@@ -0,0 +1,19 @@
+package com.wlabs.patient_service.model.dto;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportReportDTO {
+
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private List<ImportRowErrorDTO> errors = new ArrayList<>();
+
+    public void addError(long row, String message) {
+        failedRows++;
+        errors.add(new ImportRowErrorDTO(row, message));
+    }
+}
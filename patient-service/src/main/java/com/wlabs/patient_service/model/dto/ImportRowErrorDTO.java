@@ -0,0 +1,16 @@
+package com.wlabs.patient_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowErrorDTO {
+
+    // 1-based position of the record in the uploaded array or CSV file (header excluded)
+    private long row;
+
+    private String message;
+}
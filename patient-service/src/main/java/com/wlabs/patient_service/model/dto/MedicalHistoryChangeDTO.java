@@ -0,0 +1,15 @@
+package com.wlabs.patient_service.model.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+// Conditions to add to and remove from a patient's medical history; removals are applied first
+@Data
+public class MedicalHistoryChangeDTO {
+
+    private List<@NotBlank(message = "Medical History entries cannot be blank.") String> add = new ArrayList<>();
+
+    private List<@NotBlank(message = "Medical History entries cannot be blank.") String> remove = new ArrayList<>();
+}
@@ -0,0 +1,25 @@
+package com.wlabs.patient_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+import java.util.UUID;
+
+// One audited API call touching one patient (patientId is null for calls that touch many at once, such as exports)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientAccessEventDTO {
+
+    // Assigned by the audit table, in write order; null until written
+    private Long id;
+    private Instant occurredAt;
+    private UUID patientId;
+    // Controller method, e.g. getPatientById or searchPatients
+    private String operation;
+    // Value of the patient.audit.actor-header request header, null when absent
+    private String actor;
+    private String clientAddress;
+    private boolean succeeded;
+}
@@ -0,0 +1,18 @@
+package com.wlabs.patient_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.UUID;
+
+// Result of a batch get: the patients found, in the order their ids were requested (each once), and the ids of the
+// ones that don't exist
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientBatchDTO {
+
+    private List<PatientDetailDTO> patients;
+    private List<UUID> missingIds;
+}
@@ -0,0 +1,20 @@
+package com.wlabs.patient_service.model.dto;
+
+import com.wlabs.patient_service.model.PatientChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientChangeEventDTO {
+
+    // Strictly increasing across the feed; pass the last one seen as ?since= (or Last-Event-ID) to resume
+    private long position;
+    private UUID patientId;
+    private PatientChangeType changeType;
+    private Instant occurredAt;
+}
@@ -62,7 +62,7 @@ public class PatientDTO {
     private String notes;
 
     @NotEmpty(message = "Medical History cannot be blank.")
-    private List<String> medicalHistory;
+    private List<@NotBlank(message = "Medical History entries cannot be blank.") String> medicalHistory;
 
     @NotNull(message = "Address is required.")
     @Valid
@@ -0,0 +1,16 @@
+package com.wlabs.patient_service.model.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import java.util.UUID;
+
+// Read-only detail view of a patient: every PatientDTO field plus the id and version, with caregiver ids
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class PatientDetailDTO extends PatientDTO {
+
+    private UUID id;
+
+    // Served as the ETag and expected back in If-Match for conditional updates
+    private Long version;
+}
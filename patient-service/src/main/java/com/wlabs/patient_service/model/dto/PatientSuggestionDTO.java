@@ -0,0 +1,19 @@
+package com.wlabs.patient_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Typeahead entry: enough to tell patients apart in a drop-down, served from memory without a query
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientSuggestionDTO {
+
+    private UUID id;
+    private String firstName;
+    private String lastName;
+    private LocalDate dateOfBirth;
+}
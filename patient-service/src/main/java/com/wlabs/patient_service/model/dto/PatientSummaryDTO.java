@@ -0,0 +1,22 @@
+package com.wlabs.patient_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Read-only list view of a patient, selected directly by JPQL constructor expressions without loading entities
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientSummaryDTO {
+
+    private UUID id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phoneNumber;
+    private LocalDate dateOfBirth;
+    private String assignedPhysician;
+}
@@ -0,0 +1,28 @@
+package com.wlabs.patient_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+// Another patient that likely is the same person, for a human to review and merge
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PossibleDuplicateDTO {
+
+    private UUID id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phoneNumber;
+    private LocalDate dateOfBirth;
+
+    // Weighted field similarity between 0 and 1
+    private double score;
+
+    // Fields that match exactly or nearly (firstName, lastName, dateOfBirth, email, phoneNumber)
+    private List<String> matchedOn;
+}
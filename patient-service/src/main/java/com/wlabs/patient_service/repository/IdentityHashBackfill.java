@@ -0,0 +1,112 @@
+package com.wlabs.patient_service.repository;
+
+import com.wlabs.patient_service.model.IdentityHash;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+// Liquibase change (006-add-identity-hashes.xml) filling identity_hash for rows written before the column existed.
+// The hashes are computed in Java so they match IdentityHash exactly. Rows that already duplicate an earlier row
+// keep a null hash, so the unique indexes can be built; they are logged, and 011-flag-legacy-duplicates.xml flags
+// them for review.
+@Slf4j
+public class IdentityHashBackfill implements CustomTaskChange {
+
+    private static final int BATCH_SIZE = 1000;
+
+    // Keeps the hash on the first row (by id) of each group and clears it on the rest
+    private static final String CLEAR_PATIENT_DUPLICATES = "UPDATE patients SET identity_hash = NULL WHERE id IN (" +
+            "SELECT id FROM (SELECT id, row_number() OVER (PARTITION BY identity_hash ORDER BY id) AS rn " +
+            "FROM patients WHERE identity_hash IS NOT NULL) d WHERE d.rn > 1)";
+    private static final String CLEAR_CAREGIVER_DUPLICATES = "UPDATE caregivers SET identity_hash = NULL WHERE id IN (" +
+            "SELECT id FROM (SELECT id, row_number() OVER (PARTITION BY patient_id, identity_hash ORDER BY id) AS rn " +
+            "FROM caregivers WHERE identity_hash IS NOT NULL) d WHERE d.rn > 1)";
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try {
+            long patients = backfill(connection,
+                    "SELECT id, first_name, last_name, date_of_birth FROM patients",
+                    "UPDATE patients SET identity_hash = ? WHERE id = ?",
+                    row -> {
+                        Date dateOfBirth = row.getDate("date_of_birth");
+                        LocalDate date = dateOfBirth == null ? null : dateOfBirth.toLocalDate();
+                        return IdentityHash.ofPatient(row.getString("first_name"), row.getString("last_name"), date);
+                    });
+            long caregivers = backfill(connection,
+                    "SELECT id, first_name, last_name, email, phone_number, relationship_to_patient FROM caregivers",
+                    "UPDATE caregivers SET identity_hash = ? WHERE id = ?",
+                    row -> IdentityHash.ofCaregiver(row.getString("first_name"), row.getString("last_name"),
+                            row.getString("email"), row.getString("phone_number"),
+                            row.getString("relationship_to_patient")));
+            try (Statement statement = connection.createStatement()) {
+                int duplicatePatients = statement.executeUpdate(CLEAR_PATIENT_DUPLICATES);
+                int duplicateCaregivers = statement.executeUpdate(CLEAR_CAREGIVER_DUPLICATES);
+                if (duplicatePatients > 0 || duplicateCaregivers > 0) {
+                    log.warn("{} patients and {} caregivers duplicate an earlier record and were left without an "
+                            + "identity hash (identity_hash IS NULL)", duplicatePatients, duplicateCaregivers);
+                }
+            }
+            log.info("Backfilled identity hashes of {} patients and {} caregivers", patients, caregivers);
+        } catch (SQLException e) {
+            throw new CustomChangeException("Identity hash backfill failed", e);
+        }
+    }
+
+    private static long backfill(Connection connection, String select, String update, RowHasher hasher)
+            throws SQLException {
+        long rows = 0;
+        try (Statement query = connection.createStatement();
+             PreparedStatement statement = connection.prepareStatement(update)) {
+            query.setFetchSize(BATCH_SIZE);
+            try (ResultSet row = query.executeQuery(select)) {
+                while (row.next()) {
+                    statement.setString(1, hasher.hash(row));
+                    statement.setObject(2, row.getObject("id"));
+                    statement.addBatch();
+                    if (++rows % BATCH_SIZE == 0) {
+                        statement.executeBatch();
+                    }
+                }
+            }
+            statement.executeBatch();
+        }
+        return rows;
+    }
+
+    @FunctionalInterface
+    private interface RowHasher {
+        String hash(ResultSet row) throws SQLException;
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Identity hashes backfilled";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,25 @@
+package com.wlabs.patient_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+// Portable fallback (H2, tests): unranked substring match, every hit scores 0 so pages are ordered by id only
+@Repository
+@ConditionalOnProperty(name = "patient.search.engine", havingValue = "like")
+@RequiredArgsConstructor
+public class LikePatientSearchRepository implements PatientSearchRepository {
+
+    private final PatientRepository patientRepository;
+
+    @Override
+    public List<PatientSearchHit> search(String term, Float afterScore, UUID afterId, int limit) {
+        return patientRepository.searchIdsByTerm(term, afterId, Limit.of(limit)).stream()
+                .map(id -> new PatientSearchHit(id, 0f))
+                .toList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.wlabs.patient_service.repository;
+
+import com.wlabs.patient_service.model.dto.PatientAccessEventDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+// The append-only patient_access_audit table (see 010-create-patient-access-audit.xml), written in JDBC batches
+@Repository
+public class PatientAccessAuditRepository {
+
+    private static final String INSERT = "INSERT INTO patient_access_audit " +
+            "(occurred_at, patient_id, operation, actor, client_address, succeeded) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Newest first, as a range scan of idx_patient_access_audit_patient (patient_id, id)
+    private static final String FIND_BY_PATIENT = "SELECT id, occurred_at, patient_id, operation, actor, " +
+            "client_address, succeeded FROM patient_access_audit WHERE patient_id = ? AND id < ? " +
+            "ORDER BY id DESC LIMIT ?";
+
+    private static final RowMapper<PatientAccessEventDTO> EVENT_MAPPER = (rs, rowNum) -> new PatientAccessEventDTO(
+            rs.getLong("id"),
+            rs.getTimestamp("occurred_at").toInstant(),
+            rs.getObject("patient_id", UUID.class),
+            rs.getString("operation"),
+            rs.getString("actor"),
+            rs.getString("client_address"),
+            rs.getBoolean("succeeded"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PatientAccessAuditRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void insertAll(List<PatientAccessEventDTO> events) {
+        jdbcTemplate.batchUpdate(INSERT, events, events.size(), (ps, event) -> {
+            ps.setTimestamp(1, Timestamp.from(event.getOccurredAt()));
+            ps.setObject(2, event.getPatientId());
+            ps.setString(3, event.getOperation());
+            ps.setString(4, event.getActor());
+            ps.setString(5, event.getClientAddress());
+            ps.setBoolean(6, event.isSucceeded());
+        });
+    }
+
+    // Events older than beforeId (all when null)
+    public List<PatientAccessEventDTO> findByPatientId(UUID patientId, Long beforeId, int limit) {
+        return jdbcTemplate.query(FIND_BY_PATIENT, EVENT_MAPPER, patientId,
+                beforeId == null ? Long.MAX_VALUE : beforeId, limit);
+    }
+
+    // PostgreSQL: the current transaction commits without waiting for its WAL record to reach disk
+    public void skipCommitFlush() {
+        jdbcTemplate.execute("SET LOCAL synchronous_commit = off");
+    }
+}
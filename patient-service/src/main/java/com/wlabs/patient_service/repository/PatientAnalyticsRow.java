@@ -0,0 +1,10 @@
+package com.wlabs.patient_service.repository;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// The fields cohort analytics groups by, selected without loading entities
+public record PatientAnalyticsRow(UUID id, String typeOfDiabetes, String ethnicity, String biologicalSex,
+                                  LocalDate dateOfBirth, Double heightCm, Double weightKg, String assignedPhysician,
+                                  String state) {
+}
@@ -0,0 +1,40 @@
+package com.wlabs.patient_service.repository;
+
+import com.wlabs.patient_service.model.PatientChangeEvent;
+import com.wlabs.patient_service.model.dto.PatientChangeEventDTO;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface PatientChangeEventRepository extends JpaRepository<PatientChangeEvent, Long> {
+
+    // Row locks keep a second relay instance from publishing the same events; it waits and then skips them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM PatientChangeEvent e WHERE e.position IS NULL ORDER BY e.id")
+    List<PatientChangeEvent> findUnpublishedForUpdate(Limit limit);
+
+    @Query("SELECT COALESCE(MAX(e.position), 0) FROM PatientChangeEvent e")
+    long findMaxPosition();
+
+    @Query("SELECT new com.wlabs.patient_service.model.dto.PatientChangeEventDTO(" +
+            "e.position, e.patientId, e.changeType, e.occurredAt) " +
+            "FROM PatientChangeEvent e WHERE e.position > :position ORDER BY e.position")
+    List<PatientChangeEventDTO> findPublishedAfter(@Param("position") long position, Limit limit);
+
+    // The latest event is always kept, otherwise the next relay would restart positions from zero
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PatientChangeEvent e WHERE e.publishedAt < :publishedBefore " +
+            "AND e.position < (SELECT MAX(latest.position) FROM PatientChangeEvent latest)")
+    int deletePublishedBefore(@Param("publishedBefore") Instant publishedBefore);
+}
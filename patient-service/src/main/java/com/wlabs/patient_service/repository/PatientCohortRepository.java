@@ -0,0 +1,65 @@
+package com.wlabs.patient_service.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+// Patients by medical history condition, in id order for keyset pagination. Every query is a range scan of
+// idx_patient_medical_history_condition (condition_name, patient_id) plus primary key probes (see
+// 008-key-patient-medical-history.xml). A match=any page reads at most a page of ids per condition, whatever the
+// table size; a match=all page reads the first condition's range until enough patients have the others as well.
+@Repository
+@RequiredArgsConstructor
+public class PatientCohortRepository {
+
+    // Any of the conditions: the first page of each condition's index range, merged on patient id. An IN list would
+    // have the database sort every matching row before the limit.
+    private static final String ANY_CONDITION_RANGE = "(SELECT h.patient_id FROM patient_medical_history h " +
+            "WHERE h.condition_name = :condition%d%s ORDER BY h.patient_id LIMIT :limit)";
+    private static final String ANY_CONDITION = "SELECT DISTINCT m.patient_id FROM (%s) m " +
+            "ORDER BY m.patient_id LIMIT :limit";
+
+    // All of the conditions: walks the first condition's range and probes the primary key for the others
+    private static final String ALL_CONDITIONS = "SELECT h.patient_id FROM patient_medical_history h " +
+            "WHERE h.condition_name = :first AND (SELECT COUNT(*) FROM patient_medical_history o " +
+            "WHERE o.patient_id = h.patient_id AND o.condition_name IN (:others)) = :otherCount";
+
+    private static final String KEYSET = " AND h.patient_id > :afterId";
+    private static final String ORDER = " ORDER BY h.patient_id LIMIT :limit";
+
+    private final EntityManager entityManager;
+
+    public List<UUID> findIds(List<String> conditions, boolean matchAll, UUID afterId, int limit) {
+        boolean resume = afterId != null;
+        Query query;
+        if (matchAll && conditions.size() > 1) {
+            List<String> others = conditions.subList(1, conditions.size());
+            query = entityManager.createNativeQuery(ALL_CONDITIONS + (resume ? KEYSET : "") + ORDER, UUID.class)
+                    .setParameter("first", conditions.get(0))
+                    .setParameter("others", others)
+                    .setParameter("otherCount", others.size());
+        } else {
+            StringJoiner ranges = new StringJoiner(" UNION ALL ");
+            for (int i = 0; i < conditions.size(); i++) {
+                ranges.add(ANY_CONDITION_RANGE.formatted(i, resume ? KEYSET : ""));
+            }
+            query = entityManager.createNativeQuery(ANY_CONDITION.formatted(ranges), UUID.class);
+            for (int i = 0; i < conditions.size(); i++) {
+                query.setParameter("condition" + i, conditions.get(i));
+            }
+        }
+        query.setParameter("limit", limit);
+        if (resume) {
+            query.setParameter("afterId", afterId);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<UUID> ids = query.getResultList();
+        return ids;
+    }
+}
@@ -0,0 +1,9 @@
+package com.wlabs.patient_service.repository;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// The fields duplicate matching compares, selected without loading entities
+public record PatientMatchRow(UUID id, String firstName, String lastName, String email, String phoneNumber,
+                              LocalDate dateOfBirth) {
+}
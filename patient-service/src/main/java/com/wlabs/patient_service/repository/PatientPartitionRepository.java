@@ -0,0 +1,47 @@
+package com.wlabs.patient_service.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// The hash partitions of the patient tables (see 009-partition-patient-tables.xml). Partition i of every table is
+// named <table>_p<i> and holds the same patients, so a suffix names one slice of the whole data set.
+@Repository
+public class PatientPartitionRepository {
+
+    public static final List<String> TABLES = List.of("patients", "addresses", "caregivers", "patient_medical_history");
+
+    // Leaf partitions in remainder order (patients_p2 before patients_p10)
+    private static final String PARTITIONS = "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = CAST(? AS regclass) ORDER BY length(c.relname), c.relname";
+
+    private final JdbcTemplate jdbcTemplate;
+    // Looked up on first use, so startup doesn't open a connection for it
+    private volatile Boolean postgres;
+
+    public PatientPartitionRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // The partitions of the table, empty when it isn't partitioned (or the database isn't PostgreSQL)
+    public List<String> findPartitions(String table) {
+        if (postgres == null) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        }
+        if (!postgres) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(PARTITIONS, String.class, table);
+    }
+
+    // The partition suffixes ("_p0", "_p1", ...) shared by all the patient tables
+    public List<String> findSuffixes() {
+        return findPartitions(TABLES.get(0)).stream()
+                .map(partition -> partition.substring(TABLES.get(0).length()))
+                .toList();
+    }
+}
@@ -1,24 +1,87 @@
 package com.wlabs.patient_service.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 import com.wlabs.patient_service.model.Patient;
+import com.wlabs.patient_service.model.dto.PatientSummaryDTO;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, UUID> {
 
-    @Query("SELECT p FROM Patient p WHERE lower(p.firstName) LIKE lower(concat('%', :term, '%')) OR " +
+    String SEARCH_TERM_PREDICATE = "(lower(p.firstName) LIKE lower(concat('%', :term, '%')) OR " +
             "lower(p.lastName) LIKE lower(concat('%', :term, '%')) OR " +
             "lower(p.email) LIKE lower(concat('%', :term, '%')) OR " +
-            "p.phoneNumber LIKE concat('%', :term, '%')")
-    List<Patient> searchByTerm(@Param("term") String term);
+            "p.phoneNumber LIKE concat('%', :term, '%'))";
+
+    String SUMMARY_PROJECTION = "SELECT new com.wlabs.patient_service.model.dto.PatientSummaryDTO(" +
+            "p.id, p.firstName, p.lastName, p.email, p.phoneNumber, p.dateOfBirth, p.assignedPhysician) ";
+
+    // Keyset pagination: rows are ordered by id and each page resumes after the last id of the previous one
+    @Query("SELECT p.id FROM Patient p WHERE " + SEARCH_TERM_PREDICATE +
+            " AND (:afterId IS NULL OR p.id > :afterId) ORDER BY p.id")
+    List<UUID> searchIdsByTerm(@Param("term") String term, @Param("afterId") UUID afterId, Limit limit);
+
+    @Query(SUMMARY_PROJECTION + "FROM Patient p WHERE p.id IN :ids")
+    List<PatientSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Streams matches off a server-side JDBC cursor; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY_PROJECTION + "FROM Patient p WHERE " + SEARCH_TERM_PREDICATE + " ORDER BY p.id")
+    Stream<PatientSummaryDTO> streamSummariesByTerm(@Param("term") String term);
+
+    String MATCH_PROJECTION = "SELECT new com.wlabs.patient_service.repository.PatientMatchRow(" +
+            "p.id, p.firstName, p.lastName, p.email, p.phoneNumber, p.dateOfBirth) ";
+
+    // Loads the duplicate-matching index; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(MATCH_PROJECTION + "FROM Patient p")
+    Stream<PatientMatchRow> streamMatchRows();
+
+    @Query(MATCH_PROJECTION + "FROM Patient p WHERE p.id IN :ids")
+    List<PatientMatchRow> findMatchRowsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    String ANALYTICS_PROJECTION = "SELECT new com.wlabs.patient_service.repository.PatientAnalyticsRow(" +
+            "p.id, p.typeOfDiabetes, p.ethnicity, p.biologicalSex, p.dateOfBirth, p.heightCm, p.weightKg, " +
+            "p.assignedPhysician, a.state) ";
+
+    // Loads the cohort analytics index; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(ANALYTICS_PROJECTION + "FROM Patient p LEFT JOIN p.address a")
+    Stream<PatientAnalyticsRow> streamAnalyticsRows();
+
+    @Query(ANALYTICS_PROJECTION + "FROM Patient p LEFT JOIN p.address a WHERE p.id IN :ids")
+    List<PatientAnalyticsRow> findAnalyticsRowsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @EntityGraph(Patient.DETAIL_GRAPH)
+    @Query("SELECT p FROM Patient p WHERE p.id = :id")
+    Optional<Patient> findDetailById(@Param("id") UUID id);
+
+    // Same fetch plan as findDetailById for many patients at once; unordered
+    @EntityGraph(Patient.DETAIL_GRAPH)
+    @Query("SELECT p FROM Patient p WHERE p.id IN :ids")
+    List<Patient> findDetailsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Set-based duplicate check for bulk imports, one probe of the identity hash index per chunk
+    @Query("SELECT p.identityHash FROM Patient p WHERE p.identityHash IN :identityHashes")
+    List<String> findExistingIdentityHashes(@Param("identityHashes") Collection<String> identityHashes);
+
+    @Query("SELECT p.email FROM Patient p WHERE p.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 
-    // Check if a patient with the same first name, last name, and date of birth exists, excluding the patient with the given ID
-    boolean existsByFirstNameAndLastNameAndDateOfBirthAndIdNot(String firstName, String lastName, LocalDate dateOfBirth, UUID id);
-}
\ No newline at end of file
+    // Check if another patient has the same normalized name and date of birth (see IdentityHash), excluding the given ID
+    boolean existsByIdentityHashAndIdNot(String identityHash, UUID id);
+}
@@ -0,0 +1,7 @@
+package com.wlabs.patient_service.repository;
+
+import java.util.UUID;
+
+// A single search match: the patient id and its relevance score (higher is better)
+public record PatientSearchHit(UUID id, float score) {
+}
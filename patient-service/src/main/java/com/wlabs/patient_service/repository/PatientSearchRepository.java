@@ -0,0 +1,10 @@
+package com.wlabs.patient_service.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface PatientSearchRepository {
+
+    // Returns hits ordered by score descending, then id; afterScore/afterId resume after the last hit of a previous page
+    List<PatientSearchHit> search(String term, Float afterScore, UUID afterId, int limit);
+}
@@ -0,0 +1,73 @@
+package com.wlabs.patient_service.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+// PostgreSQL search backed by the pg_trgm GIN index on patients.search_text (see 003-add-patient-search-indexes.xml)
+@Repository
+@ConditionalOnProperty(name = "patient.search.engine", havingValue = "trigram", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TrigramPatientSearchRepository implements PatientSearchRepository {
+
+    // Trigram indexes can't help with fewer than three characters, so shorter terms only do prefix matching
+    static final int MIN_TRIGRAM_TERM_LENGTH = 3;
+
+    private static final String PREFIX_MATCH = "(lower(p.first_name) LIKE :prefix OR lower(p.last_name) LIKE :prefix " +
+            "OR lower(p.email) LIKE :prefix OR p.phone_number LIKE :prefix)";
+
+    // Prefix hits on any field rank above substring-only hits, then by word similarity to the whole term
+    private static final String RANKED_SEARCH = "SELECT s.id, s.score FROM (" +
+            "SELECT p.id, CAST(CASE WHEN " + PREFIX_MATCH + " THEN 1 ELSE 0 END AS real) " +
+            "+ word_similarity(:term, p.search_text) AS score " +
+            "FROM patients p WHERE p.search_text LIKE :pattern) s ";
+    private static final String RANKED_KEYSET =
+            "WHERE s.score < CAST(:afterScore AS real) OR (s.score = CAST(:afterScore AS real) AND s.id > :afterId) ";
+    private static final String RANKED_ORDER = "ORDER BY s.score DESC, s.id LIMIT :limit";
+
+    private static final String PREFIX_SEARCH = "SELECT p.id, CAST(0 AS real) AS score FROM patients p WHERE " + PREFIX_MATCH;
+    private static final String PREFIX_KEYSET = " AND p.id > :afterId";
+    private static final String PREFIX_ORDER = " ORDER BY p.id LIMIT :limit";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<PatientSearchHit> search(String term, Float afterScore, UUID afterId, int limit) {
+        String normalized = term.trim().toLowerCase(Locale.ROOT);
+        String escaped = escapeLike(normalized);
+        boolean ranked = normalized.length() >= MIN_TRIGRAM_TERM_LENGTH;
+        boolean resume = afterId != null;
+
+        Query query;
+        if (ranked) {
+            query = entityManager.createNativeQuery(RANKED_SEARCH + (resume ? RANKED_KEYSET : "") + RANKED_ORDER)
+                    .setParameter("term", normalized)
+                    .setParameter("pattern", "%" + escaped + "%");
+            if (resume) {
+                query.setParameter("afterScore", afterScore == null ? 0f : afterScore);
+            }
+        } else {
+            query = entityManager.createNativeQuery(PREFIX_SEARCH + (resume ? PREFIX_KEYSET : "") + PREFIX_ORDER);
+        }
+        query.setParameter("prefix", escaped + "%").setParameter("limit", limit);
+        if (resume) {
+            query.setParameter("afterId", afterId);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> new PatientSearchHit((UUID) row[0], ((Number) row[1]).floatValue()))
+                .toList();
+    }
+
+    static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,88 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.repository.PatientAnalyticsRow;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Arrays;
+import java.util.function.BiFunction;
+
+// What cohort analytics can group and filter by. Age and BMI are bucketed, so every dimension has few values.
+public enum AnalyticsDimension {
+
+    TYPE_OF_DIABETES("typeOfDiabetes", (row, today) -> row.typeOfDiabetes()),
+    ETHNICITY("ethnicity", (row, today) -> row.ethnicity()),
+    BIOLOGICAL_SEX("biologicalSex", (row, today) -> row.biologicalSex()),
+    AGE_BAND("ageBand", (row, today) -> ageBand(row.dateOfBirth(), today)),
+    BMI("bmi", (row, today) -> bmiCategory(row.heightCm(), row.weightKg())),
+    ASSIGNED_PHYSICIAN("assignedPhysician", (row, today) -> row.assignedPhysician()),
+    STATE("state", (row, today) -> row.state());
+
+    static final String UNKNOWN = "Unknown";
+
+    private final String parameter;
+    private final BiFunction<PatientAnalyticsRow, LocalDate, String> value;
+
+    AnalyticsDimension(String parameter, BiFunction<PatientAnalyticsRow, LocalDate, String> value) {
+        this.parameter = parameter;
+        this.value = value;
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+
+    // Missing values are counted as Unknown rather than dropped, so group counts always add up to the total
+    String valueOf(PatientAnalyticsRow row, LocalDate today) {
+        String result = value.apply(row, today);
+        return result == null || result.isBlank() ? UNKNOWN : result;
+    }
+
+    public static AnalyticsDimension fromParameter(String parameter) {
+        return Arrays.stream(values())
+                .filter(dimension -> dimension.parameter.equalsIgnoreCase(parameter.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown analytics dimension: " + parameter
+                        + ". Expected one of " + Arrays.stream(values()).map(AnalyticsDimension::parameter).toList()));
+    }
+
+    static String ageBand(LocalDate dateOfBirth, LocalDate today) {
+        if (dateOfBirth == null) {
+            return null;
+        }
+        int age = Period.between(dateOfBirth, today).getYears();
+        if (age < 18) {
+            return "0-17";
+        }
+        if (age < 30) {
+            return "18-29";
+        }
+        if (age >= 80) {
+            return "80+";
+        }
+        int decade = age / 10 * 10;
+        return decade + "-" + (decade + 9);
+    }
+
+    // WHO adult categories
+    static String bmiCategory(Double heightCm, Double weightKg) {
+        if (heightCm == null || weightKg == null || heightCm <= 0 || weightKg <= 0) {
+            return null;
+        }
+        double heightM = heightCm / 100;
+        double bmi = weightKg / (heightM * heightM);
+        if (bmi < 18.5) {
+            return "Underweight";
+        }
+        if (bmi < 25) {
+            return "Normal";
+        }
+        if (bmi < 30) {
+            return "Overweight";
+        }
+        if (bmi < 35) {
+            return "Obese I";
+        }
+        return bmi < 40 ? "Obese II" : "Obese III";
+    }
+}
@@ -0,0 +1,10 @@
+package com.wlabs.patient_service.service;
+
+// A create or update that would duplicate an existing patient, or a caregiver of the same patient. Answered with
+// 409 rather than 400: the request is valid, it conflicts with what is stored.
+public class DuplicateRecordException extends IllegalArgumentException {
+
+    public DuplicateRecordException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,110 @@
+package com.wlabs.patient_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wlabs.patient_service.model.dto.PatientAccessEventDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+// Appends each event as one JSON line to patient-access-<UTC date>.ndjson in the directory, for a log shipper to
+// collect. A new file starts every day and whenever the current one exceeds max-size (-1, -2, ... suffixes); files
+// are never rewritten. Durability sync forces each batch to disk before the next one, async leaves it to the OS.
+@Component
+@ConditionalOnProperty(name = "patient.audit.sink", havingValue = "file")
+@Slf4j
+public class FilePatientAuditSink implements PatientAuditSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long maxSize;
+    private final boolean async;
+
+    private FileChannel channel;
+    private LocalDate channelDate;
+
+    public FilePatientAuditSink(ObjectMapper objectMapper,
+                                @Value("${patient.audit.sink.file.directory:audit}") Path directory,
+                                @Value("${patient.audit.sink.file.max-size:100MB}") DataSize maxSize,
+                                @Value("${patient.audit.durability:sync}") String durability) {
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.maxSize = maxSize.toBytes();
+        this.async = PatientAuditSink.isAsync(durability);
+    }
+
+    @Override
+    public synchronized void write(List<PatientAccessEventDTO> events) {
+        StringBuilder lines = new StringBuilder();
+        try {
+            for (PatientAccessEventDTO event : events) {
+                lines.append(objectMapper.writeValueAsString(event)).append('\n');
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            FileChannel current = channel(bytes.remaining());
+            while (bytes.hasRemaining()) {
+                current.write(bytes);
+            }
+            if (!async) {
+                current.force(false);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize patient access events", e);
+        } catch (IOException e) {
+            closeChannel();
+            throw new UncheckedIOException("Could not append patient access events in " + directory, e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        closeChannel();
+    }
+
+    // The file to append the next length bytes to, rolling over to a new one when needed
+    private FileChannel channel(int length) throws IOException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (channel != null && (!today.equals(channelDate) || channel.size() + length > maxSize)) {
+            closeChannel();
+        }
+        if (channel == null) {
+            Files.createDirectories(directory);
+            Path file = directory.resolve("patient-access-" + today + ".ndjson");
+            for (int part = 1; Files.exists(file) && Files.size(file) + length > maxSize; part++) {
+                file = directory.resolve("patient-access-" + today + "-" + part + ".ndjson");
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            channelDate = today;
+            log.info("Writing patient access events to {}", file);
+        }
+        return channel;
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close the patient access file", e);
+        }
+        channel = null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.wlabs.patient_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wlabs.patient_service.model.dto.PatientChangeEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends each event as one JSON line, for tailing by a log shipper or a downstream loader
+@Component
+@ConditionalOnProperty(name = "patient.changes.sink", havingValue = "file")
+public class FilePatientChangeSink implements PatientChangeSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FilePatientChangeSink(ObjectMapper objectMapper,
+                                 @Value("${patient.changes.sink.file.path:patient-changes.ndjson}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void publish(List<PatientChangeEventDTO> events) {
+        StringBuilder lines = new StringBuilder();
+        try {
+            for (PatientChangeEventDTO event : events) {
+                lines.append(objectMapper.writeValueAsString(event)).append('\n');
+            }
+            // One write per batch; a failed write rolls the batch back and it is appended again on the next run
+            Files.writeString(path, lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize patient change events", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append patient change events to " + path, e);
+        }
+    }
+}
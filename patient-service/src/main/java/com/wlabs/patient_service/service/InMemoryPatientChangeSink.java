@@ -0,0 +1,37 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.model.dto.PatientChangeEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+// Keeps the most recent events in memory; the changes feed is served from the outbox table either way
+@Component
+@ConditionalOnProperty(name = "patient.changes.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryPatientChangeSink implements PatientChangeSink {
+
+    private final int capacity;
+    private final Deque<PatientChangeEventDTO> events = new ArrayDeque<>();
+
+    public InMemoryPatientChangeSink(@Value("${patient.changes.sink.memory.capacity:1000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<PatientChangeEventDTO> batch) {
+        for (PatientChangeEventDTO event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    public synchronized List<PatientChangeEventDTO> recent() {
+        return List.copyOf(events);
+    }
+}
@@ -0,0 +1,40 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.model.dto.PatientAccessEventDTO;
+import com.wlabs.patient_service.repository.PatientAccessAuditRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Inserts each batch into patient_access_audit in one transaction and JDBC batch (a multi-row INSERT on PostgreSQL).
+// Durability sync waits for the commit to be flushed; async (PostgreSQL only) doesn't, so a database crash can lose
+// the last few hundred milliseconds of audit events, but the writer keeps up with a much higher rate.
+@Component
+@ConditionalOnProperty(name = "patient.audit.sink", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcPatientAuditSink implements PatientAuditSink {
+
+    private final PatientAccessAuditRepository patientAccessAuditRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean async;
+
+    public JdbcPatientAuditSink(PatientAccessAuditRepository patientAccessAuditRepository,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${patient.audit.durability:sync}") String durability) {
+        this.patientAccessAuditRepository = patientAccessAuditRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.async = PatientAuditSink.isAsync(durability);
+    }
+
+    @Override
+    public void write(List<PatientAccessEventDTO> events) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (async) {
+                patientAccessAuditRepository.skipCommitFlush();
+            }
+            patientAccessAuditRepository.insertAll(events);
+        });
+    }
+}
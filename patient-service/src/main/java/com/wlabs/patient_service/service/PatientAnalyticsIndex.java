@@ -0,0 +1,238 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.config.ReplicaRoutingDataSource;
+import com.wlabs.patient_service.model.dto.PatientChangeEventDTO;
+import com.wlabs.patient_service.repository.PatientAnalyticsRow;
+import com.wlabs.patient_service.repository.PatientChangeEventRepository;
+import com.wlabs.patient_service.repository.PatientRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Patient counts per combination of every AnalyticsDimension value (a cell), so any group-by is a roll-up over the
+// cells instead of a table scan. Built in the background at startup from one streamed query, then kept current from
+// the change feed like PatientMatchIndex: each changed patient moves from its old cell to its new one. Age bands
+// depend on the date, so the first scheduled refresh of each day rebuilds the index. Database reads happen outside
+// the index lock, on the primary; readers only ever wait for the in-memory apply.
+@Component
+@Slf4j
+public class PatientAnalyticsIndex {
+
+    private final PatientRepository patientRepository;
+    private final PatientChangeEventRepository patientChangeEventRepository;
+    private final TaskExecutor taskExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int pageSize;
+    private final boolean warmOnStartup;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // One refresh at a time; the maps are only touched under the write lock
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private Map<List<String>, Cell> cells = new HashMap<>();
+    private Map<UUID, Cell> patients = new HashMap<>();
+    // Feed position the index reflects; -1 until it is built
+    private volatile long position = -1;
+    // Only used by refreshes, under the refresh lock
+    private LocalDate builtOn;
+    private final AtomicReference<CompletableFuture<Void>> pendingBuild = new AtomicReference<>();
+
+    public PatientAnalyticsIndex(PatientRepository patientRepository,
+                                 PatientChangeEventRepository patientChangeEventRepository,
+                                 @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${patient.changes.page-size:500}") int pageSize,
+                                 @Value("${patient.analytics.warm-on-startup:true}") boolean warmOnStartup) {
+        this.patientRepository = patientRepository;
+        this.patientChangeEventRepository = patientChangeEventRepository;
+        this.taskExecutor = taskExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pageSize = pageSize;
+        this.warmOnStartup = warmOnStartup;
+    }
+
+    // One value per AnalyticsDimension, in declaration order
+    public static final class Cell {
+
+        private final List<String> values;
+        private int count;
+
+        private Cell(List<String> values) {
+            this.values = values;
+        }
+
+        public String value(AnalyticsDimension dimension) {
+            return values.get(dimension.ordinal());
+        }
+
+        public int count() {
+            return count;
+        }
+    }
+
+    // Read-only access for one consistent pass over the cells; refreshes wait until the reader is done
+    public record View(Collection<Cell> cells, int patients) {
+    }
+
+    // Waits for the index to be built if that hasn't happened yet (warm-up disabled, failed or still running). The
+    // build itself runs on the task executor, once however many readers wait for it.
+    public <T> T read(Function<View, T> reader) {
+        if (position < 0) {
+            buildInBackground().join();
+        }
+        lock.readLock().lock();
+        try {
+            return reader.apply(new View(Collections.unmodifiableCollection(cells.values()), patients.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void warmUp() {
+        if (warmOnStartup) {
+            buildInBackground();
+        }
+    }
+
+    // Only once built, so instances with warm-up disabled that never serve analytics don't hold the index
+    @Scheduled(fixedDelayString = "${patient.analytics.refresh-interval:5s}",
+            initialDelayString = "${patient.analytics.refresh-interval:5s}")
+    void refreshIfBuilt() {
+        if (position >= 0) {
+            refresh();
+        }
+    }
+
+    // Builds the index or catches it up with the feed, reading positions and rows from the primary
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            ReplicaRoutingDataSource.onPrimary(() -> {
+                // Rebuilt when the feed is behind the index, i.e. the events table was emptied and positions restarted
+                if (position < 0 || !LocalDate.now().equals(builtOn)
+                        || patientChangeEventRepository.findMaxPosition() < position) {
+                    build();
+                } else {
+                    catchUp();
+                }
+            });
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // The build already queued or running, or a new one
+    private CompletableFuture<Void> buildInBackground() {
+        CompletableFuture<Void> build = new CompletableFuture<>();
+        CompletableFuture<Void> pending = pendingBuild.compareAndExchange(null, build);
+        if (pending != null) {
+            return pending;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    refresh();
+                    build.complete(null);
+                } catch (RuntimeException e) {
+                    log.warn("Building the patient analytics index failed; the next read retries", e);
+                    build.completeExceptionally(e);
+                } finally {
+                    pendingBuild.set(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            pendingBuild.set(null);
+            throw e;
+        }
+        return build;
+    }
+
+    private void build() {
+        // Taken first: changes committed while streaming get later positions and are replayed by the next catch-up
+        long startPosition = patientChangeEventRepository.findMaxPosition();
+        LocalDate today = LocalDate.now();
+        Map<List<String>, Cell> builtCells = new HashMap<>();
+        Map<UUID, Cell> builtPatients = new HashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<PatientAnalyticsRow> rows = patientRepository.streamAnalyticsRows()) {
+                rows.forEach(row -> add(builtCells, builtPatients, row, today));
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            cells = builtCells;
+            patients = builtPatients;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        position = startPosition;
+        builtOn = today;
+        log.info("Built patient analytics index with {} patients in {} cells", builtPatients.size(), builtCells.size());
+    }
+
+    private void catchUp() {
+        List<PatientChangeEventDTO> events;
+        do {
+            events = patientChangeEventRepository.findPublishedAfter(position, Limit.of(pageSize));
+            if (events.isEmpty()) {
+                return;
+            }
+            Set<UUID> changed = new HashSet<>();
+            events.forEach(event -> changed.add(event.getPatientId()));
+            List<PatientAnalyticsRow> rows = patientRepository.findAnalyticsRowsByIdIn(changed);
+            lock.writeLock().lock();
+            try {
+                // Deleted patients simply don't come back
+                changed.forEach(this::remove);
+                rows.forEach(row -> add(cells, patients, row, builtOn));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            position = events.get(events.size() - 1).getPosition();
+        } while (events.size() == pageSize);
+    }
+
+    private static void add(Map<List<String>, Cell> cells, Map<UUID, Cell> patients, PatientAnalyticsRow row,
+                            LocalDate today) {
+        String[] values = new String[AnalyticsDimension.values().length];
+        for (AnalyticsDimension dimension : AnalyticsDimension.values()) {
+            values[dimension.ordinal()] = dimension.valueOf(row, today);
+        }
+        Cell cell = cells.computeIfAbsent(List.of(values), Cell::new);
+        cell.count++;
+        patients.put(row.id(), cell);
+    }
+
+    private void remove(UUID id) {
+        Cell cell = patients.remove(id);
+        if (cell != null && --cell.count == 0) {
+            cells.remove(cell.values);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.model.dto.CohortGroupDTO;
+import com.wlabs.patient_service.model.dto.CohortStatsDTO;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Counts and distributions of patients over AnalyticsDimension values, answered from PatientAnalyticsIndex. The
+// work is proportional to the number of distinct cells, not patients.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PatientAnalyticsService {
+
+    private final PatientAnalyticsIndex patientAnalyticsIndex;
+
+    // No group-by gives the total alone; filters are exact, case-insensitive matches on dimension values
+    @Timed(value = PatientService.OPERATION_TIMER, extraTags = {"operation", "analytics"}, histogram = true)
+    public CohortStatsDTO countBy(List<String> groupBy, Map<String, String> filters) {
+        List<AnalyticsDimension> dimensions = groupBy == null ? List.of() : groupBy.stream()
+                .filter(parameter -> !parameter.isBlank())
+                .map(AnalyticsDimension::fromParameter)
+                .distinct()
+                .toList();
+        Map<AnalyticsDimension, String> where = new EnumMap<>(AnalyticsDimension.class);
+        if (filters != null) {
+            filters.forEach((parameter, value) -> where.put(AnalyticsDimension.fromParameter(parameter), value.trim()));
+        }
+        log.info("Counting patients by {} where {}", dimensions, where);
+
+        // The index follows the change feed on its own schedule; a request never refreshes it
+        return patientAnalyticsIndex.read(view -> {
+            Map<List<String>, Long> counts = new HashMap<>();
+            long total = 0;
+            for (PatientAnalyticsIndex.Cell cell : view.cells()) {
+                if (!matches(cell, where)) {
+                    continue;
+                }
+                List<String> key = dimensions.stream().map(cell::value).toList();
+                counts.merge(key, (long) cell.count(), Long::sum);
+                total += cell.count();
+            }
+
+            CohortStatsDTO stats = new CohortStatsDTO();
+            stats.setGroupBy(dimensions.stream().map(AnalyticsDimension::parameter).toList());
+            Map<String, String> appliedFilters = new LinkedHashMap<>();
+            where.forEach((dimension, value) -> appliedFilters.put(dimension.parameter(), value));
+            stats.setFilters(appliedFilters);
+            stats.setTotal(total);
+            stats.setGroups(counts.entrySet().stream()
+                    .sorted(Map.Entry.<List<String>, Long>comparingByValue().reversed()
+                            .thenComparing(entry -> String.join("\u0000", entry.getKey())))
+                    .map(entry -> new CohortGroupDTO(groupValues(dimensions, entry.getKey()), entry.getValue()))
+                    .toList());
+            return stats;
+        });
+    }
+
+    private static boolean matches(PatientAnalyticsIndex.Cell cell, Map<AnalyticsDimension, String> where) {
+        for (Map.Entry<AnalyticsDimension, String> filter : where.entrySet()) {
+            if (!cell.value(filter.getKey()).equalsIgnoreCase(filter.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<String, String> groupValues(List<AnalyticsDimension> dimensions, List<String> key) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < dimensions.size(); i++) {
+            values.put(dimensions.get(i).parameter(), key.get(i));
+        }
+        return values;
+    }
+}
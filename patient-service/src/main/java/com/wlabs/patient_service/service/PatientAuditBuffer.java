@@ -0,0 +1,82 @@
+package com.wlabs.patient_service.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+// Bounded lock-free ring of pending audit events: any number of request threads offer, one writer thread drains.
+// Each slot carries a sequence number that says whose turn it is (D. Vyukov's bounded queue), so producers claim a
+// slot with one compare-and-set and never wait on each other or on the writer. A full ring rejects the event instead
+// of blocking the request.
+public final class PatientAuditBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    // Slot i is free for the producer of position p when it holds p, and readable by the consumer when it holds p + 1
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Only the consumer moves the head
+    private long head;
+
+    // The capacity is rounded up to a power of two
+    public PatientAuditBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        mask = size - 1;
+        slots = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    // Approximate while producers are active
+    public int size() {
+        return (int) Math.max(0, Math.min(tail.get() - head, capacity()));
+    }
+
+    // False when the ring is full
+    public boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.weakCompareAndSetVolatile(position, position + 1)) {
+                    slots.setPlain(index, element);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot still holds the element from one lap ago
+                return false;
+            } else {
+                // Another producer claimed this position
+                position = tail.get();
+            }
+        }
+    }
+
+    // Hands up to max elements to the consumer in offer order and returns how many; single consumer only
+    public int drain(Consumer<? super E> consumer, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (head & mask);
+            if (sequences.getAcquire(index) != head + 1) {
+                break;
+            }
+            E element = slots.getPlain(index);
+            slots.setPlain(index, null);
+            sequences.setRelease(index, head + mask + 1);
+            head++;
+            drained++;
+            consumer.accept(element);
+        }
+        return drained;
+    }
+}
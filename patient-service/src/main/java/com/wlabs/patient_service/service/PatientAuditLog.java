@@ -0,0 +1,173 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_service.model.dto.PatientAccessEventDTO;
+import com.wlabs.patient_service.repository.PatientAccessAuditRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Who read or changed which patient, recorded off the request path: record() only puts the event in a bounded
+// lock-free buffer (a few hundred nanoseconds), and one writer thread hands the buffered events to the sink in
+// batches, at least every flush-interval. When the sink falls behind and the buffer is full, new events are dropped
+// and counted (patient.audit.events{result=dropped}) rather than slowing requests down. Events still in the buffer
+// are lost if the process dies; on shutdown they are written after the web server has stopped taking requests.
+@Service
+@Slf4j
+public class PatientAuditLog implements SmartLifecycle {
+
+    static final int MAX_HISTORY_PAGE_SIZE = 500;
+
+    private final PatientAuditSink patientAuditSink;
+    private final PatientAccessAuditRepository patientAccessAuditRepository;
+    private final PatientAuditBuffer<PatientAccessEventDTO> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final Counter recorded;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter writeFailures;
+    private final Timer writeTimer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public PatientAuditLog(PatientAuditSink patientAuditSink,
+                           PatientAccessAuditRepository patientAccessAuditRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${patient.audit.buffer-size:65536}") int bufferSize,
+                           @Value("${patient.audit.batch-size:1000}") int batchSize,
+                           @Value("${patient.audit.flush-interval:200ms}") Duration flushInterval) {
+        this.patientAuditSink = patientAuditSink;
+        this.patientAccessAuditRepository = patientAccessAuditRepository;
+        this.buffer = new PatientAuditBuffer<>(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        recorded = eventCounter(meterRegistry, "recorded");
+        dropped = eventCounter(meterRegistry, "dropped");
+        written = eventCounter(meterRegistry, "written");
+        writeFailures = Counter.builder("patient.audit.write.failures")
+                .description("Batches of audit events the sink failed to write (retried)")
+                .register(meterRegistry);
+        writeTimer = Timer.builder("patient.audit.write")
+                .description("Time to write one batch of audit events to the sink")
+                .register(meterRegistry);
+        Gauge.builder("patient.audit.buffer.size", buffer, PatientAuditBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    // Never blocks; returns false when the event was dropped because the buffer is full
+    public boolean record(PatientAccessEventDTO event) {
+        if (running && buffer.offer(event)) {
+            recorded.increment();
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    // Newest first; pass the returned nextCursor to get older events
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PatientAccessEventDTO> findHistory(UUID patientId, String cursor, Integer size) {
+        int limit = size == null ? 100 : Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE);
+        Long beforeId;
+        try {
+            beforeId = cursor == null || cursor.isBlank() ? null : Long.valueOf(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid audit cursor: " + cursor);
+        }
+        List<PatientAccessEventDTO> events = patientAccessAuditRepository.findByPatientId(patientId, beforeId, limit);
+        String next = events.size() < limit ? null : String.valueOf(events.get(events.size() - 1).getId());
+        return new CursorPageDTO<>(events, next);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "patient-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Lets the writer empty the buffer before it exits
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (buffer.size() > 0) {
+            log.warn("{} audit events were not written before shutdown", buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stopped after the web server (a higher phase stops first), so the last requests' events are still written
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        List<PatientAccessEventDTO> batch = new ArrayList<>(batchSize);
+        while (true) {
+            // Read before draining, so nothing recorded before stop() is left behind
+            boolean stopping = !running;
+            buffer.drain(batch::add, batchSize - batch.size());
+            if (batch.isEmpty()) {
+                if (stopping) {
+                    return;
+                }
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            try {
+                writeTimer.record(() -> patientAuditSink.write(batch));
+                written.increment(batch.size());
+                batch.clear();
+            } catch (RuntimeException e) {
+                writeFailures.increment();
+                if (stopping) {
+                    log.error("Writing {} audit events failed during shutdown, they are lost", batch.size(), e);
+                    return;
+                }
+                log.error("Writing {} audit events failed, retrying", batch.size(), e);
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            // A partial batch means the buffer is empty: wait for more instead of writing tiny batches
+            if (buffer.size() < batchSize && !stopping) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("patient.audit.events")
+                .description("Audit events by outcome: recorded in the buffer, dropped because it was full, written")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.model.dto.PatientAccessEventDTO;
+
+import java.util.List;
+import java.util.Locale;
+
+// Destination of audit events, called by the audit writer thread only, one batch at a time. A sink that throws
+// gets the same batch again on the writer's next attempt; in the meantime new events wait in the buffer.
+public interface PatientAuditSink {
+
+    void write(List<PatientAccessEventDTO> events);
+
+    // patient.audit.durability: sync waits until each batch is on disk, async leaves flushing to the database or OS
+    static boolean isAsync(String durability) {
+        return switch (durability.toLowerCase(Locale.ROOT)) {
+            case "sync" -> false;
+            case "async" -> true;
+            default -> throw new IllegalArgumentException(
+                    "patient.audit.durability must be sync or async but was " + durability);
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.config.ReplicaRoutingDataSource;
+import com.wlabs.patient_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_service.model.dto.PatientChangeEventDTO;
+import com.wlabs.patient_service.repository.PatientChangeEventRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Serves published outbox events to long-poll and SSE clients. Waiting clients hold no thread or connection from the
+// pool; they are woken by the local relay after it publishes, and by a periodic check for other instances' relays.
+@Service
+@Slf4j
+public class PatientChangeFeed {
+
+    static final String EVENT_NAME = "patient-change";
+
+    private final PatientChangeEventRepository patientChangeEventRepository;
+    private final TaskExecutor taskExecutor;
+    private final int pageSize;
+    private final Duration longPollTimeout;
+    private final Duration sseTimeout;
+
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public PatientChangeFeed(PatientChangeEventRepository patientChangeEventRepository,
+                             @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                             @Value("${patient.changes.page-size:500}") int pageSize,
+                             @Value("${patient.changes.long-poll-timeout:30s}") Duration longPollTimeout,
+                             @Value("${patient.changes.sse-timeout:30m}") Duration sseTimeout) {
+        this.patientChangeEventRepository = patientChangeEventRepository;
+        this.taskExecutor = taskExecutor;
+        this.pageSize = pageSize;
+        this.longPollTimeout = longPollTimeout;
+        this.sseTimeout = sseTimeout;
+    }
+
+    // The next cursor is the position of the last event returned, or the given one when there is nothing new. Pinned
+    // to the primary, even inside a read-only transaction, so successive pages never come from a replica further behind.
+    public CursorPageDTO<PatientChangeEventDTO> readSince(long position) {
+        List<PatientChangeEventDTO> events = ReplicaRoutingDataSource.onPrimary(
+                () -> patientChangeEventRepository.findPublishedAfter(position, Limit.of(pageSize)));
+        long next = events.isEmpty() ? position : events.get(events.size() - 1).getPosition();
+        return new CursorPageDTO<>(events, String.valueOf(next));
+    }
+
+    // Answers immediately when events after the position exist, otherwise when the next ones are published or with
+    // an empty page once the timeout expires
+    public DeferredResult<CursorPageDTO<PatientChangeEventDTO>> poll(long since) {
+        DeferredResult<CursorPageDTO<PatientChangeEventDTO>> result = new DeferredResult<>(
+                longPollTimeout.toMillis(), new CursorPageDTO<>(List.of(), String.valueOf(since)));
+        Waiter waiter = new Waiter(since, result);
+        // Registered before reading, so an event published in between wakes it instead of being missed
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiter.check();
+        return result;
+    }
+
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, since);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.catchUp();
+        return emitter;
+    }
+
+    public void notifySubscribers() {
+        waiters.forEach(Waiter::check);
+        // Sends go through the executor so a slow SSE client can't hold up the relay
+        subscribers.forEach(subscriber -> taskExecutor.execute(subscriber::catchUp));
+    }
+
+    @Scheduled(fixedDelayString = "${patient.changes.feed.poll-interval:5s}",
+            initialDelayString = "${patient.changes.feed.poll-interval:5s}")
+    void pollForRemoteChanges() {
+        if (!waiters.isEmpty() || !subscribers.isEmpty()) {
+            notifySubscribers();
+        }
+    }
+
+    private final class Waiter {
+
+        private final long since;
+        private final DeferredResult<CursorPageDTO<PatientChangeEventDTO>> result;
+
+        private Waiter(long since, DeferredResult<CursorPageDTO<PatientChangeEventDTO>> result) {
+            this.since = since;
+            this.result = result;
+        }
+
+        void check() {
+            if (result.isSetOrExpired()) {
+                return;
+            }
+            CursorPageDTO<PatientChangeEventDTO> page = readSince(since);
+            if (!page.getContent().isEmpty()) {
+                result.setResult(page);
+            }
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private long position;
+
+        private Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+
+        // Synchronized so concurrent wake-ups send each event once and in order
+        synchronized void catchUp() {
+            try {
+                List<PatientChangeEventDTO> events;
+                do {
+                    events = readSince(position).getContent();
+                    for (PatientChangeEventDTO event : events) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.getPosition()))
+                                .name(EVENT_NAME)
+                                .data(event));
+                        position = event.getPosition();
+                    }
+                } while (events.size() == pageSize);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping patient change subscriber at position {}: {}", position, e.getMessage());
+                subscribers.remove(this);
+            }
+        }
+    }
+}
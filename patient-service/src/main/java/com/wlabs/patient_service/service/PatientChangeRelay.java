@@ -0,0 +1,99 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.model.PatientChangeEvent;
+import com.wlabs.patient_service.model.dto.PatientChangeEventDTO;
+import com.wlabs.patient_service.repository.PatientChangeEventRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Moves committed outbox rows to the sink. Writers only insert a row in their own transaction; positions are assigned
+// here, in batches and in id order, so the feed only ever shows events whose transactions have committed.
+@Service
+@Slf4j
+public class PatientChangeRelay {
+
+    private final PatientChangeEventRepository patientChangeEventRepository;
+    private final PatientChangeSink patientChangeSink;
+    private final PatientChangeFeed patientChangeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    public PatientChangeRelay(PatientChangeEventRepository patientChangeEventRepository,
+                              PatientChangeSink patientChangeSink,
+                              PatientChangeFeed patientChangeFeed,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${patient.changes.relay.batch-size:500}") int batchSize,
+                              @Value("${patient.changes.retention:7d}") Duration retention) {
+        this.patientChangeEventRepository = patientChangeEventRepository;
+        this.patientChangeSink = patientChangeSink;
+        this.patientChangeFeed = patientChangeFeed;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${patient.changes.relay.interval:1s}",
+            initialDelayString = "${patient.changes.relay.interval:1s}")
+    public int relay() {
+        int published = 0;
+        try {
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> publishBatch());
+                published += batch;
+            } while (batch == batchSize);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance assigned the same positions first; the rows are still unpublished here
+            log.warn("Patient change relay conflicted with another relay, retrying on the next run: {}",
+                    e.getMostSpecificCause().getMessage());
+        } catch (RuntimeException e) {
+            log.error("Publishing patient changes failed, retrying on the next run", e);
+        }
+        if (published > 0) {
+            log.debug("Published {} patient change events", published);
+            patientChangeFeed.notifySubscribers();
+        }
+        return published;
+    }
+
+    @Scheduled(fixedDelayString = "${patient.changes.cleanup-interval:1h}",
+            initialDelayString = "${patient.changes.cleanup-interval:1h}")
+    public int deleteExpiredEvents() {
+        int deleted = patientChangeEventRepository.deletePublishedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Deleted {} patient change events published more than {} ago", deleted, retention);
+        }
+        return deleted;
+    }
+
+    private int publishBatch() {
+        List<PatientChangeEvent> events = patientChangeEventRepository.findUnpublishedForUpdate(Limit.of(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        long position = patientChangeEventRepository.findMaxPosition();
+        Instant publishedAt = Instant.now();
+        for (PatientChangeEvent event : events) {
+            event.setPosition(++position);
+            event.setPublishedAt(publishedAt);
+        }
+        // Surface a position conflict before anything reaches the sink
+        patientChangeEventRepository.flush();
+        patientChangeSink.publish(events.stream()
+                .map(event -> new PatientChangeEventDTO(event.getPosition(), event.getPatientId(),
+                        event.getChangeType(), event.getOccurredAt()))
+                .toList());
+        return events.size();
+    }
+}
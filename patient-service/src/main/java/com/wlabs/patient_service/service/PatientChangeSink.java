@@ -0,0 +1,12 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.model.dto.PatientChangeEventDTO;
+
+import java.util.List;
+
+// Destination the relay publishes outbox events to. It is called inside the relay transaction, so a sink that throws
+// leaves the batch unpublished and it is delivered again on the next run (at-least-once, consumers dedupe by position).
+public interface PatientChangeSink {
+
+    void publish(List<PatientChangeEventDTO> events);
+}
@@ -0,0 +1,224 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.model.dto.DuplicatePairDTO;
+import com.wlabs.patient_service.model.dto.DuplicateScanDTO;
+import com.wlabs.patient_service.model.dto.PossibleDuplicateDTO;
+import com.wlabs.patient_service.repository.PatientMatchRow;
+import com.wlabs.patient_service.repository.PatientRepository;
+import com.wlabs.patient_service.service.PatientMatcher.Match;
+import com.wlabs.patient_service.service.PatientMatcher.Profile;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Finds patients that are likely the same person, for review; nothing is merged automatically. Lookups for one
+// patient score its blocking-index candidates, the scan compares all pairs within each block in parallel. Neither
+// refreshes the index on the request thread: candidates are as current as its last refresh.
+@Service
+@Slf4j
+public class PatientDuplicateService {
+
+    static final int MAX_POSSIBLE_DUPLICATES = 100;
+
+    // Two patients of a block to score
+    private record Candidate(Profile a, Profile b) {
+    }
+
+    private final PatientRepository patientRepository;
+    private final PatientMatchIndex patientMatchIndex;
+    private final PatientMatcher patientMatcher;
+    private final TaskExecutor taskExecutor;
+    private final double threshold;
+    private final int scanParallelism;
+    private final int scanMaxResults;
+
+    private final AtomicBoolean scanning = new AtomicBoolean();
+    private final AtomicReference<DuplicateScanDTO> lastScan = new AtomicReference<>(new DuplicateScanDTO());
+
+    public PatientDuplicateService(PatientRepository patientRepository,
+                                   PatientMatchIndex patientMatchIndex,
+                                   PatientMatcher patientMatcher,
+                                   @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                   @Value("${patient.matching.threshold:0.75}") double threshold,
+                                   @Value("${patient.matching.scan.parallelism:4}") int scanParallelism,
+                                   @Value("${patient.matching.scan.max-results:10000}") int scanMaxResults) {
+        this.patientRepository = patientRepository;
+        this.patientMatchIndex = patientMatchIndex;
+        this.patientMatcher = patientMatcher;
+        this.taskExecutor = taskExecutor;
+        this.threshold = threshold;
+        this.scanParallelism = scanParallelism;
+        this.scanMaxResults = scanMaxResults;
+    }
+
+    // Empty when the patient doesn't exist. The patient itself is read fresh, so a just-saved edit is matched as is.
+    public Optional<List<PossibleDuplicateDTO>> findPossibleDuplicates(UUID id, int limit) {
+        int maxResults = Math.min(Math.max(limit, 1), MAX_POSSIBLE_DUPLICATES);
+        Optional<PatientMatchRow> row = patientRepository.findMatchRowsByIdIn(List.of(id)).stream().findFirst();
+        if (row.isEmpty()) {
+            return Optional.empty();
+        }
+        Profile profile = patientMatcher.profile(row.get());
+        return Optional.of(patientMatchIndex.read(view -> view.candidates(profile).stream()
+                .filter(candidate -> !candidate.row().id().equals(id))
+                .map(candidate -> possibleDuplicate(candidate.row(), patientMatcher.match(profile, candidate)))
+                .filter(duplicate -> duplicate.getScore() >= threshold)
+                .sorted(Comparator.comparingDouble(PossibleDuplicateDTO::getScore).reversed())
+                .limit(maxResults)
+                .toList()));
+    }
+
+    // Runs in the background; while one scan runs, further calls return its status instead of starting another
+    public DuplicateScanDTO startScan() {
+        if (!scanning.compareAndSet(false, true)) {
+            return lastScan.get();
+        }
+        DuplicateScanDTO running = new DuplicateScanDTO();
+        running.setStatus(DuplicateScanDTO.Status.RUNNING);
+        running.setStartedAt(Instant.now());
+        lastScan.set(running);
+        try {
+            taskExecutor.execute(() -> runScan(running.getStartedAt()));
+        } catch (RuntimeException e) {
+            scanning.set(false);
+            throw e;
+        }
+        return running;
+    }
+
+    public DuplicateScanDTO getLastScan() {
+        return lastScan.get();
+    }
+
+    @Scheduled(cron = "${patient.matching.scan.cron:-}")
+    void scheduledScan() {
+        startScan();
+    }
+
+    private void runScan(Instant startedAt) {
+        try {
+            patientMatchIndex.refresh();
+            DuplicateScanDTO result = scan();
+            result.setStartedAt(startedAt);
+            result.setFinishedAt(Instant.now());
+            lastScan.set(result);
+            log.info("Duplicate scan compared {} pairs of {} patients and found {} possible duplicates",
+                    result.getComparisons(), result.getPatients(), result.getPairCount());
+        } catch (RuntimeException e) {
+            log.error("Duplicate scan failed", e);
+            DuplicateScanDTO failed = new DuplicateScanDTO();
+            failed.setStatus(DuplicateScanDTO.Status.FAILED);
+            failed.setStartedAt(startedAt);
+            failed.setFinishedAt(Instant.now());
+            lastScan.set(failed);
+        } finally {
+            scanning.set(false);
+        }
+    }
+
+    // Reads the index one block at a time and scores outside its lock, so refreshes and lookups never wait for the
+    // whole scan. Patients changed meanwhile are compared as they were when their block was read.
+    private DuplicateScanDTO scan() {
+        LongAdder comparisons = new LongAdder();
+        LongAdder skippedBlocks = new LongAdder();
+        List<String> keys = patientMatchIndex.blockKeys();
+        // A pool of its own, so a long scan doesn't starve the common pool other parallel streams use
+        ForkJoinPool pool = new ForkJoinPool(scanParallelism);
+        List<DuplicatePairDTO> pairs;
+        try {
+            pairs = pool.submit(() -> keys.parallelStream()
+                    .flatMap(key -> scanBlock(key, comparisons, skippedBlocks).stream())
+                    .toList()).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        DuplicateScanDTO result = new DuplicateScanDTO();
+        result.setStatus(DuplicateScanDTO.Status.COMPLETED);
+        result.setPatients(patientMatchIndex.read(view -> view.profiles().size()));
+        result.setComparisons(comparisons.sum());
+        result.setSkippedBlocks(skippedBlocks.sum());
+        result.setPairCount(pairs.size());
+        result.setPairs(pairs.stream()
+                .sorted(Comparator.comparingDouble(DuplicatePairDTO::getScore).reversed())
+                .limit(scanMaxResults)
+                .toList());
+        return result;
+    }
+
+    private List<DuplicatePairDTO> scanBlock(String key, LongAdder comparisons, LongAdder skippedBlocks) {
+        List<Candidate> candidates = patientMatchIndex.read(view -> blockPairs(view, key, skippedBlocks));
+        List<DuplicatePairDTO> pairs = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            comparisons.increment();
+            Match match = patientMatcher.match(candidate.a(), candidate.b());
+            if (match.score() >= threshold) {
+                pairs.add(pair(candidate.a().row().id(), candidate.b().row().id(), match));
+            }
+        }
+        return pairs;
+    }
+
+    // The pairs of the block to compare; at most max-block-size squared over two, so the read lock is held briefly
+    private static List<Candidate> blockPairs(PatientMatchIndex.View view, String key, LongAdder skippedBlocks) {
+        Set<UUID> block = view.blocks().get(key);
+        // Gone since the scan started, or too small to pair
+        if (block == null || block.size() < 2) {
+            return List.of();
+        }
+        if (!view.isComparable(block)) {
+            skippedBlocks.increment();
+            return List.of();
+        }
+        List<Profile> members = block.stream().map(view.profiles()::get).toList();
+        List<Candidate> pairs = new ArrayList<>();
+        for (int i = 0; i < members.size(); i++) {
+            for (int j = i + 1; j < members.size(); j++) {
+                Profile a = members.get(i);
+                Profile b = members.get(j);
+                // Patients sharing several blocks are compared in the first of them only
+                if (key.equals(firstSharedBlock(view, a, b))) {
+                    pairs.add(new Candidate(a, b));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    // Keys are listed in the same order on every profile, so both sides agree on which block is first
+    private static String firstSharedBlock(PatientMatchIndex.View view, Profile a, Profile b) {
+        for (String key : a.blockingKeys()) {
+            if (b.blockingKeys().contains(key) && view.isComparable(view.blocks().get(key))) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private static DuplicatePairDTO pair(UUID a, UUID b, Match match) {
+        return a.compareTo(b) < 0
+                ? new DuplicatePairDTO(a, b, match.score(), match.matchedOn())
+                : new DuplicatePairDTO(b, a, match.score(), match.matchedOn());
+    }
+
+    private static PossibleDuplicateDTO possibleDuplicate(PatientMatchRow row, Match match) {
+        return new PossibleDuplicateDTO(row.id(), row.firstName(), row.lastName(), row.email(), row.phoneNumber(),
+                row.dateOfBirth(), match.score(), match.matchedOn());
+    }
+}
@@ -0,0 +1,57 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.repository.PatientPartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+// Command-line export: starts without the web server, writes the file and exits, e.g.
+//   java -jar patient-service.jar --spring.main.web-application-type=none --patient.export.file=patients.csv.gz \
+//        [--patient.export.modified-since=2025-01-01T00:00:00Z] [--patient.export.parallelism=4]
+// A .gz file name compresses the output. The file is written to a temporary name and moved into place when complete.
+// With a parallelism above 1 and partitioned tables, each partition is exported to its own file.
+@Component
+@ConditionalOnProperty("patient.export.file")
+@RequiredArgsConstructor
+@Slf4j
+public class PatientExportRunner implements ApplicationRunner {
+
+    private final PatientExportService patientExportService;
+    private final PatientPartitionRepository partitionRepository;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Value("${patient.export.file}")
+    private String fileName;
+
+    @Value("${patient.export.modified-since:#{null}}")
+    private Instant modifiedSince;
+
+    @Value("${patient.export.parallelism:1}")
+    private int parallelism;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path file = Path.of(fileName);
+        Instant nextModifiedSince = patientExportService.nextModifiedSince();
+        List<String> partitions = parallelism > 1 ? partitionRepository.findSuffixes() : List.of();
+        long exported = partitions.isEmpty()
+                ? PatientExportService.writeFile(file,
+                        out -> patientExportService.exportCsv(modifiedSince, out, fileName.endsWith(".gz")))
+                : patientExportService.exportPartitionsCsv(modifiedSince, file, partitions, parallelism);
+        log.info("Exported {} patients to {}; pass --patient.export.modified-since={} for the next incremental export",
+                exported, file, nextModifiedSince);
+        // Scheduled tasks (change relay) would otherwise keep the JVM running
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+}
@@ -0,0 +1,260 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.mapper.PatientCsvMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Writes every patient with address, medical history and care team as one CSV row, straight from a JDBC cursor:
+// no entities are built and only one fetch of rows is held in memory, however large the table.
+@Service
+@Slf4j
+public class PatientExportService {
+
+    // The import headers come first, so an export can be imported again (id, caregivers and updatedAt are ignored)
+    public static final String[] HEADERS = Stream.of(new String[] {"id"}, PatientCsvMapper.HEADERS,
+            new String[] {"caregivers", "updatedAt"}).flatMap(Arrays::stream).toArray(String[]::new);
+
+    // Medical history and caregivers are ';'-separated; each caregiver is "firstName lastName|email|phone|relationship"
+    static final String EXPORT_QUERY = exportQuery("");
+
+    static final String MODIFIED_SINCE_CONDITION = " WHERE p.updated_at > ?";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final CSVFormat EXPORT_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader(HEADERS)
+            .get();
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    private final Duration overlap;
+
+    public PatientExportService(DataSource dataSource,
+                                @Value("${patient.export.fetch-size:1000}") int fetchSize,
+                                @Value("${patient.export.overlap:1m}") Duration overlap) {
+        this.dataSource = dataSource;
+        // With a fetch size inside a transaction, the PostgreSQL driver reads through a server-side cursor
+        // instead of loading the whole result
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.fetchSize = fetchSize;
+        this.overlap = overlap;
+    }
+
+    // The modifiedSince to pass to the next incremental export, taken before this one starts. It overlaps the
+    // previous run a little, since updatedAt is set before commit and a slow transaction could otherwise be missed.
+    public Instant nextModifiedSince() {
+        return Instant.now().minus(overlap);
+    }
+
+    // All patients when modifiedSince is null, otherwise those changed after it (deletions are on the change feed)
+    @Timed(value = PatientService.OPERATION_TIMER, extraTags = {"operation", "export"}, histogram = true)
+    @Transactional(readOnly = true)
+    public long exportCsv(Instant modifiedSince, OutputStream out, boolean gzip) throws IOException {
+        log.info("Exporting patients modified since {}{}", modifiedSince == null ? "the beginning" : modifiedSince,
+                gzip ? " (gzip)" : "");
+        long count = writeCsv(jdbcTemplate, EXPORT_QUERY, modifiedSince, out, gzip);
+        log.info("Exported {} patients", count);
+        return count;
+    }
+
+    // One file per partition of the patient tables, next to file (patients.csv.gz becomes patients_p0.csv.gz,
+    // patients_p1.csv.gz, ...), parallelism partitions at a time. The partitions are read in one snapshot, so together
+    // the files hold the same rows as a single export.
+    public long exportPartitionsCsv(Instant modifiedSince, Path file, List<String> suffixes, int parallelism)
+            throws IOException {
+        boolean gzip = file.getFileName().toString().endsWith(".gz");
+        log.info("Exporting patients modified since {} from {} partitions, {} at a time",
+                modifiedSince == null ? "the beginning" : modifiedSince, suffixes.size(), parallelism);
+        // The snapshot stays importable while the transaction that exported it is open. Read from the primary:
+        // every worker has to import it on the server that exported it.
+        try (Connection leader = dataSource.getConnection()) {
+            leader.setAutoCommit(false);
+            leader.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            String snapshot = new JdbcTemplate(new SingleConnectionDataSource(leader, true))
+                    .queryForObject("SELECT pg_export_snapshot()", String.class);
+            ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+            try {
+                List<Future<Long>> results = suffixes.stream()
+                        .map(suffix -> executor.submit(() -> writeFile(partitionFile(file, suffix),
+                                out -> exportPartition(snapshot, suffix, modifiedSince, out, gzip))))
+                        .toList();
+                long count = 0;
+                for (Future<Long> result : results) {
+                    count += result.get();
+                }
+                log.info("Exported {} patients", count);
+                return count;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export interrupted");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IllegalStateException("Export of a partition failed", e.getCause());
+            } finally {
+                executor.shutdownNow();
+                leader.rollback();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not export the snapshot of the patient tables", e);
+        }
+    }
+
+    private long exportPartition(String snapshot, String suffix, Instant modifiedSince, OutputStream out,
+                                 boolean gzip) throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            JdbcTemplate partition = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            partition.setFetchSize(fetchSize);
+            try {
+                // Has to be the first statement of the transaction
+                partition.execute("SET TRANSACTION SNAPSHOT '" + snapshot + "'");
+                long count = writeCsv(partition, exportQuery(suffix), modifiedSince, out, gzip);
+                log.info("Exported {} patients from partition {}", count, suffix.substring(1));
+                return count;
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not export partition " + suffix.substring(1), e);
+        }
+    }
+
+    private long writeCsv(JdbcTemplate jdbc, String query, Instant modifiedSince, OutputStream out, boolean gzip)
+            throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? compressed : out, StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+        AtomicLong count = new AtomicLong();
+        CSVPrinter printer = new CSVPrinter(writer, EXPORT_FORMAT);
+        RowCallbackHandler rowPrinter = rs -> printRow(printer, rs, count);
+        try {
+            if (modifiedSince == null) {
+                jdbc.query(query, rowPrinter);
+            } else {
+                jdbc.query(query + MODIFIED_SINCE_CONDITION, rowPrinter, Timestamp.from(modifiedSince));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        // The stream belongs to the caller, so it is finished and flushed but not closed
+        printer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        return count.get();
+    }
+
+    // The tables, or with a partition suffix the co-located partitions of one slice of the patients
+    static String exportQuery(String suffix) {
+        return "SELECT p.id, p.first_name, p.last_name, p.email, p.phone_number, " +
+                "p.height_cm, p.weight_kg, p.date_of_birth, p.ethnicity, p.type_of_diabetes, p.date_of_diagnosis, " +
+                "p.biological_sex, p.assigned_physician, p.notes, " +
+                "(SELECT STRING_AGG(h.condition_name, '" + PatientCsvMapper.HISTORY_SEPARATOR + "' ORDER BY h.condition_name) " +
+                "FROM patient_medical_history" + suffix + " h WHERE h.patient_id = p.id) AS medical_history, " +
+                "a.mailing_address, a.zipcode, a.county, a.state, a.country, " +
+                "(SELECT STRING_AGG(CONCAT(c.first_name, ' ', c.last_name, '|', c.email, '|', c.phone_number, '|', " +
+                "c.relationship_to_patient), '" + PatientCsvMapper.HISTORY_SEPARATOR + "' ORDER BY c.id) " +
+                "FROM caregivers" + suffix + " c WHERE c.patient_id = p.id) AS caregivers, " +
+                "p.updated_at " +
+                "FROM patients" + suffix + " p LEFT JOIN addresses" + suffix + " a ON a.patient_id = p.id";
+    }
+
+    // patients.csv.gz with suffix _p3 is patients_p3.csv.gz
+    static Path partitionFile(Path file, String suffix) {
+        String name = file.getFileName().toString();
+        int extension = name.indexOf('.');
+        return file.resolveSibling(extension < 0 ? name + suffix
+                : name.substring(0, extension) + suffix + name.substring(extension));
+    }
+
+    // Written to a temporary name and moved into place when complete
+    static long writeFile(Path file, CsvWriter writer) throws IOException {
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        long exported;
+        try (OutputStream out = Files.newOutputStream(partial)) {
+            exported = writer.write(out);
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return exported;
+    }
+
+    @FunctionalInterface
+    interface CsvWriter {
+        long write(OutputStream out) throws IOException;
+    }
+
+    private static void printRow(CSVPrinter printer, ResultSet rs, AtomicLong count) throws SQLException {
+        try {
+            printer.printRecord(
+                    rs.getObject("id"),
+                    rs.getString("first_name"),
+                    rs.getString("last_name"),
+                    rs.getString("email"),
+                    rs.getString("phone_number"),
+                    rs.getObject("height_cm", Double.class),
+                    rs.getObject("weight_kg", Double.class),
+                    rs.getObject("date_of_birth", LocalDate.class),
+                    rs.getString("ethnicity"),
+                    rs.getString("type_of_diabetes"),
+                    rs.getObject("date_of_diagnosis", LocalDate.class),
+                    rs.getString("biological_sex"),
+                    rs.getString("assigned_physician"),
+                    rs.getString("notes"),
+                    rs.getString("medical_history"),
+                    rs.getString("mailing_address"),
+                    rs.getString("zipcode"),
+                    rs.getString("county"),
+                    rs.getString("state"),
+                    rs.getString("country"),
+                    rs.getString("caregivers"),
+                    rs.getTimestamp("updated_at").toInstant());
+        } catch (IOException e) {
+            // The client went away; ends the query instead of reading the rest of the table
+            throw new UncheckedIOException(e);
+        }
+        count.incrementAndGet();
+    }
+}
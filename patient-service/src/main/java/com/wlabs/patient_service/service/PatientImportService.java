@@ -0,0 +1,222 @@
+package com.wlabs.patient_service.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.wlabs.patient_service.config.CacheConfig;
+import com.wlabs.patient_service.mapper.PatientCsvMapper;
+import com.wlabs.patient_service.mapper.PatientMapper;
+import com.wlabs.patient_service.model.IdentityHash;
+import com.wlabs.patient_service.model.Patient;
+import com.wlabs.patient_service.model.PatientChangeEvent;
+import com.wlabs.patient_service.model.PatientChangeType;
+import com.wlabs.patient_service.model.dto.ImportReportDTO;
+import com.wlabs.patient_service.model.dto.ImportRowErrorDTO;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.repository.PatientChangeEventRepository;
+import com.wlabs.patient_service.repository.PatientRepository;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PatientImportService {
+
+    // Matches hibernate.jdbc.batch_size so each chunk flushes as one batch per table
+    static final int CHUNK_SIZE = 500;
+
+    private final PatientRepository patientRepository;
+    private final PatientChangeEventRepository patientChangeEventRepository;
+    private final PatientMapper patientMapper;
+    private final PatientCsvMapper patientCsvMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    // A parsed input row; error is set when the row couldn't be turned into a PatientDTO
+    private record ImportRow(long rowNumber, PatientDTO patient, String error) {
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PATIENT_SEARCHES, allEntries = true)
+    public ImportReportDTO importPatients(List<PatientDTO> patients) {
+        log.info("Starting bulk import of {} patients", patients.size());
+        Iterator<PatientDTO> source = patients.iterator();
+        return importRows(new Iterator<>() {
+            private long rowNumber;
+
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public ImportRow next() {
+                return new ImportRow(++rowNumber, source.next(), null);
+            }
+        });
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PATIENT_SEARCHES, allEntries = true)
+    public ImportReportDTO importCsv(Reader reader) throws IOException {
+        log.info("Starting bulk CSV import");
+        try (CSVParser parser = CSVParser.parse(reader, PatientCsvMapper.IMPORT_FORMAT)) {
+            Iterator<CSVRecord> records = parser.iterator();
+            // Records are parsed lazily, so only one chunk of the file is in memory at a time
+            return importRows(new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return records.hasNext();
+                }
+
+                @Override
+                public ImportRow next() {
+                    CSVRecord csvRecord = records.next();
+                    try {
+                        return new ImportRow(csvRecord.getRecordNumber(),
+                                patientCsvMapper.csvRecordToPatientDto(csvRecord), null);
+                    } catch (IllegalArgumentException e) {
+                        return new ImportRow(csvRecord.getRecordNumber(), null, e.getMessage());
+                    }
+                }
+            });
+        }
+    }
+
+    private ImportReportDTO importRows(Iterator<ImportRow> rows) {
+        ImportReportDTO report = new ImportReportDTO();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            report.setTotalRows(report.getTotalRows() + 1);
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+        log.info("Bulk import finished: {} rows, {} imported, {} failed",
+                report.getTotalRows(), report.getImportedRows(), report.getFailedRows());
+        return report;
+    }
+
+    private void importChunk(List<ImportRow> chunk, ImportReportDTO report) {
+        List<ImportRow> validRows = new ArrayList<>();
+        for (ImportRow row : chunk) {
+            if (row.error() != null) {
+                report.addError(row.rowNumber(), row.error());
+                continue;
+            }
+            // A null element of a JSON array
+            if (row.patient() == null) {
+                report.addError(row.rowNumber(), "The row is empty.");
+                continue;
+            }
+            Set<ConstraintViolation<PatientDTO>> violations = validator.validate(row.patient());
+            if (!violations.isEmpty()) {
+                report.addError(row.rowNumber(), violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            validRows.add(row);
+        }
+        if (validRows.isEmpty()) {
+            return;
+        }
+
+        try {
+            insertRows(validRows, report);
+        } catch (DataAccessException e) {
+            // One bad row rolls back the whole chunk; retried a row at a time, so only the rows that fail are reported
+            log.warn("Bulk import chunk of {} rows rolled back, retrying them one at a time: {}",
+                    validRows.size(), e.getMostSpecificCause().getMessage());
+            for (ImportRow row : validRows) {
+                try {
+                    insertRows(List.of(row), report);
+                } catch (DataAccessException rowFailure) {
+                    report.addError(row.rowNumber(), "Not imported: " + rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    // Inserts the rows that duplicate neither a stored patient nor an earlier row in one transaction. The report is
+    // only updated once it commits, so a rolled-back attempt leaves no trace in it.
+    private void insertRows(List<ImportRow> rows, ImportReportDTO report) {
+        List<ImportRowErrorDTO> duplicates = new ArrayList<>();
+        List<ImportRow> insertedRows = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // One lookup per chunk for both duplicate rules, instead of one query per row
+                Set<String> knownIdentities = new HashSet<>(patientRepository.findExistingIdentityHashes(
+                        rows.stream().map(row -> identityHash(row.patient())).collect(Collectors.toSet())));
+                Set<String> knownEmails = new HashSet<>(patientRepository.findExistingEmails(
+                        rows.stream().map(row -> row.patient().getEmail()).collect(Collectors.toSet())));
+
+                List<Patient> patients = new ArrayList<>();
+                for (ImportRow row : rows) {
+                    PatientDTO dto = row.patient();
+                    String identity = identityHash(dto);
+                    if (knownIdentities.contains(identity)) {
+                        duplicates.add(new ImportRowErrorDTO(row.rowNumber(),
+                                "A patient with the same first name, last name, and date of birth already exists."));
+                    } else if (knownEmails.contains(dto.getEmail())) {
+                        duplicates.add(new ImportRowErrorDTO(row.rowNumber(), "A patient with this email already exists."));
+                    } else {
+                        knownIdentities.add(identity);
+                        knownEmails.add(dto.getEmail());
+                        patients.add(toPatient(dto));
+                        insertedRows.add(row);
+                    }
+                }
+                patientRepository.saveAll(patients);
+                patientChangeEventRepository.saveAll(patients.stream()
+                        .map(patient -> PatientChangeEvent.of(patient.getId(), PatientChangeType.CREATED))
+                        .toList());
+                patientRepository.flush();
+            });
+        } finally {
+            // With open-in-view the request's persistence context outlives each chunk transaction, and a rolled-back
+            // attempt would leave its entities in it
+            entityManager.clear();
+        }
+        duplicates.forEach(duplicate -> report.addError(duplicate.getRow(), duplicate.getMessage()));
+        report.setImportedRows(report.getImportedRows() + insertedRows.size());
+    }
+
+    private static String identityHash(PatientDTO dto) {
+        return IdentityHash.ofPatient(dto.getFirstName(), dto.getLastName(), dto.getDateOfBirth());
+    }
+
+    private Patient toPatient(PatientDTO dto) {
+        Patient patient = patientMapper.patientDtoToPatient(dto);
+        if (patient.getAddress() != null) {
+            patient.getAddress().setPatient(patient);
+        }
+        if (patient.getCaregivers() != null) {
+            patient.getCaregivers().forEach(caregiver -> caregiver.setPatient(patient));
+        }
+        return patient;
+    }
+}
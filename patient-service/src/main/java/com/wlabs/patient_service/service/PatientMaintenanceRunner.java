@@ -0,0 +1,47 @@
+package com.wlabs.patient_service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+// Command-line table maintenance: starts without the web server, runs the operation (vacuum, analyze or reindex) on
+// every partition of the patient tables and exits, with status 1 if any of them failed, e.g.
+//   java -jar patient-service.jar --spring.main.web-application-type=none --patient.maintenance=vacuum \
+//        [--patient.maintenance.parallelism=4]
+@Component
+@ConditionalOnProperty("patient.maintenance")
+@RequiredArgsConstructor
+@Slf4j
+public class PatientMaintenanceRunner implements ApplicationRunner {
+
+    private final PatientMaintenanceService patientMaintenanceService;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Value("${patient.maintenance}")
+    private String operation;
+
+    @Value("${patient.maintenance.parallelism:4}")
+    private int parallelism;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        int exitCode = 0;
+        try {
+            int processed = patientMaintenanceService.run(operation, parallelism);
+            log.info("Finished {} of {} tables and partitions", operation, processed);
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            log.error(e.getMessage());
+            exitCode = 1;
+        }
+        int status = exitCode;
+        // Scheduled tasks (change relay) would otherwise keep the JVM running
+        System.exit(SpringApplication.exit(applicationContext, () -> status));
+    }
+}
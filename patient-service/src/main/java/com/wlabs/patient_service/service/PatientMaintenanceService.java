@@ -0,0 +1,83 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.repository.PatientPartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Vacuums, analyzes or reindexes the patient tables one partition at a time, on up to parallelism connections at
+// once. Each partition is a fraction of the table, so a command finishes sooner, holds its locks for less time and
+// the work spreads over several server processes. Unpartitioned tables are processed whole.
+@Service
+@Slf4j
+public class PatientMaintenanceService {
+
+    // Run outside a transaction: the connections are in autocommit mode, which VACUUM and CONCURRENTLY require
+    static final Map<String, String> COMMANDS = Map.of(
+            "vacuum", "VACUUM (ANALYZE) %s",
+            "analyze", "ANALYZE %s",
+            "reindex", "REINDEX TABLE CONCURRENTLY %s");
+
+    private final PatientPartitionRepository partitionRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public PatientMaintenanceService(PatientPartitionRepository partitionRepository, DataSource dataSource) {
+        this.partitionRepository = partitionRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // Returns the number of tables and partitions processed; a failed one is logged and the others still run
+    public int run(String operation, int parallelism) throws InterruptedException {
+        String command = COMMANDS.get(operation.toLowerCase(Locale.ROOT));
+        if (command == null) {
+            throw new IllegalArgumentException("Unknown maintenance operation " + operation + ", expected one of "
+                    + COMMANDS.keySet());
+        }
+        List<String> relations = new ArrayList<>();
+        for (String table : PatientPartitionRepository.TABLES) {
+            List<String> partitions = partitionRepository.findPartitions(table);
+            relations.addAll(partitions.isEmpty() ? List.of(table) : partitions);
+        }
+        log.info("Running {} on {} tables and partitions, {} at a time", operation, relations.size(), parallelism);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(parallelism, 1));
+        int failed = 0;
+        try {
+            List<Future<?>> results = relations.stream()
+                    .<Future<?>>map(relation -> executor.submit(() -> execute(command, relation)))
+                    .toList();
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    results.get(i).get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.error("{} of {} failed", operation, relations.get(i), e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        if (failed > 0) {
+            throw new IllegalStateException(operation + " failed on " + failed + " of " + relations.size()
+                    + " tables and partitions");
+        }
+        return relations.size();
+    }
+
+    private void execute(String command, String relation) {
+        long started = System.nanoTime();
+        jdbcTemplate.execute(String.format(command, "\"" + relation + "\""));
+        log.info("{} took {} ms", String.format(command, relation), (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,247 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.config.ReplicaRoutingDataSource;
+import com.wlabs.patient_service.model.dto.PatientChangeEventDTO;
+import com.wlabs.patient_service.repository.PatientChangeEventRepository;
+import com.wlabs.patient_service.repository.PatientMatchRow;
+import com.wlabs.patient_service.repository.PatientRepository;
+import com.wlabs.patient_service.service.PatientMatcher.Profile;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// In-memory blocking index of all patients' match profiles. Built in the background at startup from one streamed
+// query, then kept current from the change feed like PatientSuggestService's index: every published event after the
+// recorded position reloads (or drops) its patient. Database reads happen outside the index lock; readers only ever
+// wait for the in-memory apply.
+@Component
+@Slf4j
+public class PatientMatchIndex {
+
+    private final PatientRepository patientRepository;
+    private final PatientChangeEventRepository patientChangeEventRepository;
+    private final PatientMatcher patientMatcher;
+    private final TaskExecutor taskExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxBlockSize;
+    private final int pageSize;
+    private final boolean warmOnStartup;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // One refresh at a time; the maps are only touched under the write lock
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private Map<UUID, Profile> profiles = new HashMap<>();
+    private Map<String, Set<UUID>> blocks = new HashMap<>();
+    // Feed position the index reflects; -1 until it is built
+    private volatile long position = -1;
+    private final AtomicReference<CompletableFuture<Void>> pendingBuild = new AtomicReference<>();
+
+    public PatientMatchIndex(PatientRepository patientRepository,
+                             PatientChangeEventRepository patientChangeEventRepository,
+                             PatientMatcher patientMatcher,
+                             @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${patient.matching.max-block-size:500}") int maxBlockSize,
+                             @Value("${patient.changes.page-size:500}") int pageSize,
+                             @Value("${patient.matching.warm-on-startup:true}") boolean warmOnStartup) {
+        this.patientRepository = patientRepository;
+        this.patientChangeEventRepository = patientChangeEventRepository;
+        this.patientMatcher = patientMatcher;
+        this.taskExecutor = taskExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxBlockSize = maxBlockSize;
+        this.pageSize = pageSize;
+        this.warmOnStartup = warmOnStartup;
+    }
+
+    // Read-only access for one short, consistent pass over the index; refreshes wait until the reader is done
+    public record View(Map<String, Set<UUID>> blocks, Map<UUID, Profile> profiles, int maxBlockSize) {
+
+        // Blocks over the limit are keys too common to say anything (a shared placeholder phone or email)
+        public boolean isComparable(Set<UUID> block) {
+            return block.size() <= maxBlockSize;
+        }
+
+        // Patients that share at least one comparable block with the profile
+        public Collection<Profile> candidates(Profile profile) {
+            Map<UUID, Profile> candidates = new LinkedHashMap<>();
+            for (String key : profile.blockingKeys()) {
+                Set<UUID> block = blocks.get(key);
+                if (block != null && isComparable(block)) {
+                    block.forEach(id -> candidates.putIfAbsent(id, profiles.get(id)));
+                }
+            }
+            return candidates.values();
+        }
+    }
+
+    // Waits for the index to be built if that hasn't happened yet (warm-up disabled, failed or still running). The
+    // build itself runs on the task executor, once however many readers wait for it.
+    public <T> T read(Function<View, T> reader) {
+        if (position < 0) {
+            buildInBackground().join();
+        }
+        lock.readLock().lock();
+        try {
+            return reader.apply(new View(Collections.unmodifiableMap(blocks), Collections.unmodifiableMap(profiles),
+                    maxBlockSize));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The current blocking keys, for passes too long to hold the read lock: they read one block at a time instead
+    public List<String> blockKeys() {
+        return read(view -> List.copyOf(view.blocks().keySet()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void warmUp() {
+        if (warmOnStartup) {
+            buildInBackground();
+        }
+    }
+
+    // Only once built, so instances with warm-up disabled that never match patients don't hold the index
+    @Scheduled(fixedDelayString = "${patient.matching.refresh-interval:5s}",
+            initialDelayString = "${patient.matching.refresh-interval:5s}")
+    void refreshIfBuilt() {
+        if (position >= 0) {
+            refresh();
+        }
+    }
+
+    // Builds the index or catches it up with the feed, reading positions and rows from the primary
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            ReplicaRoutingDataSource.onPrimary(() -> {
+                // Rebuilt when the feed is behind the index, i.e. the events table was emptied and positions restarted
+                if (position < 0 || patientChangeEventRepository.findMaxPosition() < position) {
+                    build();
+                } else {
+                    catchUp();
+                }
+            });
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // The build already queued or running, or a new one
+    private CompletableFuture<Void> buildInBackground() {
+        CompletableFuture<Void> build = new CompletableFuture<>();
+        CompletableFuture<Void> pending = pendingBuild.compareAndExchange(null, build);
+        if (pending != null) {
+            return pending;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    refresh();
+                    build.complete(null);
+                } catch (RuntimeException e) {
+                    log.warn("Building the patient match index failed; the next read retries", e);
+                    build.completeExceptionally(e);
+                } finally {
+                    pendingBuild.set(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            pendingBuild.set(null);
+            throw e;
+        }
+        return build;
+    }
+
+    private void build() {
+        // Taken first: changes committed while streaming get later positions and are replayed by the next catch-up
+        long startPosition = patientChangeEventRepository.findMaxPosition();
+        Map<UUID, Profile> builtProfiles = new HashMap<>();
+        Map<String, Set<UUID>> builtBlocks = new HashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<PatientMatchRow> rows = patientRepository.streamMatchRows()) {
+                rows.forEach(row -> add(builtProfiles, builtBlocks, patientMatcher.profile(row)));
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            profiles = builtProfiles;
+            blocks = builtBlocks;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        position = startPosition;
+        log.info("Built patient match index with {} patients in {} blocks", builtProfiles.size(), builtBlocks.size());
+    }
+
+    private void catchUp() {
+        List<PatientChangeEventDTO> events;
+        do {
+            events = patientChangeEventRepository.findPublishedAfter(position, Limit.of(pageSize));
+            if (events.isEmpty()) {
+                return;
+            }
+            Set<UUID> changed = new HashSet<>();
+            events.forEach(event -> changed.add(event.getPatientId()));
+            List<Profile> changedProfiles = patientRepository.findMatchRowsByIdIn(changed).stream()
+                    .map(patientMatcher::profile)
+                    .toList();
+            lock.writeLock().lock();
+            try {
+                // Deleted patients simply don't come back
+                changed.forEach(this::remove);
+                changedProfiles.forEach(profile -> add(profiles, blocks, profile));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            position = events.get(events.size() - 1).getPosition();
+        } while (events.size() == pageSize);
+    }
+
+    private static void add(Map<UUID, Profile> profiles, Map<String, Set<UUID>> blocks, Profile profile) {
+        profiles.put(profile.row().id(), profile);
+        for (String key : profile.blockingKeys()) {
+            blocks.computeIfAbsent(key, k -> new HashSet<>()).add(profile.row().id());
+        }
+    }
+
+    private void remove(UUID id) {
+        Profile profile = profiles.remove(id);
+        if (profile == null) {
+            return;
+        }
+        for (String key : profile.blockingKeys()) {
+            Set<UUID> block = blocks.get(key);
+            if (block != null && block.remove(id) && block.isEmpty()) {
+                blocks.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.model.IdentityHash;
+import com.wlabs.patient_service.repository.PatientMatchRow;
+import org.apache.commons.codec.language.DoubleMetaphone;
+import org.apache.commons.text.similarity.JaroWinklerSimilarity;
+import org.apache.commons.text.similarity.LevenshteinDistance;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Record-linkage scoring for duplicate suspects. Each patient is reduced once to a Profile of normalized fields and
+// phonetic codes. Patients are only compared when they share a blocking key (same date of birth and sounding-alike
+// last or first name, same email, or same phone number), which keeps the number of comparisons near linear.
+@Component
+public class PatientMatcher {
+
+    // Weights of the field similarities; fields missing on either side are left out and the rest rescaled
+    static final double FIRST_NAME_WEIGHT = 0.25;
+    static final double LAST_NAME_WEIGHT = 0.25;
+    static final double DATE_OF_BIRTH_WEIGHT = 0.25;
+    static final double EMAIL_WEIGHT = 0.15;
+    static final double PHONE_WEIGHT = 0.10;
+
+    // A field counts as matched in matchedOn at this similarity or above
+    static final double MATCHED_FIELD_SIMILARITY = 0.85;
+    // Names that sound alike (same Double Metaphone code) score at least this, whatever their spelling
+    static final double PHONETIC_MATCH_SIMILARITY = 0.9;
+    // Shorter numbers are treated as incomplete and not used for blocking
+    static final int MIN_PHONE_DIGITS = 7;
+
+    private static final JaroWinklerSimilarity JARO_WINKLER = new JaroWinklerSimilarity();
+    private static final LevenshteinDistance LEVENSHTEIN = LevenshteinDistance.getDefaultInstance();
+
+    public record Profile(PatientMatchRow row, String firstName, String lastName, String email, String phoneDigits,
+                          String firstNameCode, String lastNameCode, List<String> blockingKeys) {
+    }
+
+    public record Match(double score, List<String> matchedOn) {
+    }
+
+    public Profile profile(PatientMatchRow row) {
+        String firstName = IdentityHash.normalize(row.firstName());
+        String lastName = IdentityHash.normalize(row.lastName());
+        String email = IdentityHash.normalize(row.email());
+        String phoneDigits = IdentityHash.digits(row.phoneNumber());
+        String firstNameCode = phoneticCode(firstName);
+        String lastNameCode = phoneticCode(lastName);
+
+        List<String> keys = new ArrayList<>(4);
+        if (row.dateOfBirth() != null && !lastNameCode.isEmpty()) {
+            keys.add("dob-last:" + row.dateOfBirth() + ':' + lastNameCode);
+        }
+        // Catches changed last names (marriage) when the first name stays
+        if (row.dateOfBirth() != null && !firstNameCode.isEmpty()) {
+            keys.add("dob-first:" + row.dateOfBirth() + ':' + firstNameCode);
+        }
+        if (!email.isEmpty()) {
+            keys.add("email:" + email);
+        }
+        if (phoneDigits.length() >= MIN_PHONE_DIGITS) {
+            keys.add("phone:" + lastDigits(phoneDigits));
+        }
+        return new Profile(row, firstName, lastName, email, phoneDigits, firstNameCode, lastNameCode, List.copyOf(keys));
+    }
+
+    public Match match(Profile a, Profile b) {
+        Scorer scorer = new Scorer();
+        scorer.add("firstName", FIRST_NAME_WEIGHT,
+                nameSimilarity(a.firstName(), b.firstName(), a.firstNameCode(), b.firstNameCode()));
+        scorer.add("lastName", LAST_NAME_WEIGHT,
+                nameSimilarity(a.lastName(), b.lastName(), a.lastNameCode(), b.lastNameCode()));
+        scorer.add("dateOfBirth", DATE_OF_BIRTH_WEIGHT,
+                dateSimilarity(a.row().dateOfBirth(), b.row().dateOfBirth()));
+        scorer.add("email", EMAIL_WEIGHT, editSimilarity(a.email(), b.email()));
+        scorer.add("phoneNumber", PHONE_WEIGHT,
+                editSimilarity(lastDigits(a.phoneDigits()), lastDigits(b.phoneDigits())));
+        return scorer.result();
+    }
+
+    private static String phoneticCode(String name) {
+        return name.isEmpty() ? "" : new DoubleMetaphone().doubleMetaphone(name);
+    }
+
+    // Null when either side is missing, so the field doesn't count
+    private static Double nameSimilarity(String a, String b, String codeA, String codeB) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return null;
+        }
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        double similarity = JARO_WINKLER.apply(a, b);
+        return codeA.equals(codeB) ? Math.max(similarity, PHONETIC_MATCH_SIMILARITY) : similarity;
+    }
+
+    private static Double editSimilarity(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return null;
+        }
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        return 1.0 - (double) LEVENSHTEIN.apply(a, b) / Math.max(a.length(), b.length());
+    }
+
+    // Typing errors in a date usually swap day and month or change one part; other differences don't count
+    private static Double dateSimilarity(LocalDate a, LocalDate b) {
+        if (a == null || b == null) {
+            return null;
+        }
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        boolean swapped = a.getYear() == b.getYear()
+                && a.getMonthValue() == b.getDayOfMonth() && a.getDayOfMonth() == b.getMonthValue();
+        int sameParts = (a.getYear() == b.getYear() ? 1 : 0) + (a.getMonthValue() == b.getMonthValue() ? 1 : 0)
+                + (a.getDayOfMonth() == b.getDayOfMonth() ? 1 : 0);
+        return swapped || sameParts == 2 ? 0.5 : 0.0;
+    }
+
+    // National number without country prefix, so +1 555... and 555... block together
+    private static String lastDigits(String digits) {
+        return digits.length() > 10 ? digits.substring(digits.length() - 10) : digits;
+    }
+
+    private static final class Scorer {
+
+        private double weightedSum;
+        private double totalWeight;
+        private final List<String> matchedOn = new ArrayList<>();
+
+        void add(String field, double weight, Double similarity) {
+            if (similarity == null) {
+                return;
+            }
+            weightedSum += weight * similarity;
+            totalWeight += weight;
+            if (similarity >= MATCHED_FIELD_SIMILARITY) {
+                matchedOn.add(field);
+            }
+        }
+
+        Match result() {
+            return new Match(totalWeight == 0 ? 0 : weightedSum / totalWeight, List.copyOf(matchedOn));
+        }
+    }
+}
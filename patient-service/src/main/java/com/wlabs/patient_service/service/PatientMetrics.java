@@ -0,0 +1,58 @@
+package com.wlabs.patient_service.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+// Measurements taken inside a service operation, which @Timed on the operation as a whole cannot break out
+@Component
+public class PatientMetrics {
+
+    private final Timer patientDuplicateCheck;
+    private final Timer caregiverDuplicateCheck;
+    private final DistributionSummary searchPageResults;
+    private final DistributionSummary searchStreamResults;
+
+    public PatientMetrics(MeterRegistry meterRegistry) {
+        patientDuplicateCheck = duplicateCheckTimer(meterRegistry, "patient");
+        caregiverDuplicateCheck = duplicateCheckTimer(meterRegistry, "caregiver");
+        searchPageResults = searchResultsSummary(meterRegistry, "page");
+        searchStreamResults = searchResultsSummary(meterRegistry, "stream");
+    }
+
+    public boolean checkPatientDuplicate(Supplier<Boolean> check) {
+        return patientDuplicateCheck.record(check);
+    }
+
+    public boolean checkCaregiverDuplicate(Supplier<Boolean> check) {
+        return caregiverDuplicateCheck.record(check);
+    }
+
+    public void recordSearchPage(int results) {
+        searchPageResults.record(results);
+    }
+
+    public void recordSearchStream(long results) {
+        searchStreamResults.record(results);
+    }
+
+    private static Timer duplicateCheckTimer(MeterRegistry meterRegistry, String entity) {
+        return Timer.builder("patient.duplicate.check")
+                .description("Time spent checking for an existing record with the same identity")
+                .tag("entity", entity)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static DistributionSummary searchResultsSummary(MeterRegistry meterRegistry, String mode) {
+        return DistributionSummary.builder("patient.search.results")
+                .description("Number of patients returned by one search request")
+                .baseUnit("patients")
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
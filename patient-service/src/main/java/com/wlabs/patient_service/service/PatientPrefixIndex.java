@@ -0,0 +1,252 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.model.IdentityHash;
+import com.wlabs.patient_service.model.dto.PatientSuggestionDTO;
+import com.wlabs.patient_service.repository.PatientMatchRow;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// Sorted keys for prefix lookups over normalized first name, last name, full name, email and phone digits. Most keys
+// live in one packed base (a UTF-8 byte array with offsets and owning slots, 8 bytes of overhead per key); a
+// small sorted delta takes new keys, and replaced or removed patients are masked until the next compaction merges
+// both into a new base. Lookups binary-search the base, walk both in key order and stop after the limit.
+// Not thread-safe: PatientSuggestService guards it.
+public final class PatientPrefixIndex {
+
+    // Only digits and the punctuation people type in phone numbers: matched against phone digits
+    private static final Pattern PHONE_QUERY = Pattern.compile("[\\d\\s()+.\\-]*\\d[\\d\\s()+.\\-]*");
+    private static final int MIN_COMPACTION_DELTA = 4096;
+    private static final int MIN_LOAD_DELTA = 65_536;
+    private static final Comparator<Key> KEY_ORDER =
+            Comparator.<Key, byte[]>comparing(Key::bytes, Arrays::compareUnsigned).thenComparingInt(Key::slot);
+
+    private record Key(byte[] bytes, int slot) {
+    }
+
+    // One per patient version; a slot is never reused before compaction
+    private final List<PatientSuggestionDTO> slots = new ArrayList<>();
+    private final Map<UUID, Integer> slotById = new HashMap<>();
+    private final BitSet deadSlots = new BitSet();
+    private int deadCount;
+
+    private byte[] baseBytes = new byte[0];
+    private int[] baseOffsets = {0};
+    private int[] baseSlots = new int[0];
+    private final NavigableSet<Key> delta = new TreeSet<>(KEY_ORDER);
+
+    public int size() {
+        return slotById.size();
+    }
+
+    public int keyCount() {
+        return baseSlots.length + delta.size();
+    }
+
+    // Adds the patient, or replaces its earlier entry
+    public void put(PatientMatchRow row) {
+        insert(row);
+        if (delta.size() > Math.max(MIN_COMPACTION_DELTA, baseSlots.length / 8)) {
+            compact();
+        }
+    }
+
+    // Bulk variant of put for building the index: compacts only when the delta outgrows the base, so loading n
+    // patients merges O(log n) times. Call compact() after the last one.
+    public void load(PatientMatchRow row) {
+        insert(row);
+        if (delta.size() > Math.max(MIN_LOAD_DELTA, baseSlots.length)) {
+            compact();
+        }
+    }
+
+    public void remove(UUID id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        deadSlots.set(slot);
+        deadCount++;
+        if (deadCount > Math.max(MIN_COMPACTION_DELTA, slots.size() / 4)) {
+            compact();
+        }
+    }
+
+    // Distinct patients with a key starting with the normalized prefix, in key order
+    public List<PatientSuggestionDTO> suggest(String prefix, int limit) {
+        byte[] query = normalizeQuery(prefix).getBytes(StandardCharsets.UTF_8);
+        if (query.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        Set<Integer> found = new LinkedHashSet<>();
+        int base = lowerBound(query);
+        Iterator<Key> deltaKeys = delta.tailSet(new Key(query, Integer.MIN_VALUE), true).iterator();
+        Key deltaKey = deltaKeys.hasNext() ? deltaKeys.next() : null;
+        while (found.size() < limit) {
+            boolean baseMatches = base < baseSlots.length && baseStartsWith(base, query);
+            boolean deltaMatches = deltaKey != null && startsWith(deltaKey.bytes(), query);
+            if (!baseMatches && !deltaMatches) {
+                break;
+            }
+            int slot;
+            if (baseMatches && (!deltaMatches || compareBase(base, deltaKey.bytes()) <= 0)) {
+                slot = baseSlots[base++];
+            } else {
+                slot = deltaKey.slot();
+                deltaKey = deltaKeys.hasNext() ? deltaKeys.next() : null;
+            }
+            if (!deadSlots.get(slot)) {
+                found.add(slot);
+            }
+        }
+        // Copies, so callers can't change the index's entries
+        return found.stream()
+                .map(slots::get)
+                .map(entry -> new PatientSuggestionDTO(entry.getId(), entry.getFirstName(), entry.getLastName(),
+                        entry.getDateOfBirth()))
+                .toList();
+    }
+
+    // Merges the live base keys and the delta into a new base and renumbers the slots densely
+    public void compact() {
+        int[] newSlot = new int[slots.size()];
+        List<PatientSuggestionDTO> liveSlots = new ArrayList<>(slotById.size());
+        for (int slot = 0; slot < slots.size(); slot++) {
+            if (!deadSlots.get(slot)) {
+                newSlot[slot] = liveSlots.size();
+                liveSlots.add(slots.get(slot));
+            }
+        }
+
+        int liveKeys = 0;
+        int liveBytes = 0;
+        for (int i = 0; i < baseSlots.length; i++) {
+            if (!deadSlots.get(baseSlots[i])) {
+                liveKeys++;
+                liveBytes += baseOffsets[i + 1] - baseOffsets[i];
+            }
+        }
+        for (Key key : delta) {
+            if (!deadSlots.get(key.slot())) {
+                liveKeys++;
+                liveBytes += key.bytes().length;
+            }
+        }
+
+        byte[] bytes = new byte[liveBytes];
+        int[] offsets = new int[liveKeys + 1];
+        int[] keySlots = new int[liveKeys];
+        int written = 0;
+        int base = 0;
+        Iterator<Key> deltaKeys = delta.iterator();
+        Key deltaKey = deltaKeys.hasNext() ? deltaKeys.next() : null;
+        while (base < baseSlots.length || deltaKey != null) {
+            byte[] source;
+            int from;
+            int length;
+            int slot;
+            if (base < baseSlots.length && (deltaKey == null || compareBase(base, deltaKey.bytes()) <= 0)) {
+                source = baseBytes;
+                from = baseOffsets[base];
+                length = baseOffsets[base + 1] - from;
+                slot = baseSlots[base++];
+            } else {
+                source = deltaKey.bytes();
+                from = 0;
+                length = source.length;
+                slot = deltaKey.slot();
+                deltaKey = deltaKeys.hasNext() ? deltaKeys.next() : null;
+            }
+            if (deadSlots.get(slot)) {
+                continue;
+            }
+            System.arraycopy(source, from, bytes, offsets[written], length);
+            keySlots[written] = newSlot[slot];
+            offsets[written + 1] = offsets[written] + length;
+            written++;
+        }
+
+        baseBytes = bytes;
+        baseOffsets = offsets;
+        baseSlots = keySlots;
+        delta.clear();
+        slots.clear();
+        slots.addAll(liveSlots);
+        slotById.clear();
+        for (int slot = 0; slot < slots.size(); slot++) {
+            slotById.put(slots.get(slot).getId(), slot);
+        }
+        deadSlots.clear();
+        deadCount = 0;
+    }
+
+    private void insert(PatientMatchRow row) {
+        remove(row.id());
+        int slot = slots.size();
+        slots.add(new PatientSuggestionDTO(row.id(), row.firstName(), row.lastName(), row.dateOfBirth()));
+        slotById.put(row.id(), slot);
+        for (String key : keys(row)) {
+            delta.add(new Key(key.getBytes(StandardCharsets.UTF_8), slot));
+        }
+    }
+
+    static String normalizeQuery(String prefix) {
+        if (prefix == null) {
+            return "";
+        }
+        return PHONE_QUERY.matcher(prefix.strip()).matches() ? IdentityHash.digits(prefix) : IdentityHash.normalize(prefix);
+    }
+
+    private static Set<String> keys(PatientMatchRow row) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(IdentityHash.normalize(row.firstName()));
+        keys.add(IdentityHash.normalize(row.lastName()));
+        keys.add(IdentityHash.normalize(row.firstName() + " " + row.lastName()));
+        keys.add(IdentityHash.normalize(row.email()));
+        keys.add(IdentityHash.digits(row.phoneNumber()));
+        keys.remove("");
+        return keys;
+    }
+
+    // First base key not smaller than the query
+    private int lowerBound(byte[] query) {
+        int low = 0;
+        int high = baseSlots.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareBase(mid, query) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareBase(int index, byte[] other) {
+        return Arrays.compareUnsigned(baseBytes, baseOffsets[index], baseOffsets[index + 1], other, 0, other.length);
+    }
+
+    private boolean baseStartsWith(int index, byte[] prefix) {
+        int start = baseOffsets[index];
+        return baseOffsets[index + 1] - start >= prefix.length
+                && Arrays.equals(baseBytes, start, start + prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        return bytes.length >= prefix.length && Arrays.equals(bytes, 0, prefix.length, prefix, 0, prefix.length);
+    }
+}
@@ -1,42 +1,103 @@
 package com.wlabs.patient_service.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.wlabs.patient_service.config.CacheConfig;
 import com.wlabs.patient_service.repository.CaregiverRepository;
+import com.wlabs.patient_service.repository.PatientChangeEventRepository;
+import com.wlabs.patient_service.repository.PatientCohortRepository;
 import com.wlabs.patient_service.repository.PatientRepository;
+import com.wlabs.patient_service.repository.PatientSearchHit;
+import com.wlabs.patient_service.repository.PatientSearchRepository;
 import com.wlabs.patient_service.mapper.CaregiverMapper;
 import com.wlabs.patient_service.mapper.PatientMapper;
+import com.wlabs.patient_service.mapper.PatientMergePatchMapper;
 import com.wlabs.patient_service.model.Caregiver;
+import com.wlabs.patient_service.model.IdentityHash;
 import com.wlabs.patient_service.model.Patient;
+import com.wlabs.patient_service.model.PatientChangeEvent;
+import com.wlabs.patient_service.model.PatientChangeType;
 import com.wlabs.patient_service.model.dto.CaregiverDTO;
+import com.wlabs.patient_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_service.model.dto.MedicalHistoryChangeDTO;
+import com.wlabs.patient_service.model.dto.PatientBatchDTO;
 import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.model.dto.PatientDetailDTO;
+import com.wlabs.patient_service.model.dto.PatientSummaryDTO;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PatientService {
 
+    static final int DEFAULT_SEARCH_PAGE_SIZE = 50;
+    static final int MAX_SEARCH_PAGE_SIZE = 200;
+    static final int MAX_COHORT_CONDITIONS = 20;
+    static final int MAX_BATCH_GET_IDS = 1000;
+    // Matches hibernate.default_batch_fetch_size, so each chunk's medical histories load in one query
+    static final int BATCH_GET_CHUNK_SIZE = 100;
+    // Timer for every operation, tagged with operation=... (cache hits return before the timer starts)
+    static final String OPERATION_TIMER = "patient.service.operations";
+    static final String DUPLICATE_PATIENT_MESSAGE =
+            "A patient with the same first name, last name, and date of birth already exists.";
+    static final String DUPLICATE_CAREGIVER_MESSAGE =
+            "A caregiver with these exact details already exists for this patient.";
+
     private final PatientRepository patientRepository;
+    private final PatientSearchRepository patientSearchRepository;
+    private final PatientCohortRepository patientCohortRepository;
     private final CaregiverRepository caregiverRepository;
+    private final PatientChangeEventRepository patientChangeEventRepository;
     private final PatientMapper patientMapper;
     private final CaregiverMapper caregiverMapper;
+    private final PatientMergePatchMapper patientMergePatchMapper;
+    private final Validator validator;
+    private final PatientMetrics patientMetrics;
 
+    // The new id is evicted too: it tells the patient cache not to keep a miss that a lagging replica returns for it
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#result.id"),
+            @CacheEvict(cacheNames = CacheConfig.PATIENT_SEARCHES, allEntries = true)
+    })
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "create"}, histogram = true)
     @Transactional
     public Patient createPatient(PatientDTO patientDto) {
         log.info("Attempting to create a new patient with email: {}", patientDto.getEmail());
-        if (patientRepository.existsByFirstNameAndLastNameAndDateOfBirthAndIdNot(
-                patientDto.getFirstName(), patientDto.getLastName(), patientDto.getDateOfBirth(), null)) {
-            throw new IllegalArgumentException(
-                    "A patient with the same first name, last name, and date of birth already exists.");
+        String identityHash = IdentityHash.ofPatient(
+                patientDto.getFirstName(), patientDto.getLastName(), patientDto.getDateOfBirth());
+        if (patientMetrics.checkPatientDuplicate(() ->
+                patientRepository.existsByIdentityHashAndIdNot(identityHash, null))) {
+            throw new DuplicateRecordException(DUPLICATE_PATIENT_MESSAGE);
         }
         Patient patient = patientMapper.patientDtoToPatient(patientDto);
 
@@ -47,14 +108,29 @@ public class PatientService {
             patient.getCaregivers().forEach(caregiver -> caregiver.setPatient(patient));
         }
 
-        Patient savedPatient = patientRepository.save(patient);
+        // Flushed here so a concurrent create of the same patient, which passed the check above, fails on the
+        // unique identity hash index with the same error instead of at commit
+        Patient savedPatient;
+        try {
+            savedPatient = patientRepository.saveAndFlush(patient);
+        } catch (DataIntegrityViolationException e) {
+            if (isIdentityHashConflict(e)) {
+                throw new DuplicateRecordException(DUPLICATE_PATIENT_MESSAGE);
+            }
+            throw e;
+        }
+        recordChange(savedPatient.getId(), PatientChangeType.CREATED);
         log.info("Successfully created new patient with ID: {}", savedPatient.getId());
         return savedPatient;
     }
 
-    public Optional<Patient> getPatientById(UUID id) {
+    @Cacheable(cacheNames = CacheConfig.PATIENTS, key = "#id", sync = true)
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "get"}, histogram = true)
+    @Transactional(readOnly = true)
+    public Optional<PatientDetailDTO> getPatientById(UUID id) {
         log.info("Searching for patient with ID: {}", id);
-        Optional<Patient> patient = patientRepository.findById(id);
+        Optional<PatientDetailDTO> patient = patientRepository.findDetailById(id)
+                .map(patientMapper::patientToPatientDetailDto);
         if (patient.isPresent()) {
             log.info("Found patient with ID: {}", id);
         } else {
@@ -63,6 +139,47 @@ public class PatientService {
         return patient;
     }
 
+    // Loads many patients with their address, caregivers and medical history in two queries per chunk of ids, instead
+    // of one getPatientById each. Not cached: the patients cache is only filled through getPatientById.
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "batch-get"}, histogram = true)
+    @Transactional(readOnly = true)
+    public PatientBatchDTO getPatientsByIds(List<UUID> ids) {
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Patient ids must not be null.");
+        }
+        List<UUID> distinct = List.copyOf(new LinkedHashSet<>(ids));
+        if (distinct.size() > MAX_BATCH_GET_IDS) {
+            throw new IllegalArgumentException(
+                    "A batch get accepts at most " + MAX_BATCH_GET_IDS + " patient ids.");
+        }
+        log.info("Fetching {} patients by id", distinct.size());
+
+        Map<UUID, PatientDetailDTO> byId = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += BATCH_GET_CHUNK_SIZE) {
+            List<UUID> chunk = distinct.subList(from, Math.min(from + BATCH_GET_CHUNK_SIZE, distinct.size()));
+            // Mapped chunk by chunk, so the batched history fetch only picks up this chunk's patients
+            patientRepository.findDetailsByIdIn(chunk)
+                    .forEach(patient -> byId.put(patient.getId(), patientMapper.patientToPatientDetailDto(patient)));
+        }
+
+        List<PatientDetailDTO> patients = new ArrayList<>(byId.size());
+        List<UUID> missingIds = new ArrayList<>();
+        for (UUID id : distinct) {
+            PatientDetailDTO patient = byId.get(id);
+            if (patient != null) {
+                patients.add(patient);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            log.warn("No patients found with IDs: {}", missingIds);
+        }
+        return new PatientBatchDTO(patients, missingIds);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#patientId")
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "add-caregiver"}, histogram = true)
     @Transactional
     public Caregiver addCaregiverToPatient(UUID patientId, CaregiverDTO caregiverDto) {
         log.info("Attempting to add a new caregiver to patient ID: {}", patientId);
@@ -73,20 +190,23 @@ public class PatientService {
                     return new EntityNotFoundException("Patient not found with id: " + patientId);
                 });
 
-        if (caregiverRepository.existsDuplicate(
-                patientId, caregiverDto.getFirstName(), caregiverDto.getLastName(), caregiverDto.getEmail(),
-                caregiverDto.getPhoneNumber(), caregiverDto.getRelationshipToPatient(), null)) {
-            throw new IllegalArgumentException("A caregiver with these exact details already exists for this patient.");
+        if (patientMetrics.checkCaregiverDuplicate(() -> caregiverRepository.existsByPatientIdAndIdentityHash(
+                patientId, caregiverIdentityHash(caregiverDto)))) {
+            throw new DuplicateRecordException(DUPLICATE_CAREGIVER_MESSAGE);
         }
 
         Caregiver newCaregiver = caregiverMapper.caregiverDtoToCaregiver(caregiverDto);
         newCaregiver.setPatient(patient);
 
         Caregiver savedCaregiver = caregiverRepository.save(newCaregiver);
+        patient.touch();
+        recordChange(patientId, PatientChangeType.UPDATED);
         log.info("Successfully added new caregiver with ID: {} to patient ID: {}", savedCaregiver.getId(), patientId);
         return savedCaregiver;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#patientId")
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "delete-caregiver"}, histogram = true)
     @Transactional
     public void deleteCaregiver(UUID patientId, UUID caregiverId) {
         log.info("Attempting to delete caregiver ID: {} from patient ID: {}", caregiverId, patientId);
@@ -105,70 +225,289 @@ public class PatientService {
         }
 
         caregiverRepository.deleteById(caregiverId);
+        caregiver.getPatient().touch();
+        recordChange(patientId, PatientChangeType.UPDATED);
         log.info("Successfully deleted caregiver ID: {} from patient ID: {}", caregiverId, patientId);
     }
 
-    public List<Patient> searchPatients(String term) {
-        log.info("Searching for patients with term: '{}'", term);
-        List<Patient> patients = patientRepository.searchByTerm(term);
+    @Cacheable(cacheNames = CacheConfig.PATIENT_SEARCHES, sync = true)
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "search"}, histogram = true)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PatientSummaryDTO> searchPatients(String term, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        SearchCursor after = SearchCursor.decode(cursor);
+        log.info("Searching for patients with term: '{}', page size: {}", term, pageSize);
+
+        // Fetch one extra hit to find out whether another page exists without a count query
+        List<PatientSearchHit> hits = patientSearchRepository.search(term,
+                after == null ? null : after.score(), after == null ? null : after.lastId(), pageSize + 1);
+        String nextCursor = null;
+        if (hits.size() > pageSize) {
+            hits = hits.subList(0, pageSize);
+            PatientSearchHit last = hits.get(pageSize - 1);
+            nextCursor = new SearchCursor(last.score(), last.id()).encode();
+        }
+
+        List<PatientSummaryDTO> patients = findSummariesInOrder(hits.stream().map(PatientSearchHit::id).toList());
+        patientMetrics.recordSearchPage(patients.size());
         log.info("Found {} patients for search term: '{}'", patients.size(), term);
-        return patients;
+        return new CursorPageDTO<>(patients, nextCursor);
+    }
+
+    // Patients with all (or any) of the given conditions, in id order; not cached, a cohort page is a few index probes
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "cohort"}, histogram = true)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PatientSummaryDTO> findCohort(List<String> conditions, boolean matchAll, String cursor,
+                                                       Integer size) {
+        List<String> distinct = conditions == null ? List.of() : conditions.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(condition -> !condition.isEmpty())
+                .distinct()
+                .toList();
+        if (distinct.isEmpty() || distinct.size() > MAX_COHORT_CONDITIONS) {
+            throw new IllegalArgumentException(
+                    "A cohort query needs between 1 and " + MAX_COHORT_CONDITIONS + " conditions.");
+        }
+        int pageSize = pageSize(size);
+        SearchCursor after = SearchCursor.decode(cursor);
+        log.info("Finding patients with {} of conditions {}, page size: {}", matchAll ? "all" : "any", distinct, pageSize);
+
+        List<UUID> ids = patientCohortRepository.findIds(distinct, matchAll,
+                after == null ? null : after.lastId(), pageSize + 1);
+        String nextCursor = null;
+        if (ids.size() > pageSize) {
+            ids = ids.subList(0, pageSize);
+            nextCursor = new SearchCursor(0f, ids.get(pageSize - 1)).encode();
+        }
+
+        List<PatientSummaryDTO> patients = findSummariesInOrder(ids);
+        log.info("Found {} patients for conditions {}", patients.size(), distinct);
+        return new CursorPageDTO<>(patients, nextCursor);
     }
 
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "stream"}, histogram = true)
+    @Transactional(readOnly = true)
+    public long streamPatients(String term, Consumer<PatientSummaryDTO> consumer) {
+        log.info("Streaming patients with term: '{}'", term);
+        long count = 0;
+        // Summaries are plain DTOs, so nothing accumulates in the persistence context however many rows match
+        try (Stream<PatientSummaryDTO> patients = patientRepository.streamSummariesByTerm(term)) {
+            for (PatientSummaryDTO patient : (Iterable<PatientSummaryDTO>) patients::iterator) {
+                consumer.accept(patient);
+                count++;
+            }
+        }
+        patientMetrics.recordSearchStream(count);
+        log.info("Streamed {} patients for search term: '{}'", count, term);
+        return count;
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PATIENT_SEARCHES, allEntries = true)
+    })
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "update"}, histogram = true)
     @Transactional
-    public Patient updatePatient(UUID id, PatientDTO patientDto) {
+    public Patient updatePatient(UUID id, PatientDTO patientDto, Long expectedVersion) {
         log.info("Attempting to update patient with ID: {}", id);
-        Patient existingPatient = patientRepository.findById(id)
+        Patient existingPatient = findPatientForUpdate(id, expectedVersion);
+        if (applyUpdate(existingPatient, patientDto)) {
+            recordChange(id, PatientChangeType.UPDATED);
+        }
+        return patientRepository.save(existingPatient);
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PATIENT_SEARCHES, allEntries = true)
+    })
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "patch"}, histogram = true)
+    @Transactional
+    public Patient patchPatient(UUID id, JsonNode mergePatch, Long expectedVersion) {
+        log.info("Attempting to patch patient with ID: {}", id);
+        Patient existingPatient = findPatientForUpdate(id, expectedVersion);
+        PatientDTO patchedDto = patientMergePatchMapper.applyMergePatch(
+                patientMapper.patientToPatientDto(existingPatient), mergePatch);
+
+        // A PUT body is validated by the controller, a patch can only be validated once merged
+        Set<ConstraintViolation<PatientDTO>> violations = validator.validate(patchedDto);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        if (applyUpdate(existingPatient, patchedDto)) {
+            recordChange(id, PatientChangeType.UPDATED);
+        }
+        return patientRepository.save(existingPatient);
+    }
+
+    // Summaries don't show the medical history, so cached search pages stay valid
+    @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#id")
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "update-history"}, histogram = true)
+    @Transactional
+    public Patient updateMedicalHistory(UUID id, MedicalHistoryChangeDTO change, Long expectedVersion) {
+        log.info("Attempting to update the medical history of patient with ID: {}", id);
+        Patient patient = findPatientForUpdate(id, expectedVersion);
+        Set<String> history = patient.getMedicalHistory();
+        // Only the removed and added rows are written; conditions already in (or out of) the history are no-ops
+        boolean changed = change.getRemove() != null && history.removeAll(change.getRemove());
+        if (change.getAdd() != null && history.addAll(change.getAdd())) {
+            changed = true;
+        }
+        if (history.isEmpty()) {
+            throw new IllegalArgumentException("Medical History cannot be blank.");
+        }
+        if (changed) {
+            patient.touch();
+            recordChange(id, PatientChangeType.UPDATED);
+        }
+        return patientRepository.save(patient);
+    }
+
+    // Loads the aggregate with its address and caregivers. When the client sent the version its change is based on
+    // (If-Match), a newer stored version fails fast; a concurrent commit after this point fails on the @Version check.
+    private Patient findPatientForUpdate(UUID id, Long expectedVersion) {
+        Patient patient = patientRepository.findDetailById(id)
                 .orElseThrow(() -> {
                     log.error("Update failed. Patient not found with id: {}", id);
                     return new EntityNotFoundException("Patient not found with id: " + id);
                 });
+        if (expectedVersion != null && !expectedVersion.equals(patient.getVersion())) {
+            log.warn("Update rejected. Patient ID: {} is at version {}, client expected {}",
+                    id, patient.getVersion(), expectedVersion);
+            throw new OptimisticLockingFailureException(
+                    "Patient " + id + " has been modified since version " + expectedVersion + ".");
+        }
+        return patient;
+    }
 
-        if (patientRepository.existsByFirstNameAndLastNameAndDateOfBirthAndIdNot(
-                patientDto.getFirstName(), patientDto.getLastName(), patientDto.getDateOfBirth(), id)) {
-            throw new IllegalArgumentException(
+    // Returns whether anything changed, so a no-op update publishes no event
+    private boolean applyUpdate(Patient existingPatient, PatientDTO patientDto) {
+        String identityHash = IdentityHash.ofPatient(
+                patientDto.getFirstName(), patientDto.getLastName(), patientDto.getDateOfBirth());
+        boolean duplicate = patientMetrics.checkPatientDuplicate(() ->
+                patientRepository.existsByIdentityHashAndIdNot(identityHash, existingPatient.getId()));
+        if (existingPatient.isLegacyDuplicate()) {
+            // A legacy duplicate can still be edited; it stays flagged (and unhashed) until it no longer collides
+            existingPatient.setLegacyDuplicate(duplicate);
+        } else if (duplicate) {
+            throw new DuplicateRecordException(
                     "An update cannot result in a duplicate patient record (same name and DOB).");
         }
 
+        PatientDTO before = patientMapper.patientToPatientDto(existingPatient);
         patientMapper.updatePatientFromDto(patientDto, existingPatient);
-
+        if (existingPatient.getAddress() != null) {
+            existingPatient.getAddress().setPatient(existingPatient);
+        }
+        // Applied as a diff, so only the removed and added conditions are written
+        if (patientDto.getMedicalHistory() != null) {
+            Set<String> conditions = new LinkedHashSet<>(patientDto.getMedicalHistory());
+            existingPatient.getMedicalHistory().retainAll(conditions);
+            existingPatient.getMedicalHistory().addAll(conditions);
+        }
         if (patientDto.getCaregivers() != null) {
-            List<Caregiver> updatedCaregivers = new ArrayList<>();
-            for (CaregiverDTO dto : patientDto.getCaregivers()) {
-                if (caregiverRepository.existsDuplicate(
-                        id, dto.getFirstName(), dto.getLastName(), dto.getEmail(),
-                        dto.getPhoneNumber(), dto.getRelationshipToPatient(), dto.getId())) {
-                    throw new IllegalArgumentException(
-                            "A caregiver with these exact details already exists for this patient.");
-                }
-                Caregiver caregiver;
-                // If it's a new caregiver (no ID), check for duplicates
-                if (dto.getId() == null) {
-                    caregiver = caregiverMapper.caregiverDtoToCaregiver(dto);
-                    caregiver.setPatient(existingPatient);
-                } else {
-                    // It's an existing caregiver, find and update it
-                    caregiver = existingPatient.getCaregivers().stream()
-                            .filter(c -> c.getId().equals(dto.getId()))
-                            .findFirst()
-                            .orElseThrow(() -> new EntityNotFoundException(
-                                    "Caregiver with id " + dto.getId() + " not found."));
-
-                    caregiver.setFirstName(dto.getFirstName());
-                    caregiver.setLastName(dto.getLastName());
-                    caregiver.setEmail(dto.getEmail());
-                    caregiver.setPhoneNumber(dto.getPhoneNumber());
-                    caregiver.setRelationshipToPatient(dto.getRelationshipToPatient());
-                }
-                updatedCaregivers.add(caregiver);
+            reconcileCaregivers(existingPatient, patientDto.getCaregivers());
+        }
+
+        if (before.equals(patientMapper.patientToPatientDto(existingPatient))) {
+            return false;
+        }
+        existingPatient.touch();
+        return true;
+    }
+
+    // Outbox row in the caller's transaction: the event is published by PatientChangeRelay if and only if it commits
+    private void recordChange(UUID patientId, PatientChangeType changeType) {
+        patientChangeEventRepository.save(PatientChangeEvent.of(patientId, changeType));
+    }
+
+    // Applies the incoming caregivers as a diff against the loaded ones: matching ids are updated in place, new
+    // entries are inserted and missing ones removed (orphanRemoval deletes them). Unchanged caregivers cost no statements.
+    private void reconcileCaregivers(Patient patient, List<CaregiverDTO> caregiverDtos) {
+        // The incoming list becomes the patient's whole care team, so a duplicate can only come from within it
+        Set<String> distinctHashes = new HashSet<>();
+        for (CaregiverDTO dto : caregiverDtos) {
+            if (!distinctHashes.add(caregiverIdentityHash(dto))) {
+                throw new DuplicateRecordException(DUPLICATE_CAREGIVER_MESSAGE);
             }
-            existingPatient.getCaregivers().clear();
-            existingPatient.getCaregivers().addAll(updatedCaregivers);
         }
 
-        return patientRepository.save(existingPatient);
+        Map<UUID, Caregiver> existingById = patient.getCaregivers().stream()
+                .collect(Collectors.toMap(Caregiver::getId, Function.identity()));
+        Set<UUID> retainedIds = new HashSet<>();
+        List<CaregiverDTO> dtosWithoutId = new ArrayList<>();
+        for (CaregiverDTO dto : caregiverDtos) {
+            if (dto.getId() == null) {
+                dtosWithoutId.add(dto);
+                continue;
+            }
+            Caregiver caregiver = existingById.get(dto.getId());
+            if (caregiver == null) {
+                throw new EntityNotFoundException("Caregiver with id " + dto.getId() + " not found.");
+            }
+            // Dirty checking only issues an UPDATE when a field actually changed
+            caregiverMapper.updateCaregiverFromDto(dto, caregiver);
+            retainedIds.add(caregiver.getId());
+        }
+
+        // An entry without an id that matches a caregiver not otherwise kept is that caregiver resubmitted. Keeping
+        // it avoids a delete and insert, and an insert that the unique index would reject (inserts flush first).
+        Map<String, Caregiver> unclaimedByHash = patient.getCaregivers().stream()
+                .filter(caregiver -> !retainedIds.contains(caregiver.getId()))
+                .collect(Collectors.toMap(PatientService::caregiverIdentityHash, Function.identity(), (a, b) -> a));
+        List<Caregiver> addedCaregivers = new ArrayList<>();
+        for (CaregiverDTO dto : dtosWithoutId) {
+            Caregiver caregiver = unclaimedByHash.remove(caregiverIdentityHash(dto));
+            if (caregiver != null) {
+                caregiverMapper.updateCaregiverFromDto(dto, caregiver);
+                retainedIds.add(caregiver.getId());
+            } else {
+                caregiver = caregiverMapper.caregiverDtoToCaregiver(dto);
+                caregiver.setPatient(patient);
+                addedCaregivers.add(caregiver);
+            }
+        }
+        patient.getCaregivers().removeIf(caregiver -> !retainedIds.contains(caregiver.getId()));
+        patient.getCaregivers().addAll(addedCaregivers);
+    }
+
+    private static String caregiverIdentityHash(CaregiverDTO dto) {
+        return IdentityHash.ofCaregiver(dto.getFirstName(), dto.getLastName(), dto.getEmail(), dto.getPhoneNumber(),
+                dto.getRelationshipToPatient());
     }
 
+    private static String caregiverIdentityHash(Caregiver caregiver) {
+        return IdentityHash.ofCaregiver(caregiver.getFirstName(), caregiver.getLastName(), caregiver.getEmail(),
+                caregiver.getPhoneNumber(), caregiver.getRelationshipToPatient());
+    }
+
+    private static boolean isIdentityHashConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(Patient.IDENTITY_HASH_INDEX);
+    }
+
+    private static int pageSize(Integer size) {
+        return size == null ? DEFAULT_SEARCH_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE);
+    }
+
+    // Loads the given patients' summaries in a single query and returns them in the order of the ids
+    private List<PatientSummaryDTO> findSummariesInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, PatientSummaryDTO> byId = patientRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PatientSummaryDTO::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PATIENT_SEARCHES, allEntries = true)
+    })
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "delete"}, histogram = true)
+    @Transactional
     public void deletePatient(UUID id) {
         log.info("Attempting to delete patient with ID: {}", id);
         if (!patientRepository.existsById(id)) {
@@ -176,6 +515,7 @@ public class PatientService {
             throw new EntityNotFoundException("Patient not found with id: " + id);
         }
         patientRepository.deleteById(id);
+        recordChange(id, PatientChangeType.DELETED);
         log.info("Successfully deleted patient with ID: {}", id);
     }
 }
@@ -0,0 +1,191 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.config.ReplicaRoutingDataSource;
+import com.wlabs.patient_service.model.dto.PatientChangeEventDTO;
+import com.wlabs.patient_service.model.dto.PatientSuggestionDTO;
+import com.wlabs.patient_service.repository.PatientChangeEventRepository;
+import com.wlabs.patient_service.repository.PatientMatchRow;
+import com.wlabs.patient_service.repository.PatientRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Typeahead over every patient's name, email and phone, answered from PatientPrefixIndex without touching the
+// database. The index is built at startup (before the instance reports ready) and then follows the change feed like
+// PatientMatchIndex, so creates, updates, deletes and imports from any instance show up within a refresh interval.
+// Database reads happen outside the index lock, on the primary; readers only ever wait for the in-memory apply.
+@Service
+@Slf4j
+public class PatientSuggestService {
+
+    static final int DEFAULT_LIMIT = 10;
+    static final int MAX_LIMIT = 50;
+
+    private final PatientRepository patientRepository;
+    private final PatientChangeEventRepository patientChangeEventRepository;
+    private final TaskExecutor taskExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int pageSize;
+    private final boolean warmOnStartup;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // One refresh at a time; the index itself is only touched under the write lock
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile PatientPrefixIndex index = new PatientPrefixIndex();
+    // Feed position the index reflects; -1 until it is built
+    private volatile long position = -1;
+    // Set while a build started by a suggestion is queued or running
+    private final AtomicBoolean buildQueued = new AtomicBoolean();
+
+    public PatientSuggestService(PatientRepository patientRepository,
+                                 PatientChangeEventRepository patientChangeEventRepository,
+                                 @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${patient.changes.page-size:500}") int pageSize,
+                                 @Value("${patient.suggest.warm-on-startup:true}") boolean warmOnStartup) {
+        this.patientRepository = patientRepository;
+        this.patientChangeEventRepository = patientChangeEventRepository;
+        this.taskExecutor = taskExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pageSize = pageSize;
+        this.warmOnStartup = warmOnStartup;
+    }
+
+    // Nothing until the index is built (warm-up disabled, failed or still running): a full read of the patients
+    // never runs on the request thread
+    public List<PatientSuggestionDTO> suggest(String prefix, Integer limit) {
+        if (position < 0) {
+            buildInBackground();
+            return List.of();
+        }
+        int maxResults = limit == null ? DEFAULT_LIMIT : Math.min(Math.max(limit, 1), MAX_LIMIT);
+        lock.readLock().lock();
+        try {
+            return index.suggest(prefix, maxResults);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void warmUp() {
+        if (warmOnStartup) {
+            refresh();
+        }
+    }
+
+    // Only once built, so instances with warm-up disabled that never serve suggestions don't hold the index
+    @Scheduled(fixedDelayString = "${patient.suggest.refresh-interval:1s}",
+            initialDelayString = "${patient.suggest.refresh-interval:1s}")
+    void refreshIfBuilt() {
+        if (position >= 0) {
+            refresh();
+        }
+    }
+
+    // Builds the index or catches it up with the feed. Positions and rows are read from the primary: replicas lag by
+    // different amounts, and one behind the index's position would look like a reset feed.
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            ReplicaRoutingDataSource.onPrimary(() -> {
+                // Rebuilt when the feed is behind the index, i.e. the events table was emptied and positions restarted
+                if (position < 0 || patientChangeEventRepository.findMaxPosition() < position) {
+                    build();
+                } else {
+                    catchUp();
+                }
+            });
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // One queued build at most; a refresh already running (the startup warm-up) leaves it only a catch-up to do
+    private void buildInBackground() {
+        if (!buildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    log.warn("Building the patient suggest index failed; the next suggestion retries", e);
+                } finally {
+                    buildQueued.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            buildQueued.set(false);
+            throw e;
+        }
+    }
+
+    private void build() {
+        // Taken first: changes committed while streaming get later positions and are replayed by the next catch-up
+        long startPosition = patientChangeEventRepository.findMaxPosition();
+        PatientPrefixIndex built = new PatientPrefixIndex();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<PatientMatchRow> rows = patientRepository.streamMatchRows()) {
+                rows.forEach(built::load);
+            }
+        });
+        built.compact();
+        // Readers still in the old index finish there; it is no longer changed
+        index = built;
+        position = startPosition;
+        log.info("Built patient suggest index with {} patients and {} keys", built.size(), built.keyCount());
+    }
+
+    private void catchUp() {
+        List<PatientChangeEventDTO> events;
+        do {
+            events = patientChangeEventRepository.findPublishedAfter(position, Limit.of(pageSize));
+            if (events.isEmpty()) {
+                return;
+            }
+            Set<UUID> changed = new HashSet<>();
+            events.forEach(event -> changed.add(event.getPatientId()));
+            Map<UUID, PatientMatchRow> rows = patientRepository.findMatchRowsByIdIn(changed).stream()
+                    .collect(Collectors.toMap(PatientMatchRow::id, Function.identity()));
+            lock.writeLock().lock();
+            try {
+                // Deleted patients simply don't come back
+                for (UUID id : changed) {
+                    PatientMatchRow row = rows.get(id);
+                    if (row == null) {
+                        index.remove(id);
+                    } else {
+                        index.put(row);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            position = events.get(events.size() - 1).getPosition();
+        } while (events.size() == pageSize);
+    }
+}
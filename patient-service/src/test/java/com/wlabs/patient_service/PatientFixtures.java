@@ -0,0 +1,63 @@
+package com.wlabs.patient_service;
+
+import com.wlabs.patient_service.model.dto.AddressDTO;
+import com.wlabs.patient_service.model.dto.CaregiverDTO;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Valid patients and caregivers for tests. Every required field gets a neutral value, so a test only sets the fields
+// it is about. Lists are mutable.
+public final class PatientFixtures {
+
+    private PatientFixtures() {
+    }
+
+    // The email is derived from the name, so two patients with the same name need an explicit one
+    public static PatientDTO patient(String firstName, String lastName) {
+        PatientDTO dto = new PatientDTO();
+        dto.setFirstName(firstName);
+        dto.setLastName(lastName);
+        dto.setEmail(email(firstName, lastName));
+        dto.setPhoneNumber("555-123-4567");
+        dto.setHeightCm(170.0);
+        dto.setWeightKg(70.0);
+        dto.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        dto.setEthnicity("White");
+        dto.setTypeOfDiabetes("Type 2");
+        dto.setDateOfDiagnosis(LocalDate.of(2015, 6, 1));
+        dto.setBiologicalSex("Female");
+        dto.setAssignedPhysician("Dr. Jane Doe");
+        dto.setMedicalHistory(new ArrayList<>(List.of("Asthma")));
+        dto.setAddress(address());
+        dto.setCaregivers(new ArrayList<>());
+        return dto;
+    }
+
+    public static AddressDTO address() {
+        AddressDTO address = new AddressDTO();
+        address.setMailingAddress("1 Main St");
+        address.setZipcode("90210");
+        address.setCounty("Orange County");
+        address.setState("CA");
+        address.setCountry("USA");
+        return address;
+    }
+
+    public static CaregiverDTO caregiver(String firstName, String lastName) {
+        CaregiverDTO caregiver = new CaregiverDTO();
+        caregiver.setFirstName(firstName);
+        caregiver.setLastName(lastName);
+        caregiver.setEmail(email(firstName, lastName));
+        caregiver.setPhoneNumber("555-987-6543");
+        caregiver.setRelationshipToPatient("Family Member");
+        return caregiver;
+    }
+
+    private static String email(String firstName, String lastName) {
+        return (firstName + "." + lastName).toLowerCase(Locale.ROOT).replace(' ', '.') + "@example.com";
+    }
+}
@@ -0,0 +1,105 @@
+package com.wlabs.patient_service.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvalidationAwareCaffeineCacheTest {
+
+    private final InvalidationAwareCaffeineCache cache =
+            new InvalidationAwareCaffeineCache("test", Caffeine.newBuilder().build());
+
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    void whenLoadCompletesWithoutInvalidation_thenValueIsCached() {
+        assertThat(cache.get("key", () -> "loaded")).isEqualTo("loaded");
+
+        assertThat(cache.get("key", () -> "reloaded")).isEqualTo("loaded");
+    }
+
+    @Test
+    void whenKeyIsMissedConcurrently_thenItIsLoadedOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        List<CompletableFuture<String>> gets = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> cache.get("key", () -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return "loaded";
+                })))
+                .toList();
+        await(loading);
+        release.countDown();
+
+        assertThat(gets).allSatisfy(get -> assertThat(get.join()).isEqualTo("loaded"));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void whenKeyIsEvictedWhileLoading_thenStaleValueIsReturnedButNotCached() {
+        CompletableFuture<String> load = loadBlocked("key", "stale");
+        await(loading);
+
+        CompletableFuture<Void> evict = CompletableFuture.runAsync(() -> cache.evict("key"));
+        release.countDown();
+        evict.join();
+
+        assertThat(load.join()).isEqualTo("stale");
+        assertThat(cache.get("key")).isNull();
+    }
+
+    @Test
+    void whenAnotherKeyIsEvictedWhileLoading_thenValueIsCached() {
+        CompletableFuture<String> load = loadBlocked("key", "loaded");
+        await(loading);
+
+        CompletableFuture<Void> evict = CompletableFuture.runAsync(() -> cache.evict("other"));
+        release.countDown();
+        evict.join();
+
+        assertThat(load.join()).isEqualTo("loaded");
+        assertThat(cache.get("key").get()).isEqualTo("loaded");
+    }
+
+    @Test
+    void whenCacheIsClearedWhileLoading_thenStaleValueIsNotCached() {
+        CompletableFuture<String> load = loadBlocked("key", "stale");
+        await(loading);
+
+        cache.clear();
+        release.countDown();
+
+        assertThat(load.join()).isEqualTo("stale");
+        assertThat(cache.get("key")).isNull();
+        assertThat(cache.get("key", () -> "fresh")).isEqualTo("fresh");
+        assertThat(cache.get("key").get()).isEqualTo("fresh");
+    }
+
+    // Starts a load of the key that signals loading and then waits for release
+    private CompletableFuture<String> loadBlocked(String key, String value) {
+        return CompletableFuture.supplyAsync(() -> cache.get(key, () -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return value;
+        }));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.wlabs.patient_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wlabs.patient_service.repository.PatientChangeEventRepository;
+import com.wlabs.patient_service.repository.PatientRepository;
+import com.wlabs.patient_service.service.PatientChangeRelay;
+import com.wlabs.patient_service.service.PatientMatchIndex;
+import com.wlabs.patient_service.service.PatientService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.wlabs.patient_service.PatientFixtures.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// An H2 pair: the replica has the primary's schema but replicates nothing, so every read shows where it was routed
+@SpringBootTest(properties = {
+        "patient.datasource.replica.urls=" + ReplicaRoutingTest.REPLICA_URL,
+        "patient.datasource.replica.lag-query=SELECT lag_seconds FROM replica_lag",
+        "patient.datasource.replica.lag-check-interval=1h"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:patient_service_replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientChangeEventRepository patientChangeEventRepository;
+
+    @Autowired
+    private PatientChangeRelay patientChangeRelay;
+
+    @Autowired
+    private PatientMatchIndex patientMatchIndex;
+
+    @Autowired
+    private ReplicaDataSourceConfig replicaDataSourceConfig;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            ResultSet tables = replica.getMetaData().getTables(null, null, "patients", null);
+            if (!tables.next()) {
+                for (String ddl : primarySchema()) {
+                    statement.execute(ddl);
+                }
+                statement.execute("CREATE TABLE replica_lag (lag_seconds DOUBLE PRECISION)");
+                statement.execute("INSERT INTO replica_lag VALUES (0)");
+            }
+        }
+        replicaLag(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+        patientChangeEventRepository.deleteAll();
+    }
+
+    @Test
+    void whenReadingWithoutOwnWrite_thenReplicaIsUsed() throws Exception {
+        UUID id = patientService.createPatient(patient("Rhea", "Replica")).getId();
+
+        mockMvc.perform(get("/api/patients/{id}", id)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/patients/search").param("term", "Replica"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+    }
+
+    @Test
+    void whenBatchGetting_thenReplicaIsUsedAndReadsAreNotPinned() throws Exception {
+        UUID id = patientService.createPatient(patient("Bea", "Batch")).getId();
+
+        mockMvc.perform(post("/api/patients/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(id))))
+                .andExpect(status().isOk())
+                .andExpect(cookie().doesNotExist(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE))
+                .andExpect(jsonPath("$.patients").isEmpty())
+                .andExpect(jsonPath("$.missingIds[0]").value(id.toString()));
+    }
+
+    @Test
+    void whenReadingAfterOwnWrite_thenPrimaryIsUsed() throws Exception {
+        MockHttpServletResponse created = mockMvc.perform(post("/api/patients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(patient("Paul", "Primary"))))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE))
+                .andReturn().getResponse();
+        Cookie primaryUntil = created.getCookie(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE);
+        UUID id = UUID.fromString(objectMapper.readTree(created.getContentAsString()).get("id").asText());
+
+        mockMvc.perform(get("/api/patients/{id}", id).cookie(primaryUntil))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Paul"));
+    }
+
+    @Test
+    void whenReplicaLagsTooFar_thenReadsFallBackToPrimary() throws Exception {
+        patientService.createPatient(patient("Lena", "Lagging"));
+        replicaLag(60);
+
+        mockMvc.perform(get("/api/patients/search").param("term", "Lagging"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].firstName").value("Lena"));
+    }
+
+    @Test
+    void whenChangeFeedConsumerRebuildsItsIndex_thenItReadsThePrimary() {
+        // The replica is in rotation but never replays anything
+        patientService.createPatient(patient("Fay", "Feed"));
+        patientChangeRelay.relay();
+        patientMatchIndex.refresh();
+        // Emptied events restart positions, so the next refresh rebuilds the index from a full read of the patients
+        patientChangeEventRepository.deleteAll();
+        UUID id = patientService.createPatient(patient("Flo", "Feed")).getId();
+
+        patientMatchIndex.refresh();
+        boolean indexed = patientMatchIndex.read(view -> view.profiles().containsKey(id));
+
+        assertThat(indexed).isTrue();
+    }
+
+    private void replicaLag(double seconds) throws SQLException {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.executeUpdate("UPDATE replica_lag SET lag_seconds = " + seconds);
+        }
+        replicaDataSourceConfig.checkReplicaLag();
+    }
+
+    private List<String> primarySchema() throws SQLException {
+        List<String> ddl = new ArrayList<>();
+        try (Connection primary = primaryDataSource.getConnection();
+             Statement statement = primary.createStatement();
+             ResultSet script = statement.executeQuery("SCRIPT NODATA NOPASSWORDS NOSETTINGS")) {
+            while (script.next()) {
+                String sql = script.getString(1);
+                if (!sql.startsWith("CREATE USER")) {
+                    ddl.add(sql);
+                }
+            }
+        }
+        return ddl;
+    }
+}
@@ -0,0 +1,105 @@
+package com.wlabs.patient_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SessionRepositoryTest {
+
+    private static final String SECRET = "a-test-secret-that-is-long-enough-for-hmac";
+
+    private final SignedTokenSessionRepository tokens = new SignedTokenSessionRepository(SECRET, Duration.ofMinutes(30));
+
+    @Test
+    void whenTokenIsSaved_thenItsIdCarriesTheAttributes() {
+        MapSession session = tokens.createSession();
+        session.setAttribute("physician", "Dr. Jane Doe");
+        tokens.save(session);
+
+        MapSession found = tokens.findById(session.getId());
+
+        assertThat(found).isNotNull();
+        assertThat((String) found.getAttribute("physician")).isEqualTo("Dr. Jane Doe");
+        assertThat(found.getCreationTime()).isEqualTo(session.getCreationTime().truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    @Test
+    void whenTokenIsTamperedOrSignedWithAnotherSecret_thenItIsRejected() {
+        MapSession session = tokens.createSession();
+        session.setAttribute("role", "viewer");
+        tokens.save(session);
+        String token = session.getId();
+
+        String tampered = (token.charAt(0) == 'A' ? 'B' : 'A') + token.substring(1);
+        SignedTokenSessionRepository otherSecret =
+                new SignedTokenSessionRepository(SECRET.replace('a', 'b'), Duration.ofMinutes(30));
+
+        assertThat(tokens.findById(tampered)).isNull();
+        assertThat(tokens.findById("not-a-token")).isNull();
+        assertThat(otherSecret.findById(token)).isNull();
+        assertThatThrownBy(() -> new SignedTokenSessionRepository("short", Duration.ofMinutes(30)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void whenTokenHasExpired_thenItIsRejected() {
+        MapSession session = tokens.createSession();
+        session.setMaxInactiveInterval(Duration.ofMinutes(1));
+        session.setLastAccessedTime(Instant.now().minus(Duration.ofMinutes(2)));
+        tokens.save(session);
+
+        assertThat(tokens.findById(session.getId())).isNull();
+    }
+
+    @Test
+    void whenOnlyTheLastAccessMovesWithinTouchInterval_thenSessionIsNotWrittenBack() {
+        Map<String, Session> store = new HashMap<>();
+        DeferredTouchSessionRepository<MapSession> repository =
+                new DeferredTouchSessionRepository<>(new MapSessionRepository(store), Duration.ofMinutes(1));
+        var created = repository.createSession();
+        repository.save(created);
+        Instant stored = store.get(created.getId()).getLastAccessedTime();
+
+        var read = repository.findById(created.getId());
+        read.setLastAccessedTime(stored.plusSeconds(30));
+        repository.save(read);
+        assertThat(store.get(created.getId()).getLastAccessedTime()).isEqualTo(stored);
+
+        read.setAttribute("filter", "Type 2");
+        repository.save(read);
+        assertThat(store.get(created.getId()).getLastAccessedTime()).isEqualTo(stored.plusSeconds(30));
+        assertThat((String) store.get(created.getId()).getAttribute("filter")).isEqualTo("Type 2");
+
+        var later = repository.findById(created.getId());
+        later.setLastAccessedTime(stored.plus(Duration.ofMinutes(2)));
+        repository.save(later);
+        assertThat(store.get(created.getId()).getLastAccessedTime()).isEqualTo(stored.plus(Duration.ofMinutes(2)));
+    }
+
+    @Test
+    void whenTokenSessionIsOnlyRead_thenItKeepsItsToken() {
+        DeferredTouchSessionRepository<MapSession> repository =
+                new DeferredTouchSessionRepository<>(tokens, Duration.ofMinutes(1));
+        var created = repository.createSession();
+        created.setAttribute("role", "viewer");
+        repository.save(created);
+        String token = created.getId();
+
+        var read = repository.findById(token);
+        read.setLastAccessedTime(Instant.now());
+        repository.save(read);
+
+        // Same id, so the session filter doesn't send a new cookie
+        assertThat(read.getId()).isEqualTo(token);
+    }
+}
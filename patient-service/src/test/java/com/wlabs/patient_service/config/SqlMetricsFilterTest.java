@@ -0,0 +1,73 @@
+package com.wlabs.patient_service.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class SqlMetricsFilterTest {
+
+    private static final String SEARCH_URI = "/api/patients/search";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void whenSearchRequestIsServed_thenStatementsJdbcTimeAndOperationAreRecorded() throws Exception {
+        long requestsBefore = statements().count();
+        double statementsBefore = statements().totalAmount();
+
+        // No hits, so only the id query runs
+        mockMvc.perform(get(SEARCH_URI).param("term", "NoSuchPatient" + UUID.randomUUID()))
+                .andExpect(status().isOk());
+
+        assertThat(statements().count()).isEqualTo(requestsBefore + 1);
+        assertThat(statements().totalAmount()).isEqualTo(statementsBefore + 1);
+        assertThat(meterRegistry.get("patient.requests.jdbc").tag("uri", SEARCH_URI).timer().count())
+                .isEqualTo(requestsBefore + 1);
+        Timer operation = meterRegistry.get("patient.service.operations").tag("operation", "search").timer();
+        assertThat(operation.count()).isPositive();
+        assertThat(meterRegistry.get("patient.search.results").tag("mode", "page").summary().count()).isPositive();
+    }
+
+    @Test
+    void whenPrometheusEndpointIsScraped_thenPatientMetricsAreExported() throws Exception {
+        mockMvc.perform(get(SEARCH_URI).param("term", "Scrape" + UUID.randomUUID()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("patient_requests_sql_statements_bucket")))
+                .andExpect(content().string(containsString("patient_service_operations_seconds_bucket")))
+                .andExpect(content().string(containsString("patient_duplicate_check_seconds")));
+    }
+
+    private DistributionSummary statements() {
+        DistributionSummary summary = meterRegistry.find("patient.requests.sql.statements").tag("uri", SEARCH_URI).summary();
+        return summary != null ? summary : DistributionSummary.builder("patient.requests.sql.statements")
+                .tags("method", "GET", "uri", SEARCH_URI)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -1,26 +1,43 @@
 package com.wlabs.patient_service.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wlabs.patient_service.model.Patient;
 import com.wlabs.patient_service.model.dto.PatientDTO;
 import com.wlabs.patient_service.model.dto.AddressDTO;
+import com.wlabs.patient_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_service.model.dto.PatientBatchDTO;
+import com.wlabs.patient_service.model.dto.PatientDetailDTO;
+import com.wlabs.patient_service.model.dto.PatientSummaryDTO;
+import com.wlabs.patient_service.service.DuplicateRecordException;
 import com.wlabs.patient_service.service.PatientService;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doNothing;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -34,6 +51,8 @@ class PatientControllerTest {
     private PatientService patientService;
 
     private Patient patient;
+    private PatientDetailDTO patientDetail;
+    private PatientSummaryDTO patientSummary;
     private PatientDTO patientDto;
     private UUID patientId;
 
@@ -46,6 +65,15 @@ class PatientControllerTest {
         patient.setFirstName("John");
         patient.setLastName("Doe");
 
+        patientDetail = new PatientDetailDTO();
+        patientDetail.setId(patientId);
+        patientDetail.setFirstName("John");
+        patientDetail.setLastName("Doe");
+        patientDetail.setVersion(3L);
+
+        patientSummary = new PatientSummaryDTO(patientId, "John", "Doe", "john.doe@example.com",
+                "555-123-4567", LocalDate.of(1990, 1, 1), "Dr. Jane Doe");
+
         // Initialize patientDto with valid data
         patientDto = new PatientDTO();
         patientDto.setFirstName("John");
@@ -76,20 +104,122 @@ class PatientControllerTest {
 
     @Test
     void whenGetPatientById_thenReturnPatient() throws Exception {
-        given(patientService.getPatientById(patientId)).willReturn(Optional.of(patient));
+        given(patientService.getPatientById(patientId)).willReturn(Optional.of(patientDetail));
 
         mockMvc.perform(get("/api/patients/{id}", patientId))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
                 .andExpect(jsonPath("$.id").value(patientId.toString()));
     }
 
+    @Test
+    void whenBatchGetPatients_thenReturnFoundAndMissingIds() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        given(patientService.getPatientsByIds(List.of(patientId, missingId)))
+                .willReturn(new PatientBatchDTO(List.of(patientDetail), List.of(missingId)));
+
+        mockMvc.perform(post("/api/patients/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"" + patientId + "\", \"" + missingId + "\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patients[0].id").value(patientId.toString()))
+                .andExpect(jsonPath("$.missingIds[0]").value(missingId.toString()));
+    }
+
+    @Test
+    void whenGetPatientByIdWithCurrentETag_thenReturnNotModified() throws Exception {
+        given(patientService.getPatientById(patientId)).willReturn(Optional.of(patientDetail));
+
+        mockMvc.perform(get("/api/patients/{id}", patientId).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void whenPatchPatientWithIfMatch_thenPassExpectedVersionAndReturnNewETag() throws Exception {
+        patient.setVersion(4L);
+        given(patientService.patchPatient(eq(patientId), any(JsonNode.class), eq(3L))).willReturn(patient);
+
+        mockMvc.perform(patch("/api/patients/{id}", patientId)
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content("{\"notes\": \"Prefers morning appointments\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void whenPatchPatientWithStaleIfMatch_thenReturnPreconditionFailed() throws Exception {
+        given(patientService.patchPatient(eq(patientId), any(JsonNode.class), eq(2L)))
+                .willThrow(new OptimisticLockingFailureException("stale"));
+
+        mockMvc.perform(patch("/api/patients/{id}", patientId)
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .content("{\"notes\": null}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void whenSearchPatients_thenReturnPatientList() throws Exception {
-        given(patientService.searchPatients("John")).willReturn(Collections.singletonList(patient));
+        given(patientService.searchPatients("John", null, null))
+                .willReturn(new CursorPageDTO<>(Collections.singletonList(patientSummary), null));
 
         mockMvc.perform(get("/api/patients/search").param("term", "John"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].firstName").value("John"));
+                .andExpect(jsonPath("$.content[0].firstName").value("John"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void whenSearchPatientsWithCursor_thenPassCursorAndReturnNextCursor() throws Exception {
+        given(patientService.searchPatients("John", "abc", 10))
+                .willReturn(new CursorPageDTO<>(Collections.singletonList(patientSummary), "def"));
+
+        mockMvc.perform(get("/api/patients/search").param("term", "John")
+                        .param("cursor", "abc").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(patientId.toString()))
+                .andExpect(jsonPath("$.nextCursor").value("def"));
+    }
+
+    @Test
+    void whenSearchCursorIsMalformed_thenReturnBadRequest() throws Exception {
+        given(patientService.searchPatients("John", "bogus", null))
+                .willThrow(new IllegalArgumentException("Invalid search cursor: bogus"));
+
+        mockMvc.perform(get("/api/patients/search").param("term", "John").param("cursor", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Invalid search cursor: bogus"));
+    }
+
+    @Test
+    void whenCohortMatchIsUnknown_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/patients/cohort").param("condition", "Asthma").param("match", "some"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenPatchingMissingPatient_thenReturnNotFound() throws Exception {
+        given(patientService.patchPatient(eq(patientId), any(JsonNode.class), eq(null)))
+                .willThrow(new EntityNotFoundException("Patient not found with id: " + patientId));
+
+        mockMvc.perform(patch("/api/patients/{id}", patientId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"notes\": null}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void whenPatchWouldDuplicateAnotherPatient_thenReturnConflict() throws Exception {
+        given(patientService.patchPatient(eq(patientId), any(JsonNode.class), eq(null)))
+                .willThrow(new DuplicateRecordException("An update cannot result in a duplicate patient record."));
+
+        mockMvc.perform(patch("/api/patients/{id}", patientId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"firstName\": \"Jane\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").value("An update cannot result in a duplicate patient record."));
     }
 
     @Test
@@ -0,0 +1,40 @@
+package com.wlabs.patient_service.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdentityHashTest {
+
+    private static final LocalDate DATE_OF_BIRTH = LocalDate.of(1980, 1, 1);
+
+    @Test
+    void whenNamesDifferOnlyInCaseAndWhitespace_thenPatientHashesMatch() {
+        assertThat(IdentityHash.ofPatient("  Mary Ann", "O'Brien ", DATE_OF_BIRTH))
+                .isEqualTo(IdentityHash.ofPatient("mary  ann", "o'brien", DATE_OF_BIRTH))
+                .hasSize(64);
+    }
+
+    @Test
+    void whenNameOrDateOfBirthDiffers_thenPatientHashesDiffer() {
+        String hash = IdentityHash.ofPatient("John", "Smith", DATE_OF_BIRTH);
+
+        assertThat(IdentityHash.ofPatient("Jon", "Smith", DATE_OF_BIRTH)).isNotEqualTo(hash);
+        assertThat(IdentityHash.ofPatient("John", "Smith", DATE_OF_BIRTH.plusDays(1))).isNotEqualTo(hash);
+        // Field boundaries are part of the hash
+        assertThat(IdentityHash.ofPatient("Johns", "mith", DATE_OF_BIRTH)).isNotEqualTo(hash);
+    }
+
+    @Test
+    void whenPhoneNumbersDifferOnlyInFormatting_thenCaregiverHashesMatch() {
+        assertThat(IdentityHash.ofCaregiver("Jane", "Doe", "Jane.Doe@Example.com", "(555) 987-6543", "Spouse"))
+                .isEqualTo(IdentityHash.ofCaregiver("jane", "doe", "jane.doe@example.com", "555.987.6543", "spouse"));
+    }
+
+    @Test
+    void whenFullWidthCharactersAreUsed_thenTheyNormalizeToAscii() {
+        assertThat(IdentityHash.normalize("ＪＯＨＮ")).isEqualTo("john");
+    }
+}
@@ -0,0 +1,122 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.PatientFixtures;
+import com.wlabs.patient_service.model.dto.CohortGroupDTO;
+import com.wlabs.patient_service.model.dto.CohortStatsDTO;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PatientAnalyticsServiceTest {
+
+    private static final String PHYSICIAN = "Dr. Ada Analytics";
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientAnalyticsService patientAnalyticsService;
+
+    @Autowired
+    private PatientChangeRelay patientChangeRelay;
+
+    @Autowired
+    private PatientAnalyticsIndex patientAnalyticsIndex;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private UUID obeseId;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate today = LocalDate.now();
+        patientService.createPatient(patient("Ann", "Type 1", today.minusYears(25), 170.0, 65.0, "CA"));
+        patientService.createPatient(patient("Bea", "Type 2", today.minusYears(45), 160.0, 70.0, "CA"));
+        obeseId = patientService.createPatient(patient("Cat", "Type 2", today.minusYears(47), 160.0, 85.0, "TX")).getId();
+        patientService.createPatient(patient("Dot", "Type 2", today.minusYears(85), null, 70.0, "TX"));
+        patientChangeRelay.relay();
+        patientAnalyticsIndex.refresh();
+    }
+
+    // Deleted through the service, so the index sees the deletions on the feed like any other change
+    @AfterEach
+    void tearDown() {
+        patientRepository.findAll().forEach(patient -> patientService.deletePatient(patient.getId()));
+        patientChangeRelay.relay();
+    }
+
+    @Test
+    void whenGroupedByDimensions_thenCountsAddUpAndLargestGroupComesFirst() {
+        CohortStatsDTO stats = patientAnalyticsService.countBy(List.of("typeOfDiabetes", "ageBand"),
+                Map.of("assignedPhysician", PHYSICIAN));
+
+        assertThat(stats.getTotal()).isEqualTo(4);
+        assertThat(stats.getGroups()).first().isEqualTo(
+                new CohortGroupDTO(Map.of("typeOfDiabetes", "Type 2", "ageBand", "40-49"), 2));
+        assertThat(stats.getGroups()).extracting(CohortGroupDTO::getValues).contains(
+                Map.of("typeOfDiabetes", "Type 1", "ageBand", "18-29"),
+                Map.of("typeOfDiabetes", "Type 2", "ageBand", "80+"));
+        assertThat(stats.getGroups().stream().mapToLong(CohortGroupDTO::getCount).sum()).isEqualTo(4);
+
+        CohortStatsDTO bmi = patientAnalyticsService.countBy(List.of("bmi"),
+                Map.of("assignedPhysician", PHYSICIAN, "state", "tx"));
+        assertThat(bmi.getGroups()).containsExactlyInAnyOrder(
+                new CohortGroupDTO(Map.of("bmi", "Obese I"), 1),
+                new CohortGroupDTO(Map.of("bmi", "Unknown"), 1));
+    }
+
+    @Test
+    void whenPatientsChange_thenCountsFollowTheChangeFeed() {
+        PatientDTO moved = patient("Cat", "Type 2", LocalDate.now().minusYears(47), 160.0, 85.0, "CA");
+        patientService.updatePatient(obeseId, moved, null);
+        patientService.createPatient(patient("Eve", "Type 1", LocalDate.now().minusYears(33), 180.0, 80.0, "TX"));
+        patientChangeRelay.relay();
+        // Requests read the index as last refreshed
+        assertThat(patientAnalyticsService.countBy(List.of(), Map.of("assignedPhysician", PHYSICIAN)).getTotal())
+                .isEqualTo(4);
+
+        patientAnalyticsIndex.refresh();
+        CohortStatsDTO stats = patientAnalyticsService.countBy(List.of("state"), Map.of("assignedPhysician", PHYSICIAN));
+
+        assertThat(stats.getTotal()).isEqualTo(5);
+        assertThat(stats.getGroups()).containsExactly(
+                new CohortGroupDTO(Map.of("state", "CA"), 3),
+                new CohortGroupDTO(Map.of("state", "TX"), 2));
+    }
+
+    @Test
+    void whenDimensionIsUnknown_thenThrowIllegalArgument() {
+        assertThatThrownBy(() -> patientAnalyticsService.countBy(List.of("zipcode"), Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> patientAnalyticsService.countBy(List.of(), Map.of("notes", "x")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PatientDTO patient(String firstName, String typeOfDiabetes, LocalDate dateOfBirth, Double heightCm,
+                                      Double weightKg, String state) {
+        PatientDTO dto = PatientFixtures.patient(firstName, "Analytics");
+        dto.setTypeOfDiabetes(typeOfDiabetes);
+        dto.setDateOfBirth(dateOfBirth);
+        dto.setHeightCm(heightCm);
+        dto.setWeightKg(weightKg);
+        dto.setAssignedPhysician(PHYSICIAN);
+        dto.getAddress().setState(state);
+        return dto;
+    }
+}
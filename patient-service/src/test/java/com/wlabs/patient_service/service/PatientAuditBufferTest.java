@@ -0,0 +1,78 @@
+package com.wlabs.patient_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatientAuditBufferTest {
+
+    @Test
+    void whenBufferIsFull_thenOfferIsRejectedUntilItIsDrained() {
+        PatientAuditBuffer<Integer> buffer = new PatientAuditBuffer<>(3);
+        assertThat(buffer.capacity()).isEqualTo(4);
+
+        IntStream.range(0, 4).forEach(i -> assertThat(buffer.offer(i)).isTrue());
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drain(drained::add, 3)).isEqualTo(3);
+        assertThat(drained).containsExactly(0, 1, 2);
+
+        assertThat(buffer.offer(5)).isTrue();
+        assertThat(buffer.drain(drained::add, 10)).isEqualTo(2);
+        assertThat(drained).containsExactly(0, 1, 2, 3, 5);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void whenManyThreadsOffer_thenEveryAcceptedElementIsDrainedOnceInPerThreadOrder() throws Exception {
+        PatientAuditBuffer<long[]> buffer = new PatientAuditBuffer<>(1024);
+        int producers = 8;
+        int perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<Integer>> accepted = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long producer = p;
+                accepted.add(executor.submit(() -> {
+                    int count = 0;
+                    for (int i = 0; i < perProducer; i++) {
+                        if (buffer.offer(new long[]{producer, i})) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+
+            long[] lastSeen = new long[producers];
+            Arrays.fill(lastSeen, -1);
+            int[] drained = new int[1];
+            while (accepted.stream().anyMatch(future -> !future.isDone()) || buffer.size() > 0) {
+                buffer.drain(element -> {
+                    int producer = (int) element[0];
+                    assertThat(element[1]).isGreaterThan(lastSeen[producer]);
+                    lastSeen[producer] = element[1];
+                    drained[0]++;
+                }, 256);
+            }
+
+            int total = 0;
+            for (Future<Integer> future : accepted) {
+                total += future.get();
+            }
+            assertThat(drained[0]).isEqualTo(total).isPositive();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.controller.PatientAuditController;
+import com.wlabs.patient_service.controller.PatientController;
+import com.wlabs.patient_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_service.model.dto.PatientAccessEventDTO;
+import com.wlabs.patient_service.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.wlabs.patient_service.PatientFixtures.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Calls go through the controller beans, so they pass the audit aspect as HTTP requests would
+@SpringBootTest
+@ActiveProfiles("test")
+class PatientAuditLogTest {
+
+    @Autowired
+    private PatientController patientController;
+
+    @Autowired
+    private PatientAuditController patientAuditController;
+
+    @Autowired
+    private PatientAuditLog patientAuditLog;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void whenPatientIsCreatedAndRead_thenBothAccessesAreInItsHistory() throws InterruptedException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-User-Id", "dr.house");
+        request.setRemoteAddr("10.0.0.7");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        UUID patientId = patientController.createPatient(patient("Audit", "Trail")).getBody().getId();
+        patientController.getPatientById(patientId);
+
+        List<PatientAccessEventDTO> events = awaitHistory(patientId, 2);
+        assertThat(events).extracting(PatientAccessEventDTO::getOperation)
+                .containsExactly("getPatientById", "createPatient");
+        assertThat(events).allSatisfy(event -> {
+            assertThat(event.getActor()).isEqualTo("dr.house");
+            assertThat(event.getClientAddress()).isEqualTo("10.0.0.7");
+            assertThat(event.isSucceeded()).isTrue();
+        });
+        assertThat(events.get(0).getId()).isGreaterThan(events.get(1).getId());
+
+        CursorPageDTO<PatientAccessEventDTO> first = patientAuditLog.findHistory(patientId, null, 1);
+        assertThat(first.getContent()).containsExactly(events.get(0));
+        CursorPageDTO<PatientAccessEventDTO> second = patientAuditLog.findHistory(patientId, first.getNextCursor(), 1);
+        assertThat(second.getContent()).containsExactly(events.get(1));
+
+        // Reading the history is an access too
+        patientAuditController.getAccessHistory(patientId, null, null);
+        assertThat(awaitHistory(patientId, 3).get(0).getOperation()).isEqualTo("getAccessHistory");
+    }
+
+    @Test
+    void whenPatientIsNotFound_thenTheAccessIsRecordedAsFailed() throws InterruptedException {
+        UUID patientId = UUID.randomUUID();
+        assertThat(patientController.getPatientById(patientId).getStatusCode().value()).isEqualTo(404);
+
+        assertThat(awaitHistory(patientId, 1)).singleElement().satisfies(event -> {
+            assertThat(event.getOperation()).isEqualTo("getPatientById");
+            assertThat(event.isSucceeded()).isFalse();
+            assertThat(event.getActor()).isNull();
+        });
+    }
+
+    @Test
+    void whenCursorIsNotAnEventId_thenItIsRejected() {
+        assertThatThrownBy(() -> patientAuditLog.findHistory(UUID.randomUUID(), "abc", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // The writer flushes every few milliseconds in tests; reads the log directly, which is not audited
+    private List<PatientAccessEventDTO> awaitHistory(UUID patientId, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        List<PatientAccessEventDTO> events = List.of();
+        while (System.nanoTime() < deadline) {
+            events = patientAuditLog.findHistory(patientId, null, null).getContent();
+            if (events.size() >= expected) {
+                break;
+            }
+            Thread.sleep(20);
+        }
+        return events;
+    }
+}
@@ -0,0 +1,110 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.model.PatientChangeEvent;
+import com.wlabs.patient_service.model.PatientChangeType;
+import com.wlabs.patient_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_service.model.dto.PatientChangeEventDTO;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.repository.PatientChangeEventRepository;
+import com.wlabs.patient_service.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static com.wlabs.patient_service.PatientFixtures.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not @Transactional: events only become visible to the relay once the writing transaction commits
+@SpringBootTest
+@ActiveProfiles("test")
+class PatientChangeRelayTest {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientChangeRelay patientChangeRelay;
+
+    @Autowired
+    private PatientChangeFeed patientChangeFeed;
+
+    @Autowired
+    private InMemoryPatientChangeSink inMemoryPatientChangeSink;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientChangeEventRepository patientChangeEventRepository;
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+        patientChangeEventRepository.deleteAll();
+    }
+
+    @Test
+    void whenPatientIsCreatedUpdatedAndDeleted_thenEventsArePublishedInOrder() {
+        UUID patientId = patientService.createPatient(patient("Change", "Feed")).getId();
+        PatientDTO update = patient("Change", "Feed");
+        update.setNotes("Prefers morning appointments");
+        patientService.updatePatient(patientId, update, null);
+        patientService.deletePatient(patientId);
+
+        assertThat(patientChangeRelay.relay()).isEqualTo(3);
+
+        CursorPageDTO<PatientChangeEventDTO> page = patientChangeFeed.readSince(0);
+        assertThat(page.getContent()).extracting(PatientChangeEventDTO::getChangeType)
+                .containsExactly(PatientChangeType.CREATED, PatientChangeType.UPDATED, PatientChangeType.DELETED);
+        assertThat(page.getContent()).extracting(PatientChangeEventDTO::getPosition).containsExactly(1L, 2L, 3L);
+        assertThat(page.getContent()).allMatch(event -> event.getPatientId().equals(patientId));
+        assertThat(page.getNextCursor()).isEqualTo("3");
+        assertThat(inMemoryPatientChangeSink.recent()).containsAll(page.getContent());
+        assertThat(patientChangeRelay.relay()).isZero();
+    }
+
+    @Test
+    void whenUpdateChangesNothing_thenNoEventIsRecorded() {
+        UUID patientId = patientService.createPatient(patient("Change", "Feed")).getId();
+        patientChangeRelay.relay();
+
+        patientService.updatePatient(patientId, patient("Change", "Feed"), null);
+
+        assertThat(patientChangeRelay.relay()).isZero();
+    }
+
+    @Test
+    void whenLongPollIsWaiting_thenTheNextPublishedEventCompletesIt() {
+        DeferredResult<CursorPageDTO<PatientChangeEventDTO>> result = patientChangeFeed.poll(0);
+        assertThat(result.hasResult()).isFalse();
+
+        UUID patientId = patientService.createPatient(patient("Change", "Feed")).getId();
+        patientChangeRelay.relay();
+
+        assertThat(result.hasResult()).isTrue();
+        @SuppressWarnings("unchecked")
+        CursorPageDTO<PatientChangeEventDTO> page = (CursorPageDTO<PatientChangeEventDTO>) result.getResult();
+        assertThat(page.getContent()).singleElement()
+                .satisfies(event -> assertThat(event.getPatientId()).isEqualTo(patientId));
+    }
+
+    @Test
+    void whenDeletingExpiredEvents_thenTheLatestEventIsKept() {
+        for (int i = 0; i < 3; i++) {
+            PatientChangeEvent event = PatientChangeEvent.of(UUID.randomUUID(), PatientChangeType.CREATED);
+            event.setPosition(i + 1L);
+            event.setPublishedAt(Instant.now().minus(30, ChronoUnit.DAYS));
+            patientChangeEventRepository.save(event);
+        }
+
+        assertThat(patientChangeRelay.deleteExpiredEvents()).isEqualTo(2);
+        assertThat(patientChangeEventRepository.findMaxPosition()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,140 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.PatientFixtures;
+import com.wlabs.patient_service.mapper.PatientMapper;
+import com.wlabs.patient_service.model.Patient;
+import com.wlabs.patient_service.model.dto.CaregiverDTO;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.model.dto.PatientDetailDTO;
+import com.wlabs.patient_service.repository.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static com.wlabs.patient_service.PatientFixtures.caregiver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PatientDuplicateDetectionTest {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientMapper patientMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID patientId;
+
+    @BeforeEach
+    void setUp() {
+        patientId = patientService.createPatient(patient("Mary Ann", "O'Brien", "mary.obrien@example.com")).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void whenNameDiffersOnlyInCaseAndWhitespace_thenCreateIsRejected() {
+        assertThatThrownBy(() -> patientService.createPatient(patient("  mary  ann", "O'BRIEN ", "other@example.com")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(PatientService.DUPLICATE_PATIENT_MESSAGE);
+    }
+
+    @Test
+    void whenDuplicateSkipsTheCheck_thenUniqueIndexRejectsIt() {
+        // Stands in for a concurrent create that passed the check before the first one committed
+        Patient duplicate = patientMapper.patientDtoToPatient(patient("MARY ANN", "o'brien", "other@example.com"));
+        duplicate.getAddress().setPatient(duplicate);
+        duplicate.getCaregivers().forEach(caregiver -> caregiver.setPatient(duplicate));
+
+        assertThatThrownBy(() -> patientRepository.saveAndFlush(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void whenPatientIsRenamed_thenIdentityHashFollows() {
+        PatientDTO renamed = patient("Maryann", "O'Brien", "mary.obrien@example.com");
+        renamed.setCaregivers(null);
+        patientService.updatePatient(patientId, renamed, null);
+
+        assertThat(patientService.createPatient(patient("Mary Ann", "O'Brien", "mary.ann@example.com"))).isNotNull();
+        assertThatThrownBy(() -> patientService.createPatient(patient("maryann", "o'brien", "third@example.com")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void whenCaregiverDiffersOnlyInFormatting_thenAddIsRejected() {
+        CaregiverDTO caregiver = caregiver("Care", "Giver");
+        caregiver.setEmail("CARE.GIVER@example.com");
+        caregiver.setPhoneNumber("(555) 987-6543");
+
+        assertThatThrownBy(() -> patientService.addCaregiverToPatient(patientId, caregiver))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(PatientService.DUPLICATE_CAREGIVER_MESSAGE);
+    }
+
+    @Test
+    void whenCaregiversAreResubmittedWithoutIds_thenExistingCaregiversAreKept() {
+        UUID caregiverId = patientService.getPatientById(patientId).orElseThrow().getCaregivers().get(0).getId();
+
+        patientService.updatePatient(patientId, patient("Mary Ann", "O'Brien", "mary.obrien@example.com"), null);
+
+        PatientDetailDTO stored = patientService.getPatientById(patientId).orElseThrow();
+        assertThat(stored.getCaregivers()).extracting(CaregiverDTO::getId).containsExactly(caregiverId);
+    }
+
+    @Test
+    void whenLegacyDuplicateIsEdited_thenItKeepsItsFlagUntilItNoLongerCollides() {
+        UUID legacyId = patientService.createPatient(patient("Marianne", "O'Brien", "marianne@example.com")).getId();
+        // What 006 and 011 leave behind for a record that already duplicated another one
+        jdbcTemplate.update("UPDATE patients SET first_name = 'Mary Ann', identity_hash = NULL, legacy_duplicate = TRUE "
+                + "WHERE id = ?", legacyId);
+        entityManagerFactory.getCache().evictAll();
+
+        PatientDTO edited = patient("Mary Ann", "O'Brien", "marianne@example.com");
+        edited.setPhoneNumber("555-000-1111");
+        patientService.updatePatient(legacyId, edited, null);
+        patientService.addCaregiverToPatient(legacyId, caregiver("Second", "Giver"));
+
+        Patient stored = patientRepository.findById(legacyId).orElseThrow();
+        assertThat(stored.getPhoneNumber()).isEqualTo("555-000-1111");
+        assertThat(stored.isLegacyDuplicate()).isTrue();
+        assertThat(stored.getIdentityHash()).isNull();
+
+        patientService.updatePatient(legacyId, patient("Marianne", "O'Brien", "marianne@example.com"), null);
+
+        stored = patientRepository.findById(legacyId).orElseThrow();
+        assertThat(stored.isLegacyDuplicate()).isFalse();
+        assertThat(stored.getIdentityHash()).isNotNull();
+        assertThatThrownBy(() -> patientService.createPatient(patient("Marianne", "O'Brien", "third@example.com")))
+                .isInstanceOf(DuplicateRecordException.class);
+    }
+
+    private static PatientDTO patient(String firstName, String lastName, String email) {
+        PatientDTO dto = PatientFixtures.patient(firstName, lastName);
+        dto.setEmail(email);
+        dto.getCaregivers().add(caregiver("Care", "Giver"));
+        return dto;
+    }
+}
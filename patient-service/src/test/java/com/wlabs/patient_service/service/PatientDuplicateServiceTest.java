@@ -0,0 +1,126 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.PatientFixtures;
+import com.wlabs.patient_service.model.dto.DuplicatePairDTO;
+import com.wlabs.patient_service.model.dto.DuplicateScanDTO;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.model.dto.PossibleDuplicateDTO;
+import com.wlabs.patient_service.repository.PatientChangeEventRepository;
+import com.wlabs.patient_service.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PatientDuplicateServiceTest {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientDuplicateService patientDuplicateService;
+
+    @Autowired
+    private PatientChangeRelay patientChangeRelay;
+
+    @Autowired
+    private PatientMatchIndex patientMatchIndex;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientChangeEventRepository patientChangeEventRepository;
+
+    private UUID johnId;
+    private UUID jonId;
+    private UUID unrelatedId;
+
+    @BeforeEach
+    void setUp() {
+        johnId = patientService.createPatient(
+                patient("Johnathan", "Quimby", "jq@example.com", LocalDate.of(1971, 4, 2))).getId();
+        jonId = patientService.createPatient(
+                patient("Jonathan", "Quimbey", "jonathan.quimbey@example.com", LocalDate.of(1971, 4, 2))).getId();
+        unrelatedId = patientService.createPatient(
+                patient("Harriet", "Vance", "h.vance@example.com", LocalDate.of(1988, 12, 30))).getId();
+        patientChangeRelay.relay();
+        patientMatchIndex.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+        patientChangeEventRepository.deleteAll();
+        // Positions restart with the events gone; rebuilt now, the next test's events aren't taken as already applied
+        patientMatchIndex.refresh();
+    }
+
+    @Test
+    void whenNamesAreSpelledDifferently_thenPatientsAreSuggestedAsDuplicates() {
+        List<PossibleDuplicateDTO> duplicates = patientDuplicateService.findPossibleDuplicates(johnId, 10).orElseThrow();
+
+        assertThat(duplicates).extracting(PossibleDuplicateDTO::getId).contains(jonId).doesNotContain(johnId, unrelatedId);
+        PossibleDuplicateDTO jon = duplicates.stream().filter(d -> d.getId().equals(jonId)).findFirst().orElseThrow();
+        assertThat(jon.getMatchedOn()).contains("firstName", "lastName", "dateOfBirth");
+    }
+
+    @Test
+    void whenPatientIsEditedAfterTheIndexWasBuilt_thenTheChangeIsMatchedOnceTheIndexCatchesUp() {
+        PatientDTO renamed = patient("Harriet", "Vane", "h.vance@example.com", LocalDate.of(1988, 12, 30));
+        renamed.setCaregivers(null);
+        patientService.updatePatient(unrelatedId, renamed, null);
+        UUID twinId = patientService.createPatient(
+                patient("Harriett", "Vance", "harriett@example.com", LocalDate.of(1988, 12, 30))).getId();
+        patientChangeRelay.relay();
+        // Lookups read the index as last refreshed, which doesn't have the new patient yet
+        assertThat(patientDuplicateService.findPossibleDuplicates(unrelatedId, 10).orElseThrow())
+                .extracting(PossibleDuplicateDTO::getId).doesNotContain(twinId);
+
+        patientMatchIndex.refresh();
+
+        assertThat(patientDuplicateService.findPossibleDuplicates(twinId, 10).orElseThrow())
+                .extracting(PossibleDuplicateDTO::getId).contains(unrelatedId);
+    }
+
+    @Test
+    void whenPatientDoesNotExist_thenNothingIsReturned() {
+        assertThat(patientDuplicateService.findPossibleDuplicates(UUID.randomUUID(), 10)).isEmpty();
+    }
+
+    @Test
+    void whenScanRuns_thenPairIsReportedOnce() throws InterruptedException {
+        patientDuplicateService.startScan();
+        DuplicateScanDTO scan = patientDuplicateService.getLastScan();
+        for (int i = 0; i < 100 && scan.getStatus() == DuplicateScanDTO.Status.RUNNING; i++) {
+            Thread.sleep(50);
+            scan = patientDuplicateService.getLastScan();
+        }
+
+        assertThat(scan.getStatus()).isEqualTo(DuplicateScanDTO.Status.COMPLETED);
+        assertThat(scan.getPairs())
+                .filteredOn(pair -> List.of(johnId, jonId).containsAll(List.of(pair.getFirstId(), pair.getSecondId())))
+                .hasSize(1);
+        assertThat(scan.getPairs()).flatExtracting(DuplicatePairDTO::getFirstId, DuplicatePairDTO::getSecondId)
+                .doesNotContain(unrelatedId);
+    }
+
+    private static PatientDTO patient(String firstName, String lastName, String email, LocalDate dateOfBirth) {
+        PatientDTO dto = PatientFixtures.patient(firstName, lastName);
+        dto.setEmail(email);
+        // Distinct phones, so only the names and birth dates make these patients alike
+        dto.setPhoneNumber("555-" + String.format("%03d", Math.abs(email.hashCode()) % 1000) + "-4567");
+        dto.setDateOfBirth(dateOfBirth);
+        return dto;
+    }
+}
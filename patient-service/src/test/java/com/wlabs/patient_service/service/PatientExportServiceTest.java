@@ -0,0 +1,126 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.PatientFixtures;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.repository.PatientPartitionRepository;
+import com.wlabs.patient_service.repository.PatientRepository;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PatientExportServiceTest {
+
+    @Autowired
+    private PatientExportService patientExportService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientImportService patientImportService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientPartitionRepository partitionRepository;
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void whenExportAll_thenEachPatientIsOneRowWithHistoryAndCareTeam() throws IOException {
+        UUID id = patientService.createPatient(patient("Ada", "Export", "ada@example.com")).getId();
+        patientService.createPatient(patient("Ben", "Export", "ben@example.com"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(patientExportService.exportCsv(null, out, false)).isEqualTo(2);
+
+        List<CSVRecord> rows = parse(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(rows).extracting(row -> row.get("firstName")).containsExactlyInAnyOrder("Ada", "Ben");
+        CSVRecord ada = rows.stream().filter(row -> row.get("id").equals(id.toString())).findFirst().orElseThrow();
+        assertThat(ada.get("medicalHistory")).isEqualTo("Asthma;Hypertension");
+        assertThat(ada.get("zipcode")).isEqualTo("90210");
+        assertThat(ada.get("dateOfBirth")).isEqualTo("1980-01-01");
+        assertThat(ada.get("caregivers")).isEqualTo("Care Giver|care.giver@example.com|555-987-6543|Family Member");
+        assertThat(Instant.parse(ada.get("updatedAt"))).isBefore(Instant.now());
+    }
+
+    @Test
+    void whenExportModifiedSince_thenOnlyLaterChangesAreExported() throws IOException, InterruptedException {
+        patientService.createPatient(patient("Ada", "Export", "ada@example.com"));
+        Instant modifiedSince = Instant.now();
+        Thread.sleep(10);
+        patientService.createPatient(patient("Ben", "Export", "ben@example.com"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(patientExportService.exportCsv(modifiedSince, out, true)).isEqualTo(1);
+
+        List<CSVRecord> rows = parse(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())));
+        assertThat(rows).extracting(row -> row.get("firstName")).containsExactly("Ben");
+    }
+
+    @Test
+    void whenExportIsImportedAgain_thenPatientsAreRestored() throws IOException {
+        patientService.createPatient(patient("Ada", "Export", "ada@example.com"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        patientExportService.exportCsv(null, out, false);
+        patientRepository.deleteAll();
+
+        assertThat(patientImportService.importCsv(new StringReader(out.toString(StandardCharsets.UTF_8)))
+                .getImportedRows()).isEqualTo(1);
+        assertThat(patientRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenExportingPartitions_thenEachFileIsNamedAfterItsPartition() {
+        assertThat(PatientExportService.partitionFile(Path.of("out", "patients.csv.gz"), "_p3"))
+                .isEqualTo(Path.of("out", "patients_p3.csv.gz"));
+        assertThat(PatientExportService.partitionFile(Path.of("patients"), "_p10")).isEqualTo(Path.of("patients_p10"));
+    }
+
+    @Test
+    void whenTablesAreNotPartitioned_thenThereAreNoPartitionsToExport() {
+        assertThat(partitionRepository.findSuffixes()).isEmpty();
+    }
+
+    private static List<CSVRecord> parse(InputStream in) throws IOException {
+        CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).get();
+        try (CSVParser parser = CSVParser.parse(new InputStreamReader(in, StandardCharsets.UTF_8), format)) {
+            assertThat(parser.getHeaderNames()).containsExactly(PatientExportService.HEADERS);
+            return parser.getRecords();
+        }
+    }
+
+    private static PatientDTO patient(String firstName, String lastName, String email) {
+        PatientDTO dto = PatientFixtures.patient(firstName, lastName);
+        dto.setEmail(email);
+        dto.setMedicalHistory(List.of("Hypertension", "Asthma"));
+        dto.getCaregivers().add(PatientFixtures.caregiver("Care", "Giver"));
+        return dto;
+    }
+}
@@ -0,0 +1,123 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.PatientFixtures;
+import com.wlabs.patient_service.model.dto.ImportReportDTO;
+import com.wlabs.patient_service.model.dto.ImportRowErrorDTO;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not @Transactional: the import service manages its own chunk transactions
+@SpringBootTest
+@ActiveProfiles("test")
+class PatientImportServiceTest {
+
+    @Autowired
+    private PatientImportService patientImportService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void whenImportPatientsAcrossChunks_thenAllRowsAreImported() {
+        List<PatientDTO> patients = new ArrayList<>();
+        for (int i = 0; i < PatientImportService.CHUNK_SIZE + 10; i++) {
+            patients.add(patient("Bulk" + i, "Import", "bulk" + i + "@example.com"));
+        }
+
+        ImportReportDTO report = patientImportService.importPatients(patients);
+
+        assertThat(report.getTotalRows()).isEqualTo(patients.size());
+        assertThat(report.getImportedRows()).isEqualTo(patients.size());
+        assertThat(report.getErrors()).isEmpty();
+        assertThat(patientRepository.count()).isEqualTo(patients.size());
+    }
+
+    @Test
+    void whenImportPatientsWithInvalidAndDuplicateRows_thenReportEachFailedRow() {
+        patientImportService.importPatients(List.of(patient("Existing", "Patient", "existing@example.com")));
+
+        PatientDTO invalid = patient("Invalid", "Patient", "not-an-email");
+        List<PatientDTO> patients = List.of(
+                patient("New", "Patient", "new@example.com"),
+                invalid,
+                patient("Existing", "Patient", "other@example.com"),
+                patient("New", "Patient", "new-again@example.com"),
+                patient("Another", "Patient", "existing@example.com"));
+
+        ImportReportDTO report = patientImportService.importPatients(patients);
+
+        assertThat(report.getImportedRows()).isEqualTo(1);
+        assertThat(report.getFailedRows()).isEqualTo(4);
+        assertThat(report.getErrors()).extracting(ImportRowErrorDTO::getRow).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(report.getErrors().get(0).getMessage()).contains("email");
+        assertThat(report.getErrors().get(2).getMessage()).contains("already exists");
+        assertThat(patientRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void whenDatabaseRejectsOneRow_thenOnlyThatRowFails() {
+        // Passes validation but is longer than the zipcode column
+        PatientDTO tooLong = patient("Long", "Zipcode", "long.zip@example.com");
+        tooLong.getAddress().setZipcode("9".repeat(30));
+        List<PatientDTO> patients = List.of(
+                patient("First", "Patient", "first@example.com"),
+                tooLong,
+                patient("Third", "Patient", "third@example.com"),
+                patient("First", "Patient", "first.again@example.com"));
+
+        ImportReportDTO report = patientImportService.importPatients(patients);
+
+        assertThat(report.getImportedRows()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportRowErrorDTO::getRow).containsExactly(2L, 4L);
+        assertThat(report.getErrors().get(0).getMessage()).startsWith("Not imported: ");
+        assertThat(report.getErrors().get(1).getMessage()).contains("already exists");
+        assertThat(patientRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void whenImportContainsNullRow_thenItIsReported() {
+        ImportReportDTO report = patientImportService.importPatients(
+                Arrays.asList(patient("Some", "Patient", "some@example.com"), null));
+
+        assertThat(report.getImportedRows()).isEqualTo(1);
+        assertThat(report.getErrors()).containsExactly(new ImportRowErrorDTO(2, "The row is empty."));
+    }
+
+    @Test
+    void whenImportCsv_thenParseRowsAndReportUnparseableValues() throws Exception {
+        String csv = """
+                firstName,lastName,email,phoneNumber,heightCm,weightKg,dateOfBirth,ethnicity,typeOfDiabetes,dateOfDiagnosis,biologicalSex,assignedPhysician,notes,medicalHistory,mailingAddress,zipcode,county,state,country
+                Csv,One,csv.one@example.com,555-123-4567,170,70,1980-01-01,White,Type 1,2010-01-01,Male,Dr. Jane Doe,,Asthma;Migraine,1 Main St,90210,Orange County,CA,USA
+                Csv,Two,csv.two@example.com,555-123-4567,tall,70,1980-01-01,White,Type 1,2010-01-01,Male,Dr. Jane Doe,,None,1 Main St,90210,Orange County,CA,USA
+                """;
+
+        ImportReportDTO report = patientImportService.importCsv(new StringReader(csv));
+
+        assertThat(report.getTotalRows()).isEqualTo(2);
+        assertThat(report.getImportedRows()).isEqualTo(1);
+        assertThat(report.getErrors()).containsExactly(new ImportRowErrorDTO(2, "Invalid value for heightCm: tall"));
+    }
+
+    private static PatientDTO patient(String firstName, String lastName, String email) {
+        PatientDTO dto = PatientFixtures.patient(firstName, lastName);
+        dto.setEmail(email);
+        return dto;
+    }
+}
@@ -0,0 +1,61 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.repository.PatientMatchRow;
+import com.wlabs.patient_service.service.PatientMatcher.Match;
+import com.wlabs.patient_service.service.PatientMatcher.Profile;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PatientMatcherTest {
+
+    private static final LocalDate DATE_OF_BIRTH = LocalDate.of(1980, 3, 7);
+
+    private final PatientMatcher patientMatcher = new PatientMatcher();
+
+    @Test
+    void whenNamesSoundAlikeAndBirthDateMatches_thenScoreIsHighAndTheyShareABlock() {
+        Profile john = profile("John", "Smith", "john.smith@example.com", "555-123-4567", DATE_OF_BIRTH);
+        Profile jon = profile("Jon", "Smyth", "jsmith@example.org", "+1 (555) 123-4567", DATE_OF_BIRTH);
+
+        Match match = patientMatcher.match(john, jon);
+
+        assertThat(match.score()).isGreaterThan(0.8);
+        assertThat(match.matchedOn()).containsExactly("firstName", "lastName", "dateOfBirth", "phoneNumber");
+        assertThat(john.blockingKeys()).containsAnyElementsOf(jon.blockingKeys());
+    }
+
+    @Test
+    void whenDayAndMonthAreSwapped_thenBirthDateCountsHalf() {
+        Profile a = profile("Maria", "Garcia", null, null, DATE_OF_BIRTH);
+        Profile b = profile("Maria", "Garcia", null, null, LocalDate.of(1980, 7, 3));
+
+        // Names match fully, the date half: (0.25 + 0.25 + 0.25 * 0.5) / 0.75
+        assertThat(patientMatcher.match(a, b).score()).isCloseTo(0.833, within(0.001));
+    }
+
+    @Test
+    void whenPatientsAreUnrelated_thenScoreIsLowAndTheyShareNoBlock() {
+        Profile john = profile("John", "Smith", "john.smith@example.com", "555-123-4567", DATE_OF_BIRTH);
+        Profile other = profile("Priya", "Natarajan", "priya@example.com", "555-987-0000", LocalDate.of(1992, 11, 20));
+
+        assertThat(patientMatcher.match(john, other).score()).isLessThan(0.5);
+        assertThat(john.blockingKeys()).doesNotContainAnyElementsOf(other.blockingKeys());
+    }
+
+    @Test
+    void whenPlaceholderPhoneIsTooShort_thenItIsNotABlockingKey() {
+        Profile profile = profile("John", "Smith", "", "000", DATE_OF_BIRTH);
+
+        assertThat(profile.blockingKeys()).noneMatch(key -> key.startsWith("phone:") || key.startsWith("email:"));
+    }
+
+    private Profile profile(String firstName, String lastName, String email, String phone, LocalDate dateOfBirth) {
+        return patientMatcher.profile(new PatientMatchRow(UUID.randomUUID(), firstName, lastName, email, phone,
+                dateOfBirth));
+    }
+}
@@ -0,0 +1,87 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.model.dto.PatientSuggestionDTO;
+import com.wlabs.patient_service.repository.PatientMatchRow;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatientPrefixIndexTest {
+
+    private final PatientPrefixIndex index = new PatientPrefixIndex();
+
+    @Test
+    void whenPrefixMatchesNameEmailOrPhone_thenPatientIsSuggestedOnce() {
+        PatientMatchRow jane = row("Jane", "Doe", "jd@example.com", "(555) 123-4567");
+        index.put(jane);
+        index.put(row("Janet", "Smith", "janet@example.com", "555-999-0000"));
+        index.put(row("John", "Janeway", "captain@example.com", "555-000-1111"));
+
+        assertThat(names(index.suggest("JANE", 10))).containsExactly("Jane Doe", "Janet Smith", "John Janeway");
+        assertThat(names(index.suggest("  jane   d", 10))).containsExactly("Jane Doe");
+        assertThat(names(index.suggest("555-12", 10))).containsExactly("Jane Doe");
+        assertThat(names(index.suggest("captain@", 10))).containsExactly("John Janeway");
+        assertThat(index.suggest("jane", 2)).hasSize(2);
+        assertThat(index.suggest("", 10)).isEmpty();
+        assertThat(index.suggest("zz", 10)).isEmpty();
+    }
+
+    @Test
+    void whenPatientIsRenamedOrRemoved_thenOldKeysNoLongerMatch() {
+        PatientMatchRow jane = row("Jane", "Doe", "jd@example.com", "555-123-4567");
+        index.put(jane);
+        index.compact();
+
+        index.put(new PatientMatchRow(jane.id(), "Jane", "Roe", jane.email(), jane.phoneNumber(), jane.dateOfBirth()));
+        assertThat(index.suggest("doe", 10)).isEmpty();
+        assertThat(names(index.suggest("jane", 10))).containsExactly("Jane Roe");
+
+        index.remove(jane.id());
+        assertThat(index.suggest("jane", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void whenIndexIsCompactedRepeatedly_thenLookupsMatchAPlainScan() {
+        List<PatientMatchRow> rows = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            PatientMatchRow row = row("Name" + i, "Family" + (i % 97), "p" + i + "@example.com",
+                    String.format("555-%07d", i));
+            rows.add(row);
+            index.load(row);
+        }
+        index.compact();
+        // Enough updates and removals to trigger compactions on the way
+        for (int i = 0; i < 20_000; i += 3) {
+            index.remove(rows.get(i).id());
+        }
+        for (int i = 1; i < 20_000; i += 3) {
+            PatientMatchRow old = rows.get(i);
+            index.put(new PatientMatchRow(old.id(), "Renamed" + i, old.lastName(), old.email(), old.phoneNumber(),
+                    old.dateOfBirth()));
+        }
+
+        assertThat(index.size()).isEqualTo(20_000 - 6_667);
+        assertThat(index.suggest("name1999", 50)).extracting(PatientSuggestionDTO::getFirstName)
+                .containsExactly("Name19991", "Name19994", "Name19997");
+        assertThat(index.suggest("renamed1", 50)).hasSize(50);
+        long family5 = IntStream.range(0, 20_000)
+                .filter(i -> i % 3 != 0 && ("family" + i % 97).startsWith("family5"))
+                .count();
+        assertThat(index.suggest("family5", 5000)).hasSize((int) family5);
+    }
+
+    private static PatientMatchRow row(String firstName, String lastName, String email, String phoneNumber) {
+        return new PatientMatchRow(UUID.randomUUID(), firstName, lastName, email, phoneNumber, LocalDate.of(1980, 1, 1));
+    }
+
+    private static List<String> names(List<PatientSuggestionDTO> suggestions) {
+        return suggestions.stream().map(s -> s.getFirstName() + " " + s.getLastName()).toList();
+    }
+}
@@ -0,0 +1,88 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.PatientFixtures;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.model.dto.PatientDetailDTO;
+import com.wlabs.patient_service.repository.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static com.wlabs.patient_service.PatientFixtures.caregiver;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PatientServiceCacheTest {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private final String uniqueName = "Cache" + UUID.randomUUID();
+    private Statistics statistics;
+    private UUID patientId;
+
+    @BeforeEach
+    void setUp() {
+        patientId = patientService.createPatient(patient()).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void whenGetPatientByIdTwice_thenSecondReadIsServedFromCache() {
+        patientService.getPatientById(patientId);
+        statistics.clear();
+
+        PatientDetailDTO cached = patientService.getPatientById(patientId).orElseThrow();
+
+        assertThat(cached.getId()).isEqualTo(patientId);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void whenCaregiverIsAddedOrDeleted_thenNextReadSeesTheChange() {
+        assertThat(patientService.getPatientById(patientId).orElseThrow().getCaregivers()).isEmpty();
+
+        UUID caregiverId = patientService.addCaregiverToPatient(patientId, caregiver("Sarah", "Connor")).getId();
+        assertThat(patientService.getPatientById(patientId).orElseThrow().getCaregivers()).hasSize(1);
+
+        patientService.deleteCaregiver(patientId, caregiverId);
+        assertThat(patientService.getPatientById(patientId).orElseThrow().getCaregivers()).isEmpty();
+    }
+
+    @Test
+    void whenPatientIsUpdatedOrDeleted_thenNextReadSeesTheChange() {
+        patientService.getPatientById(patientId);
+        PatientDTO update = patient();
+        update.setNotes("Updated notes");
+
+        patientService.updatePatient(patientId, update, null);
+        assertThat(patientService.getPatientById(patientId).orElseThrow().getNotes()).isEqualTo("Updated notes");
+
+        patientService.deletePatient(patientId);
+        assertThat(patientService.getPatientById(patientId)).isEmpty();
+    }
+
+    private PatientDTO patient() {
+        return PatientFixtures.patient(uniqueName, "Patient");
+    }
+}
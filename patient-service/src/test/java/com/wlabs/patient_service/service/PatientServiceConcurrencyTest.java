@@ -0,0 +1,101 @@
+package com.wlabs.patient_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wlabs.patient_service.PatientFixtures;
+import com.wlabs.patient_service.model.Patient;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.model.dto.PatientDetailDTO;
+import com.wlabs.patient_service.repository.PatientRepository;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.wlabs.patient_service.PatientFixtures.caregiver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PatientServiceConcurrencyTest {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UUID patientId;
+    private long version;
+
+    @BeforeEach
+    void setUp() {
+        Patient created = patientService.createPatient(patient());
+        patientId = created.getId();
+        version = created.getVersion();
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void whenPatchOneField_thenOnlyThatFieldChangesAndVersionMoves() throws Exception {
+        Patient patched = patientService.patchPatient(patientId,
+                objectMapper.readTree("{\"notes\": \"Prefers morning appointments\", \"address\": {\"zipcode\": \"92627\"}}"),
+                version);
+
+        PatientDetailDTO stored = patientService.getPatientById(patientId).orElseThrow();
+        assertThat(patched.getVersion()).isEqualTo(version + 1);
+        assertThat(stored.getVersion()).isEqualTo(version + 1);
+        assertThat(stored.getNotes()).isEqualTo("Prefers morning appointments");
+        assertThat(stored.getAddress().getZipcode()).isEqualTo("92627");
+        assertThat(stored.getAddress().getMailingAddress()).isEqualTo("1 Main St");
+        assertThat(stored.getMedicalHistory()).containsExactly("Asthma", "Hypertension");
+        assertThat(stored.getCaregivers()).hasSize(1);
+    }
+
+    @Test
+    void whenUpdateBasedOnStaleVersion_thenRejected() throws Exception {
+        patientService.patchPatient(patientId, objectMapper.readTree("{\"notes\": \"First edit\"}"), version);
+
+        assertThatThrownBy(() -> patientService.updatePatient(patientId, patient(), version))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(patientService.getPatientById(patientId).orElseThrow().getNotes()).isEqualTo("First edit");
+    }
+
+    @Test
+    void whenCaregiverIsAdded_thenVersionMoves() {
+        patientService.addCaregiverToPatient(patientId, caregiver("Second", "Editor"));
+
+        assertThat(patientService.getPatientById(patientId).orElseThrow().getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void whenPatchMakesPatientInvalid_thenRejectedWithoutChanges() throws Exception {
+        assertThatThrownBy(() -> patientService.patchPatient(patientId,
+                objectMapper.readTree("{\"email\": \"not-an-email\", \"medicalHistory\": []}"), null))
+                .isInstanceOf(ConstraintViolationException.class);
+
+        assertThat(patientService.getPatientById(patientId).orElseThrow().getVersion()).isEqualTo(version);
+    }
+
+    // The history and caregiver are checked to survive a one-field patch
+    private static PatientDTO patient() {
+        PatientDTO dto = PatientFixtures.patient("Concurrent", "Editor");
+        dto.setMedicalHistory(List.of("Asthma", "Hypertension"));
+        dto.getCaregivers().add(caregiver("First", "Editor"));
+        return dto;
+    }
+}
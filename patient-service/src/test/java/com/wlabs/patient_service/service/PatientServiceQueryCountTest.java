@@ -0,0 +1,257 @@
+package com.wlabs.patient_service.service;
+
+import com.wlabs.patient_service.PatientFixtures;
+import com.wlabs.patient_service.model.dto.CaregiverDTO;
+import com.wlabs.patient_service.model.dto.CursorPageDTO;
+import com.wlabs.patient_service.model.dto.MedicalHistoryChangeDTO;
+import com.wlabs.patient_service.model.dto.PatientBatchDTO;
+import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.model.dto.PatientDetailDTO;
+import com.wlabs.patient_service.model.dto.PatientSummaryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PatientServiceQueryCountTest {
+
+    private static final int PATIENTS = 25;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID firstPatientId;
+    private final List<UUID> patientIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PATIENTS; i++) {
+            UUID id = patientService.createPatient(patient("Query" + i, "Counter")).getId();
+            patientIds.add(id);
+            if (firstPatientId == null) {
+                firstPatientId = id;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void whenSearchPatients_thenStatementCountDoesNotGrowWithPageSize() {
+        CursorPageDTO<PatientSummaryDTO> page = patientService.searchPatients("counter", null, PATIENTS);
+
+        assertThat(page.getContent()).hasSize(PATIENTS);
+        // One query for the matching ids, one for their summaries
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void whenGetPatientById_thenDetailLoadsInConstantStatements() {
+        PatientDetailDTO detail = patientService.getPatientById(firstPatientId).orElseThrow();
+
+        assertThat(detail.getAddress()).isNotNull();
+        assertThat(detail.getCaregivers()).hasSize(3);
+        assertThat(detail.getMedicalHistory()).containsExactly("Asthma", "Hypertension");
+        // Patient joined with address and caregivers, then the medical history
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void whenGetPatientsByIds_thenRequestOrderIsKeptInConstantStatements() {
+        UUID unknownId = UUID.randomUUID();
+        List<UUID> reversed = new ArrayList<>(patientIds);
+        Collections.reverse(reversed);
+        List<UUID> ids = new ArrayList<>(reversed);
+        ids.add(2, unknownId);
+        ids.add(firstPatientId);
+
+        PatientBatchDTO batch = patientService.getPatientsByIds(ids);
+
+        assertThat(batch.getPatients()).extracting(PatientDetailDTO::getId).containsExactlyElementsOf(reversed);
+        assertThat(batch.getMissingIds()).containsExactly(unknownId);
+        assertThat(batch.getPatients()).allSatisfy(detail -> {
+            assertThat(detail.getAddress()).isNotNull();
+            assertThat(detail.getCaregivers()).hasSize(3);
+            assertThat(detail.getMedicalHistory()).containsExactly("Asthma", "Hypertension");
+        });
+        // Patients joined with addresses and caregivers, then the medical histories
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void whenGetPatientsByIdsExceedsOneChunk_thenEachChunkTakesTwoStatements() {
+        for (int i = PATIENTS; i < PatientService.BATCH_GET_CHUNK_SIZE + PATIENTS; i++) {
+            patientIds.add(patientService.createPatient(patient("Query" + i, "Counter")).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        PatientBatchDTO batch = patientService.getPatientsByIds(patientIds);
+
+        assertThat(batch.getPatients()).extracting(PatientDetailDTO::getId).containsExactlyElementsOf(patientIds);
+        assertThat(batch.getPatients()).allSatisfy(detail ->
+                assertThat(detail.getMedicalHistory()).containsExactly("Asthma", "Hypertension"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void whenUpdatePatientCaregivers_thenOnlyTheDifferenceIsWritten() {
+        PatientDTO update = updateOf(firstPatientId, "Query0", 3);
+        update.getCaregivers().get(1).setPhoneNumber("555-000-0000");
+        update.getCaregivers().remove(2);
+        update.getCaregivers().add(caregiver(3, "Counter"));
+
+        statementsToUpdate(firstPatientId, update);
+
+        // The new caregiver and the outbox event
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(2);
+        // The changed caregiver, and the patient row whose version moves with its care team
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+        assertThat(statistics.getEntityDeleteCount()).isEqualTo(1);
+    }
+
+    @Test
+    void whenUpdatePatient_thenStatementCountDoesNotGrowWithCareTeam() {
+        PatientDTO largeCareTeam = patient("Query" + PATIENTS, "Counter");
+        for (int i = 3; i < 40; i++) {
+            largeCareTeam.getCaregivers().add(caregiver(i, "Counter"));
+        }
+        UUID largePatientId = patientService.createPatient(largeCareTeam).getId();
+        entityManager.flush();
+
+        long smallTeamStatements = statementsToUpdate(firstPatientId, updateOf(firstPatientId, "Query0", 3));
+        long largeTeamStatements = statementsToUpdate(largePatientId, updateOf(largePatientId, "Query" + PATIENTS, 40));
+
+        assertThat(largeTeamStatements).isEqualTo(smallTeamStatements);
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(statistics.getEntityDeleteCount()).isZero();
+    }
+
+    @Test
+    void whenMedicalHistoryChanges_thenOnlyTheChangedConditionsAreWritten() {
+        PatientDTO longHistory = patient("Query" + PATIENTS, "Counter");
+        List<String> conditions = new ArrayList<>(longHistory.getMedicalHistory());
+        for (int i = 0; i < 30; i++) {
+            conditions.add("Condition " + i);
+        }
+        longHistory.setMedicalHistory(conditions);
+        UUID longHistoryId = patientService.createPatient(longHistory).getId();
+        entityManager.flush();
+
+        MedicalHistoryChangeDTO change = new MedicalHistoryChangeDTO();
+        change.setAdd(List.of("Hypothyroidism"));
+        change.setRemove(List.of("Asthma"));
+        long shortHistoryStatements = statementsToChangeHistory(firstPatientId, change);
+        long longHistoryStatements = statementsToChangeHistory(longHistoryId, change);
+
+        assertThat(longHistoryStatements).isEqualTo(shortHistoryStatements);
+        assertThat(patientService.getPatientById(longHistoryId).orElseThrow().getMedicalHistory())
+                .hasSize(32)
+                .contains("Hypothyroidism", "Hypertension")
+                .doesNotContain("Asthma");
+    }
+
+    @Test
+    void whenFindCohort_thenPatientsWithAllOrAnyConditionArePagedOnce() {
+        PatientDTO diabetic = patient("Query" + PATIENTS, "Counter");
+        diabetic.setMedicalHistory(List.of("Asthma", "Retinopathy"));
+        UUID diabeticId = patientService.createPatient(diabetic).getId();
+        entityManager.flush();
+
+        CursorPageDTO<PatientSummaryDTO> all = patientService.findCohort(List.of("Retinopathy", "Asthma"), true, null, 10);
+        assertThat(all.getContent()).extracting(PatientSummaryDTO::getId).containsExactly(diabeticId);
+        assertThat(all.getNextCursor()).isNull();
+        assertThat(patientService.findCohort(List.of("Retinopathy", "Hypertension"), true, null, 10).getContent())
+                .isEmpty();
+
+        List<UUID> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<PatientSummaryDTO> page =
+                    patientService.findCohort(List.of("Hypertension", "Retinopathy", " Hypertension "), false, cursor, 10);
+            page.getContent().forEach(summary -> ids.add(summary.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertThat(ids).hasSize(PATIENTS + 1).doesNotHaveDuplicates().contains(diabeticId);
+    }
+
+    // Every patient gets the same two conditions and three caregivers, so statement counts can be compared
+    private static PatientDTO patient(String firstName, String lastName) {
+        PatientDTO dto = PatientFixtures.patient(firstName, lastName);
+        dto.setEmail(firstName.toLowerCase() + "." + UUID.randomUUID() + "@example.com");
+        dto.setMedicalHistory(List.of("Asthma", "Hypertension"));
+        for (int i = 0; i < 3; i++) {
+            dto.getCaregivers().add(caregiver(i, lastName));
+        }
+        return dto;
+    }
+
+    private static CaregiverDTO caregiver(int index, String lastName) {
+        CaregiverDTO caregiver = PatientFixtures.caregiver("Care" + index, lastName);
+        caregiver.setPhoneNumber(String.format("555-987-%04d", index));
+        return caregiver;
+    }
+
+    // The stored patient as an update payload: same identity and email, caregivers carrying their ids
+    private PatientDTO updateOf(UUID patientId, String firstName, int caregivers) {
+        PatientDetailDTO stored = patientService.getPatientById(patientId).orElseThrow();
+        Map<String, UUID> caregiverIds = stored.getCaregivers().stream()
+                .collect(Collectors.toMap(CaregiverDTO::getFirstName, CaregiverDTO::getId));
+        PatientDTO update = patient(firstName, "Counter");
+        update.setEmail(stored.getEmail());
+        List<CaregiverDTO> caregiverDtos = new ArrayList<>();
+        for (int i = 0; i < caregivers; i++) {
+            CaregiverDTO caregiver = caregiver(i, "Counter");
+            caregiver.setId(caregiverIds.get(caregiver.getFirstName()));
+            caregiverDtos.add(caregiver);
+        }
+        update.setCaregivers(caregiverDtos);
+        entityManager.clear();
+        return update;
+    }
+
+    private long statementsToChangeHistory(UUID patientId, MedicalHistoryChangeDTO change) {
+        entityManager.clear();
+        statistics.clear();
+        patientService.updateMedicalHistory(patientId, change, null);
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long statementsToUpdate(UUID patientId, PatientDTO update) {
+        statistics.clear();
+        patientService.updatePatient(patientId, update, null);
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -2,20 +2,35 @@ package com.wlabs.patient_service.service;
 
 import com.wlabs.patient_service.mapper.PatientMapper;
 import com.wlabs.patient_service.model.Patient;
+import com.wlabs.patient_service.model.PatientChangeType;
+import com.wlabs.patient_service.model.dto.CursorPageDTO;
 import com.wlabs.patient_service.model.dto.PatientDTO;
+import com.wlabs.patient_service.model.dto.PatientDetailDTO;
+import com.wlabs.patient_service.model.dto.PatientSummaryDTO;
+import com.wlabs.patient_service.repository.PatientChangeEventRepository;
 import com.wlabs.patient_service.repository.PatientRepository;
+import com.wlabs.patient_service.repository.PatientSearchHit;
+import com.wlabs.patient_service.repository.PatientSearchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -27,9 +42,18 @@ class PatientServiceTest {
     @Mock
     private PatientRepository patientRepository;
 
+    @Mock
+    private PatientSearchRepository patientSearchRepository;
+
+    @Mock
+    private PatientChangeEventRepository patientChangeEventRepository;
+
     @Mock
     private PatientMapper patientMapper;
 
+    @Spy
+    private PatientMetrics patientMetrics = new PatientMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private PatientService patientService;
 
@@ -49,20 +73,23 @@ class PatientServiceTest {
     void whenCreatePatient_thenSaveAndReturnPatient() {
 
         when(patientMapper.patientDtoToPatient(any(PatientDTO.class))).thenReturn(patient);
-        when(patientRepository.save(any(Patient.class))).thenReturn(patient);
+        when(patientRepository.saveAndFlush(any(Patient.class))).thenReturn(patient);
 
         Patient savedPatient = patientService.createPatient(patientDto);
 
         assertThat(savedPatient).isNotNull();
-        verify(patientRepository, times(1)).save(patient);
+        verify(patientRepository, times(1)).saveAndFlush(patient);
     }
 
     @Test
     void whenGetPatientById_thenReturnPatient() {
 
-        when(patientRepository.findById(patientId)).thenReturn(Optional.of(patient));
+        PatientDetailDTO detail = new PatientDetailDTO();
+        detail.setId(patientId);
+        when(patientRepository.findDetailById(patientId)).thenReturn(Optional.of(patient));
+        when(patientMapper.patientToPatientDetailDto(patient)).thenReturn(detail);
 
-        Optional<Patient> foundPatient = patientService.getPatientById(patientId);
+        Optional<PatientDetailDTO> foundPatient = patientService.getPatientById(patientId);
 
         assertThat(foundPatient).isPresent();
         assertThat(foundPatient.get().getId()).isEqualTo(patientId);
@@ -77,5 +104,47 @@ class PatientServiceTest {
         patientService.deletePatient(patientId);
 
         verify(patientRepository, times(1)).deleteById(patientId);
+        verify(patientChangeEventRepository).save(argThat(event ->
+                event.getPatientId().equals(patientId) && event.getChangeType() == PatientChangeType.DELETED));
+    }
+
+    @Test
+    void whenSearchPatientsHasMoreHits_thenReturnPageInHitOrderWithCursorForNextPage() {
+        PatientSummaryDTO first = new PatientSummaryDTO();
+        first.setId(patientId);
+        PatientSummaryDTO second = new PatientSummaryDTO();
+        second.setId(UUID.randomUUID());
+        when(patientSearchRepository.search("jo", null, null, 2))
+                .thenReturn(List.of(new PatientSearchHit(patientId, 1.5f), new PatientSearchHit(second.getId(), 0.5f)));
+        when(patientRepository.findSummariesByIdIn(List.of(patientId))).thenReturn(List.of(first));
+
+        CursorPageDTO<PatientSummaryDTO> page = patientService.searchPatients("jo", null, 1);
+
+        assertThat(page.getContent()).containsExactly(first);
+        assertThat(page.getNextCursor()).isNotNull();
+
+        when(patientSearchRepository.search("jo", 1.5f, patientId, 2))
+                .thenReturn(List.of(new PatientSearchHit(second.getId(), 0.5f)));
+        when(patientRepository.findSummariesByIdIn(List.of(second.getId()))).thenReturn(List.of(second));
+
+        CursorPageDTO<PatientSummaryDTO> nextPage = patientService.searchPatients("jo", page.getNextCursor(), 1);
+
+        assertThat(nextPage.getContent()).containsExactly(second);
+        assertThat(nextPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void whenSearchPatientsPageSizeTooLarge_thenCapPageSize() {
+        when(patientSearchRepository.search(eq("jo"), isNull(), isNull(), anyInt())).thenReturn(List.of());
+
+        patientService.searchPatients("jo", null, 100_000);
+
+        verify(patientSearchRepository).search("jo", null, null, PatientService.MAX_SEARCH_PAGE_SIZE + 1);
+    }
+
+    @Test
+    void whenSearchPatientsWithMalformedCursor_thenThrowIllegalArgument() {
+        assertThatThrownBy(() -> patientService.searchPatients("jo", "not-a-cursor", null))
+                .isInstanceOf(IllegalArgumentException.class);
     }
-}
\ No newline at end of file
+}
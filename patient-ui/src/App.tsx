@@ -26,8 +26,8 @@ function App() {
     setApiMessage({ type: '', text: '' });
     try {
       const response = await axios.get(`http://localhost:8080/api/patients/search?term=${termToSearch}`);
-      setPatients(response.data);
-      if (response.data.length === 0) {
+      setPatients(response.data.content);
+      if (response.data.content.length === 0) {
         setApiMessage({ type: 'info', text: 'No patients found matching your search term.' });
       }
     } catch (error) {
@@ -59,10 +59,17 @@ function App() {
     }
   };
 
-  const showEditForm = (patient) => {
+  const showEditForm = async (patient) => {
     setApiMessage({ type: '', text: '' });
-    setEditingPatient(patient);
-    setView('edit');
+    try {
+      // Search results are summaries; the form needs the full record with address, caregivers and history
+      const response = await axios.get(`http://localhost:8080/api/patients/${patient.id}`);
+      setEditingPatient(response.data);
+      setView('edit');
+    } catch (error) {
+      console.error("Fetch failed:", error);
+      setApiMessage({ type: 'error', text: 'Failed to load patient details.' });
+    }
   };
 
   const returnToHome = (message = null) => {
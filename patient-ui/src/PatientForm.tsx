@@ -107,7 +107,9 @@ function PatientForm({ patient: editingPatient, onFormSubmit, onCancel }) {
 
     try {
       if (isEditMode) {
-        await axios.put(`http://localhost:8080/api/patients/${editingPatient.id}`, payload);
+        // If-Match makes the save fail instead of overwriting someone else's newer edit
+        const headers = editingPatient.version != null ? { 'If-Match': `"${editingPatient.version}"` } : {};
+        await axios.put(`http://localhost:8080/api/patients/${editingPatient.id}`, payload, { headers });
         onFormSubmit({ type: 'success', text: `Patient "${patient.firstName} ${patient.lastName}" updated successfully.` });
       } else {
         await axios.post('http://localhost:8080/api/patients', payload);
@@ -115,7 +117,12 @@ function PatientForm({ patient: editingPatient, onFormSubmit, onCancel }) {
       }
     } catch (error) {
       if (error.response) {
-        if (typeof error.response.data === 'string') {
+        // Edits send If-Match, so a stale version comes back as 412; a 409 is a duplicate or constraint clash.
+        if (error.response.status === 412) {
+          onFormSubmit({ type: 'error', text: 'This patient was changed by someone else. Reopen it to see the latest version.' });
+        } else if (typeof error.response.data?.detail === 'string') {
+          onFormSubmit({ type: 'error', text: error.response.data.detail });
+        } else if (typeof error.response.data === 'string') {
           onFormSubmit({ type: 'error', text: error.response.data });
         } else if (typeof error.response.data === 'object' && error.response.data !== null) {
           setErrors(error.response.data);